@@ -0,0 +1,102 @@
+package net.prank.core;
+
+import net.prank.tools.LatencyTracker;
+
+/**
+ * Sizes a ScoreCard timeout from its observed latency instead of a fixed value:
+ * <p>
+ * timeout = min(ceiling, max(minimumMillis, percentile latency * headroom))
+ * <p>
+ * The ceiling is the request timeout (the default, or RequestOptions.getTimeoutMillis()),
+ * so an adaptive timeout never waits longer than a static one would. Until a card has
+ * 'minimumSamples' latencies, the ceiling is used. Immutable and thread safe.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class AdaptiveTimeout {
+
+    public static final double DEFAULT_PERCENTILE = 0.99;
+    public static final double DEFAULT_HEADROOM = 1.5;
+    public static final long DEFAULT_MINIMUM_MILLIS = 2;
+
+    private final double _percentile;
+    private final double _headroom;
+    private final long _minimumMillis;
+
+    public AdaptiveTimeout() {
+        this(DEFAULT_PERCENTILE, DEFAULT_HEADROOM, DEFAULT_MINIMUM_MILLIS);
+    }
+
+    /**
+     * @param percentile The observed latency percentile to budget for, for example 0.99
+     * @param headroom Multiplier on that latency, at least 1.0
+     * @param minimumMillis The smallest timeout, so GC blips do not cut off fast cards
+     */
+    public AdaptiveTimeout(double percentile, double headroom, long minimumMillis) {
+
+        if (percentile <= 0.0 || percentile > 1.0 || headroom < 1.0)
+        {
+            throw new IllegalArgumentException("Invalid Percentile: " + percentile + ", Or Headroom: " + headroom);
+        }
+
+        _percentile = percentile;
+        _headroom = headroom;
+        _minimumMillis = minimumMillis;
+    }
+
+    /**
+     * @param tracker The card's latencies, null uses the ceiling
+     * @param ceilingMillis The request level timeout
+     * @return The timeout for the card, never more than the ceiling
+     */
+    public long determineTimeout(LatencyTracker tracker, long ceilingMillis) {
+
+        if (tracker == null || tracker.getCount() < tracker.getMinimumSamples())
+        {
+            return ceilingMillis;
+        }
+
+        double latency = tracker.getPercentileMillis(_percentile);
+        if (Double.isNaN(latency))
+        {
+            return ceilingMillis;
+        }
+
+        long budget = Math.max(_minimumMillis, (long) Math.ceil(latency * _headroom));
+        return Math.min(ceilingMillis, budget);
+    }
+
+    public double getPercentile() {
+        return _percentile;
+    }
+
+    public double getHeadroom() {
+        return _headroom;
+    }
+
+    public long getMinimumMillis() {
+        return _minimumMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveTimeout{" +
+                "_percentile=" + _percentile +
+                ", _headroom=" + _headroom +
+                ", _minimumMillis=" + _minimumMillis +
+                '}';
+    }
+}
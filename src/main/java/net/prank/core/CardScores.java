@@ -0,0 +1,251 @@
+package net.prank.core;
+
+import net.prank.tools.ScoringCurve;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Request scoped scores for one ScoreCard, stored as primitive columns indexed by
+ * the ordinal (original position) of each scored object. A card fills this in one
+ * pass, then adds result(ordinal) to each ScoreSummary. Those Results are lazy,
+ * ScoreData and Indices are only built when a caller reads them from a Result
+ * (ScoreFormatter dumps, etc). Tallies and ScoreComparator only read the
+ * primitive score. Statistics and the bucket/point configuration are shared by
+ * every Result of the request.
+ * <p>
+ * Fill in all scores before handing out Results. Prankster publishes them to the
+ * caller when the card's Future completes, after that the data is read only.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class CardScores {
+
+    private final String _scoreCardName;
+    private final double[] _scores;
+    /** Allocated on first use, only one of the two value columns is normally used */
+    private Object[] _scoredValues;
+    private double[] _primitiveValues;
+
+    private double[] _adjustedScores;
+    private double[] _normalizedScores;
+    private Statistics _statistics;
+    private int _buckets;
+    private BigDecimal _maxPoints;
+    private BigDecimal _minPoints;
+
+    /**
+     * @param scoreCardName The card that produced these scores
+     * @param size The number of scored objects
+     */
+    public CardScores(String scoreCardName, int size) {
+
+        _scoreCardName = scoreCardName;
+        _scores = new double[size];
+        Arrays.fill(_scores, Double.NaN);
+    }
+
+    /**
+     * Set the score and the value it was scored from
+     * @param ordinal The original position of the scored object
+     * @param scoredValue The value that was scored (price, etc)
+     * @param score The score
+     */
+    public void setScore(int ordinal, Object scoredValue, double score) {
+
+        if (_scoredValues == null)
+        {
+            _scoredValues = new Object[_scores.length];
+        }
+
+        _scoredValues[ordinal] = scoredValue;
+        _scores[ordinal] = score;
+    }
+
+    /**
+     * Set the score and a primitive scored value, which Results return as a Double
+     * @param ordinal The original position of the scored object
+     * @param scoredValue The value that was scored (price, etc)
+     * @param score The score
+     */
+    public void setScore(int ordinal, double scoredValue, double score) {
+
+        if (_primitiveValues == null)
+        {
+            _primitiveValues = emptyColumn();
+        }
+
+        _primitiveValues[ordinal] = scoredValue;
+        _scores[ordinal] = score;
+    }
+
+    public void setScore(int ordinal, double score) {
+        _scores[ordinal] = score;
+    }
+
+    public void setAdjustedScore(int ordinal, double adjustedScore) {
+
+        if (_adjustedScores == null)
+        {
+            _adjustedScores = emptyColumn();
+        }
+
+        _adjustedScores[ordinal] = adjustedScore;
+    }
+
+    public void setNormalizedScore(int ordinal, double normalizedScore) {
+
+        if (_normalizedScores == null)
+        {
+            _normalizedScores = emptyColumn();
+        }
+
+        _normalizedScores[ordinal] = normalizedScore;
+    }
+
+    /**
+     * Normalize every value with a curve in one pass, NaN values are not normalized
+     * @param values The raw values by ordinal
+     * @param curve The curve to score them with
+     */
+    public void setNormalizedScores(double[] values, ScoringCurve curve) {
+
+        if (values.length != _scores.length)
+        {
+            throw new IllegalArgumentException("Expected " + _scores.length + " Values, Not " + values.length);
+        }
+
+        if (_normalizedScores == null)
+        {
+            _normalizedScores = new double[_scores.length];
+        }
+
+        curve.score(values, _normalizedScores);
+    }
+
+    public void setStatistics(Statistics statistics) {
+        _statistics = statistics;
+    }
+
+    /**
+     * The ScoreData bucket and point configuration shared by all Results
+     */
+    public void setPoints(int buckets, BigDecimal minPoints, BigDecimal maxPoints) {
+        _buckets = buckets;
+        _minPoints = minPoints;
+        _maxPoints = maxPoints;
+    }
+
+    /**
+     * @param ordinal The original position of the scored object
+     * @return A lazy Result backed by this object
+     */
+    public Result result(int ordinal) {
+
+        if (ordinal < 0 || ordinal >= _scores.length)
+        {
+            throw new IndexOutOfBoundsException("Ordinal: " + ordinal + ", Size: " + _scores.length);
+        }
+
+        return new LazyResult(this, ordinal);
+    }
+
+    public String getScoreCardName() {
+        return _scoreCardName;
+    }
+
+    public int size() {
+        return _scores.length;
+    }
+
+    /** @return The score or NaN if it was not set */
+    public double getScore(int ordinal) {
+        return _scores[ordinal];
+    }
+
+    /** @return The adjusted score or NaN if it was not set */
+    public double getAdjustedScore(int ordinal) {
+        return _adjustedScores != null ? _adjustedScores[ordinal] : Double.NaN;
+    }
+
+    /** @return The normalized score or NaN if it was not set */
+    public double getNormalizedScore(int ordinal) {
+        return _normalizedScores != null ? _normalizedScores[ordinal] : Double.NaN;
+    }
+
+    /** @return The score for a type or NaN if it was not set */
+    public double getScore(int ordinal, Result.ResultScoreType scoreType) {
+
+        switch (scoreType)
+        {
+            case ORIGINAL:
+                return getScore(ordinal);
+            case NORMALIZED:
+                return getNormalizedScore(ordinal);
+            case ADJUSTED:
+                return getAdjustedScore(ordinal);
+            default:
+                return Double.NaN;
+        }
+    }
+
+    public Object getScoredValue(int ordinal) {
+
+        if (_scoredValues != null && _scoredValues[ordinal] != null)
+        {
+            return _scoredValues[ordinal];
+        }
+
+        if (_primitiveValues != null && !Double.isNaN(_primitiveValues[ordinal]))
+        {
+            return _primitiveValues[ordinal];
+        }
+
+        return null;
+    }
+
+    public Statistics getStatistics() {
+        return _statistics;
+    }
+
+    public int getBuckets() {
+        return _buckets;
+    }
+
+    public BigDecimal getMaxPoints() {
+        return _maxPoints;
+    }
+
+    public BigDecimal getMinPoints() {
+        return _minPoints;
+    }
+
+    private double[] emptyColumn() {
+
+        double[] column = new double[_scores.length];
+        Arrays.fill(column, Double.NaN);
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return "CardScores{" +
+                "_scoreCardName='" + _scoreCardName + '\'' +
+                ", _size=" + _scores.length +
+                ", _statistics=" + _statistics +
+                '}';
+    }
+}
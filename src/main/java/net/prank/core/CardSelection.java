@@ -0,0 +1,153 @@
+package net.prank.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * A precompiled subset of ScoreCards for a Request, as a BitSet of ScoreCardRegistry
+ * ordinals. Prankster checks a bit instead of looking up RequestOptions by name, and
+ * for an 'only' selection it visits just the selected cards.
+ * <p>
+ * Scenarios:
+ * 1) all(): every ScoreCard is selected
+ * 2) only(names): just those ScoreCards are selected
+ * 3) allExcept(names): every ScoreCard except those is selected
+ * <p>
+ * A selected card still honors RequestOptions.isEnabled() for its name, but options
+ * for some cards no longer disable every other card. Selections are immutable, so
+ * one per experiment bucket can be built at startup and shared by every Request.
+ * <p>
+ * Names are looked up with ScoreCardRegistry.find() and unregistered names are
+ * ignored, so build selections after the Prankster that registers the cards (or
+ * register the names first).
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public final class CardSelection {
+
+    private static final CardSelection ALL = new CardSelection(new BitSet(), true);
+
+    private final BitSet _ordinals;
+    /** true if _ordinals are excluded rather than included */
+    private final boolean _excluding;
+
+    private CardSelection(BitSet ordinals, boolean excluding) {
+        _ordinals = ordinals;
+        _excluding = excluding;
+    }
+
+    public static CardSelection all() {
+        return ALL;
+    }
+
+    public static CardSelection only(String... scoreCardNames) {
+        return only(scoreCardNames != null ? Arrays.asList(scoreCardNames) : null);
+    }
+
+    public static CardSelection only(Collection<String> scoreCardNames) {
+        return new CardSelection(ScoreCardRegistry.toBitSet(scoreCardNames), false);
+    }
+
+    public static CardSelection allExcept(String... scoreCardNames) {
+        return allExcept(scoreCardNames != null ? Arrays.asList(scoreCardNames) : null);
+    }
+
+    public static CardSelection allExcept(Collection<String> scoreCardNames) {
+        return new CardSelection(ScoreCardRegistry.toBitSet(scoreCardNames), true);
+    }
+
+    /** @return A copy that also selects the ScoreCard, or this for an unregistered name */
+    public CardSelection with(String scoreCardName) {
+        return update(scoreCardName, !_excluding);
+    }
+
+    /** @return A copy that does not select the ScoreCard, or this for an unregistered name */
+    public CardSelection without(String scoreCardName) {
+        return update(scoreCardName, _excluding);
+    }
+
+    private CardSelection update(String scoreCardName, boolean set) {
+
+        int ordinal = ScoreCardRegistry.find(scoreCardName);
+        if (ordinal < 0)
+        {
+            return this;
+        }
+
+        BitSet ordinals = (BitSet) _ordinals.clone();
+        ordinals.set(ordinal, set);
+        return new CardSelection(ordinals, _excluding);
+    }
+
+    public boolean isSelected(int ordinal) {
+        return ordinal >= 0 && _ordinals.get(ordinal) != _excluding;
+    }
+
+    public boolean isSelected(String scoreCardName) {
+        return isSelected(ScoreCardRegistry.find(scoreCardName));
+    }
+
+    /** @return true for only(), where the selected ordinals can be iterated directly */
+    public boolean isExplicit() {
+        return !_excluding;
+    }
+
+    /**
+     * The next selected ordinal for an explicit selection, see BitSet.nextSetBit()
+     * @param fromOrdinal The ordinal to start from
+     * @return The next ordinal or -1
+     */
+    public int nextSelected(int fromOrdinal) {
+
+        if (_excluding)
+        {
+            throw new IllegalStateException("Cannot Iterate An Excluding Selection");
+        }
+
+        return _ordinals.nextSetBit(fromOrdinal);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o)
+        {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        CardSelection that = (CardSelection) o;
+        return _excluding == that._excluding && _ordinals.equals(that._ordinals);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * _ordinals.hashCode() + (_excluding ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "CardSelection{" +
+                "_ordinals=" + _ordinals +
+                ", _excluding=" + _excluding +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package net.prank.core;
+
+/**
+ * What happened to one ScoreCard for one Request, see ScoringOutcome and
+ * ScoreSummary.getCardStatus().
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public enum CardStatus {
+
+    /** The card finished within its timeout */
+    COMPLETED,
+    /** The card did not finish within its timeout, some objects may be unscored */
+    TIMED_OUT,
+    /** The card threw an exception, some objects may be unscored */
+    FAILED,
+    /** The card was not selected or was disabled for the request */
+    SKIPPED,
+    /** The card's CircuitBreaker is open, so it was not submitted */
+    CIRCUIT_OPEN
+}
@@ -0,0 +1,333 @@
+package net.prank.core;
+
+/**
+ * A per ScoreCard circuit breaker for Prankster. While CLOSED, the last
+ * 'windowSize' outcomes are counted and the breaker OPENs when, after
+ * 'minimumCalls', the failure rate or the timeout rate reaches its threshold.
+ * <p>
+ * While OPEN, the card is skipped immediately (CardStatus.CIRCUIT_OPEN) instead of
+ * adding its full timeout to every request. After 'openMillis' it is HALF_OPEN and
+ * lets 'probeRate' of requests through: 'probesToClose' completed probes in a row
+ * close it, any failed or timed out probe opens it again.
+ * <p>
+ * Thread safe, all state changes synchronize on the breaker.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final byte COMPLETED = 0;
+    private static final byte FAILED = 1;
+    private static final byte TIMED_OUT = 2;
+
+    private final Policy _policy;
+    /** The last windowSize outcomes as a ring */
+    private final byte[] _window;
+
+    private State _state = State.CLOSED;
+    private int _next;
+    private int _calls;
+    private int _failures;
+    private int _timeouts;
+    private long _openUntilNanos;
+    private long _probeCandidates;
+    private int _probeSuccesses;
+
+    public CircuitBreaker(Policy policy) {
+        _policy = policy;
+        _window = new byte[policy._windowSize];
+    }
+
+    /**
+     * @return true if the card should be submitted for this request
+     */
+    public synchronized boolean allowRequest() {
+
+        if (_state == State.OPEN)
+        {
+            if (System.nanoTime() - _openUntilNanos < 0)
+            {
+                return false;
+            }
+
+            _state = State.HALF_OPEN;
+            _probeCandidates = 0;
+            _probeSuccesses = 0;
+        }
+
+        if (_state == State.HALF_OPEN)
+        {
+            // The first request after opening, then every 1 / probeRate requests
+            return _probeCandidates++ % _policy._probeInterval == 0;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param status The outcome of a submitted card, SKIPPED and CIRCUIT_OPEN are ignored
+     */
+    public synchronized void record(CardStatus status) {
+
+        byte outcome;
+        switch (status)
+        {
+            case COMPLETED:
+                outcome = COMPLETED;
+                break;
+            case FAILED:
+                outcome = FAILED;
+                break;
+            case TIMED_OUT:
+                outcome = TIMED_OUT;
+                break;
+            default:
+                return;
+        }
+
+        if (_state == State.HALF_OPEN)
+        {
+            recordProbe(outcome);
+        }
+        else if (_state == State.CLOSED)
+        {
+            recordClosed(outcome);
+        }
+    }
+
+    public synchronized State getState() {
+        return _state;
+    }
+
+    public Policy getPolicy() {
+        return _policy;
+    }
+
+    /** @return Failures / calls in the current window */
+    public synchronized double getFailureRate() {
+        return _calls == 0 ? 0.0 : (double) _failures / _calls;
+    }
+
+    /** @return Timeouts / calls in the current window */
+    public synchronized double getTimeoutRate() {
+        return _calls == 0 ? 0.0 : (double) _timeouts / _calls;
+    }
+
+    private void recordClosed(byte outcome) {
+
+        if (_calls == _window.length)
+        {
+            forget(_window[_next]);
+        }
+        else
+        {
+            _calls++;
+        }
+
+        _window[_next] = outcome;
+        _next = (_next + 1) % _window.length;
+        _failures += outcome == FAILED ? 1 : 0;
+        _timeouts += outcome == TIMED_OUT ? 1 : 0;
+
+        if (_calls >= _policy._minimumCalls
+            && ((double) _failures / _calls >= _policy._failureRateThreshold
+                || (double) _timeouts / _calls >= _policy._timeoutRateThreshold))
+        {
+            open();
+        }
+    }
+
+    private void recordProbe(byte outcome) {
+
+        if (outcome != COMPLETED)
+        {
+            open();
+            return;
+        }
+
+        if (++_probeSuccesses >= _policy._probesToClose)
+        {
+            _state = State.CLOSED;
+            resetWindow();
+        }
+    }
+
+    private void open() {
+
+        _state = State.OPEN;
+        _openUntilNanos = System.nanoTime() + _policy._openNanos;
+        resetWindow();
+    }
+
+    private void forget(byte outcome) {
+        _failures -= outcome == FAILED ? 1 : 0;
+        _timeouts -= outcome == TIMED_OUT ? 1 : 0;
+    }
+
+    private void resetWindow() {
+        _next = 0;
+        _calls = 0;
+        _failures = 0;
+        _timeouts = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker{" +
+                "_state=" + _state +
+                ", _calls=" + _calls +
+                ", _failures=" + _failures +
+                ", _timeouts=" + _timeouts +
+                '}';
+    }
+
+    /** Immutable breaker thresholds, shared by every card of a Prankster */
+    public static class Policy {
+
+        private final int _windowSize;
+        private final int _minimumCalls;
+        private final double _failureRateThreshold;
+        private final double _timeoutRateThreshold;
+        private final long _openNanos;
+        private final long _probeInterval;
+        private final int _probesToClose;
+
+        private Policy(Builder builder) {
+            _windowSize = builder._bWindowSize;
+            _minimumCalls = builder._bMinimumCalls;
+            _failureRateThreshold = builder._bFailureRateThreshold;
+            _timeoutRateThreshold = builder._bTimeoutRateThreshold;
+            _openNanos = builder._bOpenMillis * 1000000L;
+            _probeInterval = Math.max(1, Math.round(1.0 / builder._bProbeRate));
+            _probesToClose = builder._bProbesToClose;
+        }
+
+        public int getWindowSize() {
+            return _windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return _minimumCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return _failureRateThreshold;
+        }
+
+        public double getTimeoutRateThreshold() {
+            return _timeoutRateThreshold;
+        }
+
+        public double getProbeRate() {
+            return 1.0 / _probeInterval;
+        }
+
+        public int getProbesToClose() {
+            return _probesToClose;
+        }
+
+        @Override
+        public String toString() {
+            return "Policy{" +
+                    "_windowSize=" + _windowSize +
+                    ", _minimumCalls=" + _minimumCalls +
+                    ", _failureRateThreshold=" + _failureRateThreshold +
+                    ", _timeoutRateThreshold=" + _timeoutRateThreshold +
+                    ", _openNanos=" + _openNanos +
+                    ", _probeInterval=" + _probeInterval +
+                    ", _probesToClose=" + _probesToClose +
+                    '}';
+        }
+
+        /**
+         * Unless otherwise specified, the defaults are:
+         * 1) windowSize = 50, minimumCalls = 20
+         * 2) failureRateThreshold = 0.5, timeoutRateThreshold = 0.5
+         * 3) openMillis = 5000
+         * 4) probeRate = 0.1, probesToClose = 3
+         */
+        public static class Builder {
+
+            private int _bWindowSize = 50;
+            private int _bMinimumCalls = 20;
+            private double _bFailureRateThreshold = 0.5;
+            private double _bTimeoutRateThreshold = 0.5;
+            private long _bOpenMillis = 5000;
+            private double _bProbeRate = 0.1;
+            private int _bProbesToClose = 3;
+
+            public Builder setWindowSize(int windowSize) {
+                _bWindowSize = windowSize;
+                return this;
+            }
+
+            public Builder setMinimumCalls(int minimumCalls) {
+                _bMinimumCalls = minimumCalls;
+                return this;
+            }
+
+            public Builder setFailureRateThreshold(double failureRateThreshold) {
+                _bFailureRateThreshold = failureRateThreshold;
+                return this;
+            }
+
+            public Builder setTimeoutRateThreshold(double timeoutRateThreshold) {
+                _bTimeoutRateThreshold = timeoutRateThreshold;
+                return this;
+            }
+
+            public Builder setOpenMillis(long openMillis) {
+                _bOpenMillis = openMillis;
+                return this;
+            }
+
+            /** The fraction of requests that probe a HALF_OPEN card */
+            public Builder setProbeRate(double probeRate) {
+                _bProbeRate = probeRate;
+                return this;
+            }
+
+            public Builder setProbesToClose(int probesToClose) {
+                _bProbesToClose = probesToClose;
+                return this;
+            }
+
+            public Policy build() {
+
+                if (_bWindowSize < 1 || _bMinimumCalls < 1 || _bMinimumCalls > _bWindowSize)
+                {
+                    throw new IllegalArgumentException("Invalid Window: " + _bWindowSize + ", Minimum Calls: "
+                                                       + _bMinimumCalls);
+                }
+
+                if (_bProbeRate <= 0.0 || _bProbeRate > 1.0 || _bProbesToClose < 1 || _bOpenMillis < 0)
+                {
+                    throw new IllegalArgumentException("Invalid Probe Rate: " + _bProbeRate + ", Probes: "
+                                                       + _bProbesToClose + ", Open Millis: " + _bOpenMillis);
+                }
+
+                return new Policy(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package net.prank.core;
+
+/**
+ * A ScoreCard flavor for scoring one element of a collection at a time, where each
+ * element's score does not depend on the rest of the collection. Wrap it with a
+ * FanOutScoreCard to score whole collections: Prankster then splits the collection
+ * into chunks and scores them in parallel on the card's executor, rather than the
+ * caller submitting one Request per element.
+ * <p>
+ * Implementations must be stateless (or thread safe), chunks run concurrently.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public interface ElementScoreCard<E> {
+
+    /**
+     * Score one element and add its Result to the element's ScoreSummary
+     * @param element The element to score
+     * @param index The element's position in the collection
+     * @param options Request specific options, null for the defaults
+     */
+    public void scoreElement(E element, int index, RequestOptions options);
+
+    /**
+     * The name of the ScoreCard, used as the key in ScoreSummary
+     * @return The name of the ScoreCard
+     */
+    public String getName();
+}
@@ -0,0 +1,302 @@
+package net.prank.core;
+
+import net.prank.tools.BucketPlan;
+import net.prank.tools.RunningStatistics;
+import net.prank.tools.ScoringCurve;
+import net.prank.tools.ScoringTool;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A ScoreCard for a List of Scorable built from a value extractor, a direction and
+ * points/buckets, instead of a hand written card per value (price, shipping cost,
+ * etc). Scoring is a few primitive passes:
+ * <p>
+ * 1) extract each value into a double[] while collecting RunningStatistics
+ * 2) build (or reuse) a BucketPlan, evenly, by quantile or by standard deviation
+ * 3) ScoringTool.scoreFromRanges() into a double[]
+ * 4) optionally, a ScoringCurve for a smooth normalized score
+ * 5) add lazy Results backed by one CardScores for the request
+ * <p>
+ * Null elements and values the extractor returns as NaN are not scored. The points
+ * and bucket count come from the RequestOptions when present, otherwise from the
+ * card defaults. Stateless after construction, so safe for Prankster threads.
+ * <p>
+ * ScoreCard<List<ExampleObject>> price = new ExtractorScoreCard.Builder<ExampleObject>(
+ *                                            "PriceScoreCard", e -> e.getPrice().doubleValue())
+ *                                            .setDirection(ExtractorScoreCard.Direction.LOW_VALUE_AS_HIGH_SCORE)
+ *                                            .setPoints(0, 20, 10)
+ *                                            .build();
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ExtractorScoreCard<E extends Scorable>
+    implements ScoreCard<List<E>> {
+
+    /** Which end of the value range earns the most points */
+    public enum Direction {
+
+        LOW_VALUE_AS_HIGH_SCORE,
+        HIGH_VALUE_AS_HIGH_SCORE
+    }
+
+    /** How bucket boundaries are chosen for each request */
+    public enum Bucketing {
+
+        /** Evenly from min to max, scoreBucketsEvenly*() */
+        EVEN,
+        /** About the same number of values per bucket */
+        QUANTILE,
+        /** Evenly over the average +/- two standard deviations */
+        STANDARD_DEVIATION
+    }
+
+    private final String _name;
+    private final ToDoubleFunction<? super E> _extractor;
+    private final Direction _direction;
+    private final Bucketing _bucketing;
+    private final double _minPoints;
+    private final double _maxPoints;
+    private final int _bucketCount;
+    /** A fixed plan for every request, otherwise built from each request's values */
+    private final BucketPlan _bucketPlan;
+    /** Optional normalized score */
+    private final ScoringCurve _normalizedCurve;
+
+    private ExtractorScoreCard(String name, ToDoubleFunction<? super E> extractor, Direction direction,
+                               Bucketing bucketing, double minPoints, double maxPoints, int bucketCount,
+                               BucketPlan bucketPlan, ScoringCurve normalizedCurve) {
+
+        _name = name;
+        _extractor = extractor;
+        _direction = direction;
+        _bucketing = bucketing;
+        _minPoints = minPoints;
+        _maxPoints = maxPoints;
+        _bucketCount = bucketCount;
+        _bucketPlan = bucketPlan;
+        _normalizedCurve = normalizedCurve;
+    }
+
+    @Override
+    public ScoreSummary score(List<E> scoringObject) {
+
+        updateObjectsWithScore(scoringObject);
+        return null;
+    }
+
+    @Override
+    public ScoreSummary scoreWith(List<E> scoringObject, RequestOptions options) {
+
+        updateObjectsWithScore(scoringObject, options);
+        return null;
+    }
+
+    @Override
+    public void updateObjectsWithScore(List<E> scoringObject) {
+        updateObjectsWithScore(scoringObject, null);
+    }
+
+    @Override
+    public void updateObjectsWithScore(List<E> scoringObject, RequestOptions options) {
+
+        if (scoringObject == null || scoringObject.isEmpty())
+        {
+            return;
+        }
+
+        int size = scoringObject.size();
+        double[] values = new double[size];
+        RunningStatistics stats = extractValues(scoringObject, values);
+
+        if (stats.getCount() == 0)
+        {
+            return;
+        }
+
+        double minPoints = options != null ? options.getMinPoints() : _minPoints;
+        double maxPoints = options != null ? options.getMaxPoints() : _maxPoints;
+        int bucketCount = options != null ? options.getBucketCount() : _bucketCount;
+
+        ScoringTool tool = new ScoringTool();
+        BucketPlan plan = _bucketPlan != null ? _bucketPlan
+                                              : buildBucketPlan(tool, minPoints, maxPoints, bucketCount, values,
+                                                                stats);
+
+        double[] scores = new double[size];
+        tool.scoreFromRanges(values, plan, scores, Double.NaN);
+
+        CardScores cardScores = new CardScores(_name, size);
+        cardScores.setStatistics(stats.toStatistics());
+        cardScores.setPoints(bucketCount, BigDecimal.valueOf(minPoints), BigDecimal.valueOf(maxPoints));
+
+        if (_normalizedCurve != null)
+        {
+            cardScores.setNormalizedScores(values, _normalizedCurve);
+        }
+
+        int i = 0;
+        for (E element : scoringObject)
+        {
+            if (element != null && element.getScoreSummary() != null && !Double.isNaN(values[i]))
+            {
+                cardScores.setScore(i, values[i], scores[i]);
+                element.getScoreSummary().addResult(_name, cardScores.result(i));
+            }
+
+            i++;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return _name;
+    }
+
+    public Direction getDirection() {
+        return _direction;
+    }
+
+    public Bucketing getBucketing() {
+        return _bucketing;
+    }
+
+    /** One pass, NaN for null elements */
+    private RunningStatistics extractValues(List<E> scoringObject, double[] values) {
+
+        RunningStatistics stats = new RunningStatistics();
+        int i = 0;
+
+        for (E element : scoringObject)
+        {
+            double value = element != null ? _extractor.applyAsDouble(element) : Double.NaN;
+            values[i++] = value;
+            stats.accept(value);
+        }
+
+        return stats;
+    }
+
+    private BucketPlan buildBucketPlan(ScoringTool tool, double minPoints, double maxPoints, int bucketCount,
+                                       double[] values, RunningStatistics stats) {
+
+        boolean highAsHigh = _direction == Direction.HIGH_VALUE_AS_HIGH_SCORE;
+
+        if (_bucketing == Bucketing.QUANTILE)
+        {
+            return highAsHigh
+                   ? tool.scoreQuantileBucketsHighValueAsHighScore(minPoints, maxPoints, bucketCount, values,
+                                                                   stats.getMin(), stats.getMax())
+                   : tool.scoreQuantileBucketsLowValueAsHighScore(minPoints, maxPoints, bucketCount, values,
+                                                                  stats.getMin(), stats.getMax());
+        }
+
+        if (_bucketing == Bucketing.STANDARD_DEVIATION)
+        {
+            return highAsHigh
+                   ? tool.scoreStandardDeviationBucketsHighValueAsHighScore(minPoints, maxPoints, bucketCount, stats)
+                   : tool.scoreStandardDeviationBucketsLowValueAsHighScore(minPoints, maxPoints, bucketCount, stats);
+        }
+
+        if (highAsHigh)
+        {
+            return BucketPlan.compile(tool.scoreBucketsEvenlyHighValueAsHighScore(minPoints, maxPoints, bucketCount,
+                                                                                  stats.getMin(), stats.getMax()));
+        }
+
+        return BucketPlan.compile(tool.scoreBucketsEvenlyLowValueAsHighScore(minPoints, maxPoints, bucketCount,
+                                                                            stats.getMin(), stats.getMax()));
+    }
+
+    @Override
+    public String toString() {
+        return "ExtractorScoreCard{" +
+                "_name='" + _name + '\'' +
+                ", _direction=" + _direction +
+                ", _bucketing=" + _bucketing +
+                ", _minPoints=" + _minPoints +
+                ", _maxPoints=" + _maxPoints +
+                ", _bucketCount=" + _bucketCount +
+                ", _bucketPlan=" + _bucketPlan +
+                ", _normalizedCurve=" + _normalizedCurve +
+                '}';
+    }
+
+    public static class Builder<E extends Scorable> {
+
+        private final String _bName;
+        private final ToDoubleFunction<? super E> _bExtractor;
+        private Direction _bDirection = Direction.LOW_VALUE_AS_HIGH_SCORE;
+        private Bucketing _bBucketing = Bucketing.EVEN;
+        private double _bMinPoints = 0;
+        private double _bMaxPoints = 10;
+        private int _bBucketCount = 10;
+        private BucketPlan _bBucketPlan;
+        private ScoringCurve _bNormalizedCurve;
+
+        /**
+         * @param name The ScoreCard name
+         * @param extractor The value to score, NaN to skip an element
+         */
+        public Builder(String name, ToDoubleFunction<? super E> extractor) {
+            _bName = name;
+            _bExtractor = extractor;
+        }
+
+        public Builder<E> setDirection(Direction direction) {
+            _bDirection = direction;
+            return this;
+        }
+
+        public Builder<E> setBucketing(Bucketing bucketing) {
+            _bBucketing = bucketing;
+            return this;
+        }
+
+        /** Defaults when a request has no RequestOptions for this card */
+        public Builder<E> setPoints(double minPoints, double maxPoints, int bucketCount) {
+            _bMinPoints = minPoints;
+            _bMaxPoints = maxPoints;
+            _bBucketCount = bucketCount;
+            return this;
+        }
+
+        /** Use the same plan for every request instead of evenly sized buckets per request */
+        public Builder<E> setBucketPlan(BucketPlan bucketPlan) {
+            _bBucketPlan = bucketPlan;
+            return this;
+        }
+
+        /** Score each value with a curve into the normalized score */
+        public Builder<E> setNormalizedCurve(ScoringCurve normalizedCurve) {
+            _bNormalizedCurve = normalizedCurve;
+            return this;
+        }
+
+        public ExtractorScoreCard<E> build() {
+
+            if (_bName == null || _bExtractor == null)
+            {
+                throw new IllegalArgumentException("Name And Extractor Are Required");
+            }
+
+            return new ExtractorScoreCard<>(_bName, _bExtractor, _bDirection, _bBucketing, _bMinPoints,
+                                            _bMaxPoints, _bBucketCount, _bBucketPlan, _bNormalizedCurve);
+        }
+    }
+}
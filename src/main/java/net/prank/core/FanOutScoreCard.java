@@ -0,0 +1,170 @@
+package net.prank.core;
+
+import java.util.List;
+
+/**
+ * Scores a List with an ElementScoreCard. Called directly, it scores every element
+ * on the calling thread. Registered with Prankster, the list is split into chunks
+ * that run in parallel on this card's executor (see Prankster), so a large list is
+ * one Request with one hand-off per chunk instead of one per element.
+ * <p>
+ * The number of chunks is the smaller of the processor count and
+ * size / minimumChunkSize, so small lists are a single chunk.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class FanOutScoreCard<E>
+    implements ScoreCard<List<E>> {
+
+    /** Fewer elements than this per chunk is not worth a hand-off */
+    public static final int DEFAULT_MINIMUM_CHUNK_SIZE = 256;
+
+    private final ElementScoreCard<E> _elementScoreCard;
+    private final int _minimumChunkSize;
+    private final int _maximumChunks;
+
+    public FanOutScoreCard(ElementScoreCard<E> elementScoreCard) {
+        this(elementScoreCard, DEFAULT_MINIMUM_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param elementScoreCard Scores each element
+     * @param minimumChunkSize The fewest elements per chunk
+     * @param maximumChunks The most chunks per request, usually the core count
+     */
+    public FanOutScoreCard(ElementScoreCard<E> elementScoreCard, int minimumChunkSize, int maximumChunks) {
+
+        if (minimumChunkSize < 1 || maximumChunks < 1)
+        {
+            throw new IllegalArgumentException("Chunk Size And Count Must Be Positive");
+        }
+
+        _elementScoreCard = elementScoreCard;
+        _minimumChunkSize = minimumChunkSize;
+        _maximumChunks = maximumChunks;
+    }
+
+    /**
+     * Adapt a ScoreCard for a single object (ExampleScoreCard, etc) so that
+     * collections of those objects can be scored in chunks.
+     *
+     * @param scoreCard A ScoreCard that scores one element
+     * @return A FanOutScoreCard with default chunking
+     */
+    public static <E> FanOutScoreCard<E> forElements(final ScoreCard<E> scoreCard) {
+
+        return new FanOutScoreCard<>(new ElementScoreCard<E>() {
+
+            @Override
+            public void scoreElement(E element, int index, RequestOptions options) {
+
+                if (options != null)
+                {
+                    scoreCard.updateObjectsWithScore(element, options);
+                }
+                else
+                {
+                    scoreCard.updateObjectsWithScore(element);
+                }
+            }
+
+            @Override
+            public String getName() {
+                return scoreCard.getName();
+            }
+        });
+    }
+
+    /**
+     * Score elements [fromIndex, toIndex) on the calling thread
+     */
+    public void scoreChunk(List<E> elements, int fromIndex, int toIndex, RequestOptions options) {
+
+        for (int i = fromIndex; i < toIndex; i++)
+        {
+            E element = elements.get(i);
+            if (element != null)
+            {
+                _elementScoreCard.scoreElement(element, i, options);
+            }
+        }
+    }
+
+    /**
+     * @param size The collection size
+     * @return How many elements each chunk should score
+     */
+    public int determineChunkSize(int size) {
+
+        int chunks = Math.max(1, Math.min(_maximumChunks, size / _minimumChunkSize));
+        return (size + chunks - 1) / chunks;
+    }
+
+    @Override
+    public ScoreSummary score(List<E> scoringObject) {
+
+        updateObjectsWithScore(scoringObject);
+        return null;
+    }
+
+    @Override
+    public ScoreSummary scoreWith(List<E> scoringObject, RequestOptions options) {
+
+        updateObjectsWithScore(scoringObject, options);
+        return null;
+    }
+
+    @Override
+    public void updateObjectsWithScore(List<E> scoringObject) {
+        updateObjectsWithScore(scoringObject, null);
+    }
+
+    @Override
+    public void updateObjectsWithScore(List<E> scoringObject, RequestOptions options) {
+
+        if (scoringObject != null)
+        {
+            int i = 0;
+            for (E element : scoringObject)
+            {
+                if (element != null)
+                {
+                    _elementScoreCard.scoreElement(element, i, options);
+                }
+
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return _elementScoreCard.getName();
+    }
+
+    public ElementScoreCard<E> getElementScoreCard() {
+        return _elementScoreCard;
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutScoreCard{" +
+                "_elementScoreCard=" + _elementScoreCard +
+                ", _minimumChunkSize=" + _minimumChunkSize +
+                ", _maximumChunks=" + _maximumChunks +
+                '}';
+    }
+}
@@ -0,0 +1,36 @@
+package net.prank.core;
+
+/**
+ * A latency critical ScoreCard that opts in to hedged execution. If the card has not
+ * finished by its observed getHedgePercentile() latency, Prankster starts a second
+ * execution of the same card for the same request and uses whichever finishes first.
+ * At most one hedge runs per card per request, and only once the card's LatencyTracker
+ * has enough samples, so the extra work is limited to the slow tail.
+ * <p>
+ * Both executions score the same objects, possibly at the same time. Each execution's
+ * addResult() calls are buffered on its thread, only the first to succeed publishes
+ * them and the other is interrupted. So add Results from the scoring thread, do not
+ * read them back while scoring, and do not keep per request state in the card.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public interface Hedgeable {
+
+    /**
+     * @return The latency percentile (0.0 - 1.0) to wait before hedging, for example 0.95
+     */
+    public double getHedgePercentile();
+}
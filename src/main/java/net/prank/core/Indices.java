@@ -30,29 +30,147 @@ public class Indices
 
     private static final long serialVersionUID = 42L;
     /** A collection of indices for any object that is subject to multiple sorts */
-    private final List<Integer> _indices;
+    private volatile List<Integer> _indices;
+
+    /**
+     * Sorts after attaching to a PositionTracker resolve from its permutations. Reads
+     * only lock while attached, a detached (or never attached) Indices reads the list.
+     */
+    private transient volatile PositionTracker _tracker;
+    /** The tracker sort count when attached */
+    private transient int _trackerOffset;
+    /** This object's position in the tracker's original order */
+    private transient int _trackedIndex;
 
     public Indices(int originalIndex) {
         _indices = new ArrayList<>();
         _indices.add(originalIndex);
     }
 
+    /**
+     * Copy the indices of another object, for example to reuse a Result without
+     * sharing subsequent sort updates.
+     *
+     * @param other The indices to copy
+     */
+    public Indices(Indices other) {
+        _indices = other.getIndices();
+    }
+
+    /** The original index is never changed by attaching or resolving */
     public int getOriginalIndex() {
         return _indices.get(0);
     }
 
     public int getLastIndex() {
-        return _indices.get(_indices.size() - 1);
+
+        if (_tracker != null)
+        {
+            return trackedLastIndex();
+        }
+
+        List<Integer> indices = _indices;
+        return indices.get(indices.size() - 1);
     }
 
     public List<Integer> getIndices() {
-        return new ArrayList<>(_indices);
+        return _tracker != null ? trackedIndices() : new ArrayList<>(_indices);
     }
 
+    /** @return The number of recorded indices, without copying them */
+    public int getIndexCount() {
+        return _tracker != null ? trackedIndexCount() : _indices.size();
+    }
+
+    /**
+     * @param sortNumber 0 for the original index, then one per recorded sort
+     * @return The index after 'sortNumber' sorts
+     */
+    public int getIndex(int sortNumber) {
+        return _tracker != null ? trackedIndex(sortNumber) : _indices.get(sortNumber);
+    }
+
+    /**
+     * Record a new position directly. If this is attached to a PositionTracker, the
+     * tracked positions are copied first and the tracker is detached.
+     */
     public void updateWithCurrentIndex(int currentIndex) {
+
+        if (_tracker != null)
+        {
+            resolve();
+        }
+
         _indices.add(currentIndex);
     }
 
+    /**
+     * Resolve subsequent sorts from a tracker (see PositionTracker.attach())
+     * @param tracker The request's tracker
+     * @param trackedIndex This object's position in the tracker's original order
+     */
+    synchronized void attach(PositionTracker tracker, int trackedIndex) {
+
+        if (_tracker != null)
+        {
+            _indices = trackedIndices();
+        }
+
+        _trackerOffset = tracker.getSortCount();
+        _trackedIndex = trackedIndex;
+        _tracker = tracker;
+    }
+
+    /** Copy the tracked positions into the list and detach, once */
+    private synchronized void resolve() {
+
+        if (_tracker != null)
+        {
+            _indices = trackedIndices();
+            _tracker = null;
+        }
+    }
+
+    private synchronized List<Integer> trackedIndices() {
+
+        int count = trackedIndexCount();
+        List<Integer> indices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            indices.add(trackedIndex(i));
+        }
+
+        return indices;
+    }
+
+    private synchronized int trackedIndexCount() {
+        return _indices.size() + (_tracker != null ? _tracker.getSortCount() - _trackerOffset : 0);
+    }
+
+    private synchronized int trackedLastIndex() {
+        return trackedIndex(trackedIndexCount() - 1);
+    }
+
+    private synchronized int trackedIndex(int sortNumber) {
+
+        if (sortNumber < _indices.size())
+        {
+            return _indices.get(sortNumber);
+        }
+
+        if (_tracker == null || sortNumber >= trackedIndexCount())
+        {
+            throw new IndexOutOfBoundsException("Sort Number: " + sortNumber + ", Count: " + trackedIndexCount());
+        }
+
+        return _tracker.getPosition(_trackerOffset + sortNumber - _indices.size(), _trackedIndex);
+    }
+
+    /** Serialize the resolved positions, the tracker is request scoped */
+    private Object writeReplace() {
+        return _tracker != null ? new Indices(this) : this;
+    }
+
     @Override
     public boolean equals(Object o) {
 
@@ -67,18 +185,23 @@ public class Indices
         }
 
         Indices indices = (Indices) o;
-        return _indices.equals(indices._indices);
+        if (_tracker == null && indices._tracker == null)
+        {
+            return _indices.equals(indices._indices);
+        }
+
+        return getIndices().equals(indices.getIndices());
     }
 
     @Override
     public int hashCode() {
-        return _indices.hashCode();
+        return _tracker == null ? _indices.hashCode() : getIndices().hashCode();
     }
 
     @Override
     public String toString() {
         return "Indices{" +
-                "_indices=" + _indices +
+                "_indices=" + (_tracker == null ? _indices : getIndices()) +
                 '}';
     }
 }
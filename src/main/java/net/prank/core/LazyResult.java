@@ -0,0 +1,112 @@
+package net.prank.core;
+
+import java.io.ObjectStreamException;
+import java.math.BigDecimal;
+
+/**
+ * A Result that holds only an ordinal into shared CardScores. ScoreData and Indices
+ * are built on first use, and getScore() answers tallies straight from the primitive
+ * column. Serializes as a regular, fully built Result.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+final class LazyResult<T>
+    extends Result<T> {
+
+    private static final long serialVersionUID = 42L;
+
+    private final transient CardScores _cardScores;
+    private final int _ordinal;
+
+    private transient volatile ScoreData _scoreData;
+    private transient Indices _indices;
+
+    LazyResult(CardScores cardScores, int ordinal) {
+
+        super(null, null, null, null, null);
+        _cardScores = cardScores;
+        _ordinal = ordinal;
+    }
+
+    @Override
+    public String getScoreCardName() {
+        return _cardScores.getScoreCardName();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getScoredValue() {
+        return (T) _cardScores.getScoredValue(_ordinal);
+    }
+
+    /** Built once since sorting updates the current index */
+    @Override
+    public synchronized Indices getPosition() {
+
+        if (_indices == null)
+        {
+            _indices = new Indices(_ordinal);
+        }
+
+        return _indices;
+    }
+
+    @Override
+    public ScoreData getScoreData() {
+
+        ScoreData scoreData = _scoreData;
+        if (scoreData == null)
+        {
+            scoreData = new ScoreData(toDecimal(_cardScores.getScore(_ordinal)),
+                                      toDecimal(_cardScores.getAdjustedScore(_ordinal)),
+                                      toDecimal(_cardScores.getNormalizedScore(_ordinal)),
+                                      _cardScores.getBuckets(), _cardScores.getMaxPoints(),
+                                      _cardScores.getMinPoints());
+            _scoreData = scoreData;
+        }
+
+        return scoreData;
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return _cardScores.getStatistics();
+    }
+
+    @Override
+    public BigDecimal getScore(ResultScoreType scoreType) {
+
+        if (scoreType == null)
+        {
+            return null;
+        }
+
+        return toDecimal(_cardScores.getScore(_ordinal, scoreType));
+    }
+
+    @Override
+    public double getScoreAsDouble(ResultScoreType scoreType) {
+        return scoreType != null ? _cardScores.getScore(_ordinal, scoreType) : Double.NaN;
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new Result<>(getScoreCardName(), getScoredValue(), getPosition(), getScoreData(), getStatistics());
+    }
+}
@@ -0,0 +1,205 @@
+package net.prank.core;
+
+import net.prank.tools.SegmentedLruCache;
+
+import java.util.function.Function;
+
+/**
+ * Wraps a ScoreCard whose per object score is expensive, but depends only on an
+ * object key (item id, seller id, etc) and the RequestOptions. The first time a key
+ * is scored, the wrapped card runs and its Result is cached. Repeat keys copy the
+ * cached Result into the object's ScoreSummary without calling the wrapped card.
+ * <p>
+ * Only use this for cards that score each object independently. Cards that score a
+ * collection relative to itself (averages, positions, etc) should not be memoized
+ * per object. Objects with a null key are always scored by the wrapped card.
+ * <p>
+ * The cache is a SegmentedLruCache, so it is bounded and safe to share across the
+ * Prankster ScoreCard threads and across requests.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class MemoizingScoreCard<T extends Scorable>
+    implements ScoreCard<T> {
+
+    private final ScoreCard<T> _scoreCard;
+    private final Function<? super T, ?> _keyExtractor;
+    private final SegmentedLruCache<MemoKey, Result> _cache;
+
+    /**
+     * @param scoreCard The expensive ScoreCard to wrap
+     * @param keyExtractor The key that determines the score (along with options)
+     * @param maximumSize The approximate maximum number of cached Results
+     */
+    public MemoizingScoreCard(ScoreCard<T> scoreCard, Function<? super T, ?> keyExtractor, int maximumSize) {
+
+        _scoreCard = scoreCard;
+        _keyExtractor = keyExtractor;
+        _cache = new SegmentedLruCache<>(maximumSize);
+    }
+
+    /**
+     * @return The object's summary after scoring
+     */
+    @Override
+    public ScoreSummary score(T scoringObject) {
+
+        updateObjectsWithScore(scoringObject, null);
+        return scoringObject.getScoreSummary();
+    }
+
+    /**
+     * @return The object's summary after scoring
+     */
+    @Override
+    public ScoreSummary scoreWith(T scoringObject, RequestOptions options) {
+
+        updateObjectsWithScore(scoringObject, options);
+        return scoringObject.getScoreSummary();
+    }
+
+    @Override
+    public void updateObjectsWithScore(T scoringObject) {
+        updateObjectsWithScore(scoringObject, null);
+    }
+
+    @Override
+    public void updateObjectsWithScore(T scoringObject, RequestOptions options) {
+
+        Object key = scoringObject != null ? _keyExtractor.apply(scoringObject) : null;
+        if (key == null || scoringObject.getScoreSummary() == null)
+        {
+            score(scoringObject, options);
+            return;
+        }
+
+        MemoKey memoKey = new MemoKey(key, options);
+        Result cached = _cache.get(memoKey);
+
+        if (cached != null)
+        {
+            scoringObject.getScoreSummary().addResult(getName(), copyResult(cached));
+            return;
+        }
+
+        score(scoringObject, options);
+        Result result = scoringObject.getScoreSummary().getResultByScoreCard(getName());
+
+        if (result != null)
+        {
+            _cache.put(memoKey, copyResult(result));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return _scoreCard.getName();
+    }
+
+    public ScoreCard<T> getScoreCard() {
+        return _scoreCard;
+    }
+
+    public long getHitCount() {
+        return _cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return _cache.getMissCount();
+    }
+
+    public double getHitRate() {
+        return _cache.getHitRate();
+    }
+
+    public long size() {
+        return _cache.size();
+    }
+
+    public void invalidateAll() {
+        _cache.invalidateAll();
+    }
+
+    private void score(T scoringObject, RequestOptions options) {
+
+        if (options == null)
+        {
+            _scoreCard.updateObjectsWithScore(scoringObject);
+        }
+        else
+        {
+            _scoreCard.updateObjectsWithScore(scoringObject, options);
+        }
+    }
+
+    /** ScoreData and Statistics are shared, Indices are copied since sorting updates them */
+    @SuppressWarnings("unchecked")
+    private Result copyResult(Result result) {
+
+        Result.Builder builder = new Result.Builder(result);
+        builder.setPosition(result.getPosition() != null ? new Indices(result.getPosition()) : null);
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoizingScoreCard{" +
+                "_scoreCard=" + _scoreCard +
+                ", _cache=" + _cache +
+                '}';
+    }
+
+    /** Object key plus the options it was scored with */
+    private static class MemoKey {
+
+        private final Object _key;
+        private final RequestOptions _options;
+        private final int _hashCode;
+
+        private MemoKey(Object key, RequestOptions options) {
+            _key = key;
+            _options = options;
+            _hashCode = 31 * key.hashCode() + (options != null ? options.hashCode() : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o)
+            {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            MemoKey that = (MemoKey) o;
+            if (_hashCode != that._hashCode || !_key.equals(that._key))
+            {
+                return false;
+            }
+
+            return _options != null ? _options.equals(that._options) : that._options == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package net.prank.core;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records each sort of a request's scored collection once, as an int[] of positions,
+ * instead of appending a boxed Integer to every Result's Indices. Attach the
+ * collection once, then record() after each sort. Attached Indices resolve those
+ * sorts lazily, so the full position history is still available per object.
+ * <p>
+ * PositionTracker tracker = new PositionTracker(examples);   // attach
+ * int[] order = sorter.sort(examples);
+ * tracker.record(order);                                     // or tracker.record(examples)
+ * <p>
+ * Record from one thread at a time (the sorting thread). Readers see every sort
+ * recorded before they read. Attach after scoring completes, Results added later are
+ * not tracked. Indices.updateWithCurrentIndex() still works, it
+ * copies the tracked positions into that Indices and detaches it.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class PositionTracker {
+
+    private final Map<Object, Integer> _trackedIndices;
+    private final int _size;
+    /** The tracked index of the object currently at each position */
+    private int[] _current;
+    /** positions[sort][tracked index] */
+    private volatile int[][] _positions = new int[0][];
+
+    /**
+     * Attach every Result's Indices in the collection to this tracker
+     * @param scorables The scored collection in its current order, null elements are not tracked
+     */
+    public PositionTracker(List<? extends Scorable> scorables) {
+
+        _size = scorables.size();
+        _current = new int[_size];
+        _trackedIndices = new IdentityHashMap<>(_size);
+
+        int i = 0;
+        for (Scorable scorable : scorables)
+        {
+            _current[i] = i;
+            if (scorable != null)
+            {
+                _trackedIndices.put(scorable, i);
+                attach(scorable, i);
+            }
+
+            i++;
+        }
+    }
+
+    /**
+     * Record a sort from a permutation, as returned by ScoreSorter.sort()
+     * @param order The pre-sort position of the object now at each position
+     */
+    public synchronized void record(int[] order) {
+
+        if (order.length != _size)
+        {
+            throw new IllegalArgumentException("Order Size: " + order.length + ", Expected: " + _size);
+        }
+
+        int[] current = new int[_size];
+        int[] positions = new int[_size];
+
+        for (int i = 0; i < _size; i++)
+        {
+            current[i] = _current[order[i]];
+            positions[current[i]] = i;
+        }
+
+        append(current, positions);
+    }
+
+    /**
+     * Record a sort from the collection's new order, for example after Collections.sort()
+     * @param sortedScorables The same (attached) objects, sorted
+     */
+    public synchronized void record(List<? extends Scorable> sortedScorables) {
+
+        if (sortedScorables.size() != _size)
+        {
+            throw new IllegalArgumentException("Collection Size: " + sortedScorables.size() + ", Expected: " + _size);
+        }
+
+        int[] current = new int[_size];
+        int[] positions = new int[_size];
+        Arrays.fill(positions, -1);
+
+        int i = 0;
+        for (Scorable scorable : sortedScorables)
+        {
+            Integer tracked = scorable != null ? _trackedIndices.get(scorable) : null;
+            if (tracked == null)
+            {
+                throw new IllegalArgumentException("Not A Tracked Object At Position: " + i);
+            }
+
+            current[i] = tracked;
+            positions[tracked] = i;
+            i++;
+        }
+
+        append(current, positions);
+    }
+
+    /** @return The number of recorded sorts */
+    public int getSortCount() {
+        return _positions.length;
+    }
+
+    /**
+     * @param sort The recorded sort, 0 for the first
+     * @param trackedIndex The object's position when the tracker was created
+     * @return The object's position after that sort
+     */
+    public int getPosition(int sort, int trackedIndex) {
+        return _positions[sort][trackedIndex];
+    }
+
+    /** @return A copy of the positions (by tracked index) after a sort */
+    public int[] getPositions(int sort) {
+        return _positions[sort].clone();
+    }
+
+    public int size() {
+        return _size;
+    }
+
+    private void attach(Scorable scorable, int trackedIndex) {
+
+        ScoreSummary summary = scorable.getScoreSummary();
+        if (summary == null)
+        {
+            return;
+        }
+
+        for (Result result : summary.getResults().values())
+        {
+            if (result != null && result.getPosition() != null)
+            {
+                result.getPosition().attach(this, trackedIndex);
+            }
+        }
+    }
+
+    private void append(int[] current, int[] positions) {
+
+        int[][] recorded = Arrays.copyOf(_positions, _positions.length + 1);
+        recorded[recorded.length - 1] = positions;
+        _current = current;
+        _positions = recorded;
+    }
+
+    @Override
+    public String toString() {
+        return "PositionTracker{" +
+                "_size=" + _size +
+                ", _sortCount=" + getSortCount() +
+                '}';
+    }
+}
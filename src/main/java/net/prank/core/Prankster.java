@@ -1,5 +1,6 @@
 package net.prank.core;
 
+import net.prank.tools.LatencyTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,8 +9,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Singleton (via Spring),
@@ -44,6 +50,18 @@ public class Prankster<T> {
     private static final Logger LOG = LoggerFactory.getLogger(Prankster.class);
 
     private final Map<ScoreCard<T>, ExecutorService> _scoring;
+    /** The _scoring entries indexed by ScoreCardRegistry ordinal, for CardSelection requests */
+    private volatile CardSlot<T>[] _slots;
+    /** Observed latency (queue wait plus scoring) by ScoreCard name */
+    private final ConcurrentHashMap<String, LatencyTracker> _latencyTrackers = new ConcurrentHashMap<>();
+    /** null for static timeouts */
+    private volatile AdaptiveTimeout _adaptiveTimeout;
+    /** Breakers by ScoreCard name, empty while _circuitBreakerPolicy is null */
+    private final ConcurrentHashMap<String, CircuitBreaker> _circuitBreakers = new ConcurrentHashMap<>();
+    private volatile CircuitBreaker.Policy _circuitBreakerPolicy;
+    /** Starts hedged executions of Hedgeable cards, created on first use */
+    private volatile ScheduledExecutorService _hedgeScheduler;
+    private final AtomicLong _hedgeCount = new AtomicLong();
     /**
      * Core should target peak concurrent searches per host
      */
@@ -68,6 +86,8 @@ public class Prankster<T> {
             _scoring = new HashMap<>(0);
             _corePoolSize = 0;
         }
+
+        _slots = indexSlots(_scoring);
     }
 
     /**
@@ -91,6 +111,8 @@ public class Prankster<T> {
             _scoring = new HashMap<>(0);
             _corePoolSize = 0;
         }
+
+        _slots = indexSlots(_scoring);
     }
 
     /**
@@ -104,6 +126,7 @@ public class Prankster<T> {
         gameOver();
         Map<ScoreCard<T>, ExecutorService> rematch = initFixedThreadPools(scoreCards, _corePoolSize);
         _scoring.putAll(rematch);
+        _slots = indexSlots(_scoring);
     }
 
     public synchronized void reload(Set<ScoreCard<T>> scoreCards, int corePoolSize) {
@@ -111,6 +134,7 @@ public class Prankster<T> {
         gameOver();
         Map<ScoreCard<T>, ExecutorService> rematch = initFixedThreadPools(scoreCards, corePoolSize);
         _scoring.putAll(rematch);
+        _slots = indexSlots(_scoring);
     }
 
     /**
@@ -131,40 +155,138 @@ public class Prankster<T> {
             entry.getValue().shutdown();
         }
         _scoring.clear();
+        _slots = indexSlots(_scoring);
+
+        if (_hedgeScheduler != null)
+        {
+            _hedgeScheduler.shutdownNow();
+            _hedgeScheduler = null;
+        }
     }
 
     /**
      * Submit request and scorables to the work queues and wait the specified time for
      * them to complete scoring. This eats all exceptions, but there is a chance some
-     * or all of the objects will not be scored.
+     * or all of the objects will not be scored. The outcome reports which cards
+     * completed, timed out, failed or were skipped, and each ScoreSummary is marked
+     * for cards that timed out or failed.
      *
      * @param objectsToScore A single object or collection of objects with type T
      * @param defaultTimeoutInMillis The time to wait for scoring to complete.
+     * @return The per card outcome, empty for a null or disabled request
      */
-    public void updateObjectsWithScores(Request<T> objectsToScore, int defaultTimeoutInMillis) {
+    public ScoringOutcome updateObjectsWithScores(Request<T> objectsToScore, int defaultTimeoutInMillis) {
 
         if ( objectsToScore == null || objectsToScore.isDisabled() )
         {
             LOG.warn("Cannot ScoreData Null Objects OR Scoring Is Disabled");
-            return;
+            return ScoringOutcome.empty();
         }
 
+        long start = System.nanoTime();
         Set<ScoringFuture> scoringFutures = buildScoringUpdateFutures(objectsToScore, defaultTimeoutInMillis);
+        Map<String, ScoringOutcome.CardOutcome> outcomes = ScoringOutcome.newCardOutcomes(_scoring.size());
+
         for (ScoringFuture scoringFuture : scoringFutures)
         {
-            long timeout = scoringFuture._timeout;
-            try
+            ScoringOutcome.CardOutcome outcome = awaitScoring(scoringFuture, objectsToScore);
+            outcomes.put(outcome.getScoreCardName(), outcome);
+        }
+
+        for (ScoreCard<T> scoreCard : _scoring.keySet())
+        {
+            if (!outcomes.containsKey(scoreCard.getName()))
             {
-                scoringFuture._future.get(timeout, TimeUnit.MILLISECONDS);
+                outcomes.put(scoreCard.getName(),
+                             new ScoringOutcome.CardOutcome(scoreCard.getName(), CardStatus.SKIPPED, 0, null));
             }
-            catch (Throwable t)
+        }
+
+        return new ScoringOutcome(objectsToScore.getRequestObject(), outcomes, System.nanoTime() - start);
+    }
+
+    /** Wait for one card, then mark the objects it may not have scored */
+    private ScoringOutcome.CardOutcome awaitScoring(ScoringFuture scoringFuture, Request<T> request) {
+
+        if (scoringFuture._circuitOpen)
+        {
+            markCardStatus(request.getRequestObject(), scoringFuture._scoreCardName, CardStatus.CIRCUIT_OPEN);
+            return new ScoringOutcome.CardOutcome(scoringFuture._scoreCardName, CardStatus.CIRCUIT_OPEN, 0, null);
+        }
+
+        long timeout = scoringFuture._timeout;
+        CardStatus status = CardStatus.FAILED;
+        Throwable failure = null;
+
+        try
+        {
+            scoringFuture._future.get(timeout, TimeUnit.MILLISECONDS);
+            status = CardStatus.COMPLETED;
+        }
+        catch (TimeoutException e)
+        {
+            status = CardStatus.TIMED_OUT;
+            LOG.warn("Failed To Complete Scoring In Time: {}, For: {}", timeout, scoringFuture._scoreCardName);
+        }
+        catch (ExecutionException e)
+        {
+            failure = e.getCause() != null ? e.getCause() : e;
+            LOG.warn("Failed To Complete Scoring For: {}", scoringFuture._scoreCardName, failure);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            failure = e;
+            LOG.warn("Interrupted Waiting For: {}", scoringFuture._scoreCardName);
+        }
+        catch (Throwable t)
+        {
+            failure = t;
+            LOG.warn("Failed To Complete Scoring For: {}", scoringFuture._scoreCardName, t);
+        }
+
+        if (scoringFuture._circuitBreaker != null)
+        {
+            scoringFuture._circuitBreaker.record(status);
+        }
+
+        if (status != CardStatus.COMPLETED)
+        {
+            markCardStatus(request.getRequestObject(), scoringFuture._scoreCardName, status);
+        }
+
+        long elapsed = scoringFuture._timing != null ? scoringFuture._timing.elapsedNanos() : 0;
+        return new ScoringOutcome.CardOutcome(scoringFuture._scoreCardName, status, elapsed, failure);
+    }
+
+    /** Mark each Scorable without a Result from the card */
+    private void markCardStatus(Object requestObject, String scoreCardName, CardStatus status) {
+
+        if (requestObject instanceof Scorable)
+        {
+            markCardStatus((Scorable) requestObject, scoreCardName, status);
+        }
+        else if (requestObject instanceof Iterable)
+        {
+            for (Object element : (Iterable<?>) requestObject)
             {
-                LOG.warn("Failed To Complete Scoring In time: %s, For: %s", timeout,
-                         objectsToScore.getRequestObject(), t);
+                if (element instanceof Scorable)
+                {
+                    markCardStatus((Scorable) element, scoreCardName, status);
+                }
             }
         }
     }
 
+    private void markCardStatus(Scorable scorable, String scoreCardName, CardStatus status) {
+
+        ScoreSummary summary = scorable.getScoreSummary();
+        if (summary != null && summary.getCardStatus(scoreCardName) == null)
+        {
+            summary.markCardStatus(scoreCardName, status);
+        }
+    }
+
     /**
      * Create and add Future Runnables to their appropriate executor pool. A generic request and timeout.
      * @param request The generic request object (list of 'x')
@@ -180,6 +302,12 @@ public class Prankster<T> {
             return new HashSet<>();
         }
 
+        CardSelection selection = request.getCardSelection();
+        if (selection != null)
+        {
+            return buildSelectedScoringFutures(request, selection, defaultTimeoutMillis);
+        }
+
         int futuresCount = determineFuturesCount(request);
         Set<ScoringFuture> scoringFutures = new HashSet<>(futuresCount);
 
@@ -190,16 +318,280 @@ public class Prankster<T> {
                 continue;
             }
 
-            long timeout = determineTimeout(defaultTimeoutMillis, entry.getKey().getName(), request.getOptions());
-            ScoreRunnable<T> runnable = new ScoreRunnable<>(entry.getKey(), request);
-            Future future = entry.getValue().submit(runnable);
-            ScoringFuture scoringFuture = new ScoringFuture(future, timeout);
-            scoringFutures.add(scoringFuture);
+            scoringFutures.add(submitScoringFuture(entry.getKey(), entry.getValue(), request, defaultTimeoutMillis));
+        }
+
+        return scoringFutures;
+    }
+
+    /**
+     * Only the ScoreCards in the CardSelection. An explicit selection walks its set bits,
+     * otherwise each card's ordinal is checked. RequestOptions can still disable a card.
+     */
+    private Set<ScoringFuture> buildSelectedScoringFutures(Request<T> request, CardSelection selection,
+                                                           long defaultTimeoutMillis) {
+
+        CardSlot<T>[] slots = _slots;
+        Set<ScoringFuture> scoringFutures = new HashSet<>();
+
+        if (selection.isExplicit())
+        {
+            for (int ordinal = selection.nextSelected(0); ordinal >= 0 && ordinal < slots.length;
+                 ordinal = selection.nextSelected(ordinal + 1))
+            {
+                addSelectedScoringFuture(slots[ordinal], request, defaultTimeoutMillis, scoringFutures);
+            }
+
+            return scoringFutures;
+        }
+
+        for (int ordinal = 0; ordinal < slots.length; ordinal++)
+        {
+            if (selection.isSelected(ordinal))
+            {
+                addSelectedScoringFuture(slots[ordinal], request, defaultTimeoutMillis, scoringFutures);
+            }
         }
 
         return scoringFutures;
     }
 
+    private void addSelectedScoringFuture(CardSlot<T> slot, Request<T> request, long defaultTimeoutMillis,
+                                          Set<ScoringFuture> scoringFutures) {
+
+        if (slot == null)
+        {
+            return;
+        }
+
+        RequestOptions options = request.getOptionsForScoreCard(slot._scoreCard.getName());
+        if (options != null && !options.isEnabled())
+        {
+            return;
+        }
+
+        scoringFutures.add(submitScoringFuture(slot._scoreCard, slot._executor, request, defaultTimeoutMillis));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ScoringFuture submitScoringFuture(ScoreCard<T> scoreCard, ExecutorService executor, Request<T> request,
+                                              long defaultTimeoutMillis) {
+
+        CircuitBreaker breaker = findCircuitBreaker(scoreCard.getName());
+        if (breaker != null && !breaker.allowRequest())
+        {
+            return new ScoringFuture(CompletableFuture.completedFuture(null), 0, scoreCard.getName(), null, breaker,
+                                     true);
+        }
+
+        long timeout = determineTimeout(defaultTimeoutMillis, scoreCard.getName(), request.getOptions());
+        LatencyTracker tracker = findLatencyTracker(scoreCard.getName());
+        AdaptiveTimeout adaptiveTimeout = _adaptiveTimeout;
+        if (adaptiveTimeout != null)
+        {
+            timeout = adaptiveTimeout.determineTimeout(tracker, timeout);
+        }
+
+        long hedgeDelay = determineHedgeDelay(scoreCard, tracker, timeout);
+        TaskTiming timing = new TaskTiming(tracker);
+        Future future = hedgeDelay >= 0 ? submitHedged(scoreCard, executor, request, timing, hedgeDelay)
+                                        : submitScoring(scoreCard, executor, request, timing);
+        return new ScoringFuture(future, timeout, scoreCard.getName(), timing, breaker, false);
+    }
+
+    /**
+     * Hedge a Hedgeable card at its observed percentile latency. Cards without enough
+     * samples, or whose percentile is not below the timeout, are not hedged.
+     *
+     * @return The delay before hedging in millis, or -1 to not hedge
+     */
+    private long determineHedgeDelay(ScoreCard<T> scoreCard, LatencyTracker tracker, long timeout) {
+
+        if (!(scoreCard instanceof Hedgeable) || scoreCard instanceof FanOutScoreCard || tracker == null
+            || tracker.getCount() < tracker.getMinimumSamples())
+        {
+            return -1;
+        }
+
+        double percentile = ((Hedgeable) scoreCard).getHedgePercentile();
+        if (!(percentile > 0.0 && percentile < 1.0))
+        {
+            return -1;
+        }
+
+        double percentileMillis = tracker.getPercentileMillis(percentile);
+        if (Double.isNaN(percentileMillis))
+        {
+            return -1;
+        }
+
+        long delay = Math.max(1, (long) Math.ceil(percentileMillis));
+        return delay < timeout ? delay : -1;
+    }
+
+    /**
+     * Run the card now, and once more after 'hedgeDelayMillis' if it has not finished.
+     * Only the execution that wins publishes Results and records a latency sample.
+     */
+    private Future<?> submitHedged(ScoreCard<T> scoreCard, ExecutorService executor, Request<T> request,
+                                   TaskTiming timing, long hedgeDelayMillis) {
+
+        HedgedFuture hedged = new HedgedFuture(timing);
+        hedged.launch(executor, new ScoreRunnable<>(scoreCard, request, null), request.getPriority());
+
+        ScheduledFuture<?> hedge = hedgeScheduler().schedule(() -> {
+
+            if (hedged.isDone())
+            {
+                return;
+            }
+
+            try
+            {
+                hedged.launch(executor, new ScoreRunnable<>(scoreCard, request, null), request.getPriority());
+                _hedgeCount.incrementAndGet();
+            }
+            catch (RejectedExecutionException e)
+            {
+                LOG.debug("Hedge Rejected For: {}", scoreCard.getName());
+            }
+        }, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+
+        hedged._first.whenComplete((ignored, failure) -> hedge.cancel(false));
+        return hedged;
+    }
+
+    private ScheduledExecutorService hedgeScheduler() {
+
+        ScheduledExecutorService scheduler = _hedgeScheduler;
+        if (scheduler != null)
+        {
+            return scheduler;
+        }
+
+        synchronized (this)
+        {
+            if (_hedgeScheduler == null)
+            {
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                    Thread thread = new Thread(runnable, "prankster-hedge");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.setRemoveOnCancelPolicy(true);
+                _hedgeScheduler = executor;
+            }
+
+            return _hedgeScheduler;
+        }
+    }
+
+    /**
+     * One task per ScoreCard, except a FanOutScoreCard with a List that is large enough
+     * to split: one task per chunk on the card's executor, behind a single Future.
+     */
+    @SuppressWarnings("unchecked")
+    private Future<?> submitScoring(ScoreCard<T> scoreCard, ExecutorService executor, Request<T> request,
+                                    TaskTiming timing) {
+
+        Object requestObject = request.getRequestObject();
+        if (!(scoreCard instanceof FanOutScoreCard) || !(requestObject instanceof List))
+        {
+            return executor.submit(new ScoreRunnable<>(scoreCard, request, timing));
+        }
+
+        FanOutScoreCard fanOut = (FanOutScoreCard) scoreCard;
+        List elements = requestObject instanceof RandomAccess ? (List) requestObject
+                                                              : new ArrayList((List) requestObject);
+        int chunkSize = fanOut.determineChunkSize(elements.size());
+        if (chunkSize >= elements.size())
+        {
+            return executor.submit(new ScoreRunnable<>(scoreCard, request, timing));
+        }
+
+        RequestOptions options = request.getOptionsForScoreCard(scoreCard.getName());
+        List<Future<?>> chunks = new ArrayList<>();
+        timing.expectTasks((elements.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < elements.size(); from += chunkSize)
+        {
+            int to = Math.min(elements.size(), from + chunkSize);
+            chunks.add(executor.submit(new ChunkRunnable(fanOut, elements, from, to, options,
+                                                         request.getPriority(), timing)));
+        }
+
+        return new ChunkedFuture(chunks);
+    }
+
+    /**
+     * Size each card's timeout from its observed latency, within the static timeout
+     * @param adaptiveTimeout The sizing policy, null for static timeouts
+     */
+    public void setAdaptiveTimeout(AdaptiveTimeout adaptiveTimeout) {
+        _adaptiveTimeout = adaptiveTimeout;
+    }
+
+    public AdaptiveTimeout getAdaptiveTimeout() {
+        return _adaptiveTimeout;
+    }
+
+    /**
+     * Skip cards that keep failing or timing out, see CircuitBreaker
+     * @param policy The breaker thresholds for every card, null to disable (and reset) breakers
+     */
+    public void setCircuitBreakerPolicy(CircuitBreaker.Policy policy) {
+        _circuitBreakerPolicy = policy;
+        _circuitBreakers.clear();
+    }
+
+    public CircuitBreaker.Policy getCircuitBreakerPolicy() {
+        return _circuitBreakerPolicy;
+    }
+
+    /**
+     * @param scoreCardName A ScoreCard name
+     * @return The card's breaker, or null if breakers are disabled
+     */
+    public CircuitBreaker findCircuitBreaker(String scoreCardName) {
+
+        CircuitBreaker.Policy policy = _circuitBreakerPolicy;
+        if (policy == null || scoreCardName == null)
+        {
+            return null;
+        }
+
+        return _circuitBreakers.computeIfAbsent(scoreCardName, name -> new CircuitBreaker(policy));
+    }
+
+    /**
+     * @return The number of hedged executions started for Hedgeable cards
+     */
+    public long getHedgeCount() {
+        return _hedgeCount.get();
+    }
+
+    /**
+     * @param scoreCardName A ScoreCard name
+     * @return The card's observed latencies, or null for an unknown card
+     */
+    public LatencyTracker findLatencyTracker(String scoreCardName) {
+        return scoreCardName != null ? _latencyTrackers.get(scoreCardName) : null;
+    }
+
+    /** @return The names of ScoreCards whose current p99 latency regressed from their baseline */
+    public Set<String> findRegressedScoreCards() {
+
+        Set<String> regressed = new HashSet<>();
+        for (Map.Entry<String, LatencyTracker> entry : _latencyTrackers.entrySet())
+        {
+            if (entry.getValue().isRegressed())
+            {
+                regressed.add(entry.getKey());
+            }
+        }
+
+        return regressed;
+    }
+
     /** Use the default timeout or per-request timeout from RequestOptions */
     long determineTimeout(long defaultTimeoutMillis, String cardName, Map<String, RequestOptions> requestOptions) {
 
@@ -251,6 +643,7 @@ public class Prankster<T> {
         for ( ScoreCard scoreCard : scoreCards )
         {
             LOG.info("Initializing ScoreCard: %s, With Max Threads %s", scoreCard, maxThreads);
+            registerOrdinal(scoreCard);
             scoring.put(scoreCard, Executors.newFixedThreadPool(maxThreads));
         }
 
@@ -264,21 +657,120 @@ public class Prankster<T> {
         Map<ScoreCard<T>, ExecutorService> scoring = new HashMap<>(scoreCards.size());
         for ( ScoreCard<T> scoreCard : scoreCards )
         {
+            registerOrdinal(scoreCard);
             scoring.put(scoreCard, threadPoolFactory.createThreadPool());
         }
 
         return scoring;
     }
 
+    /** Assign the card an ordinal and latency tracker before any request so summaries can index by it */
+    private void registerOrdinal(ScoreCard scoreCard) {
+
+        if (scoreCard.getName() != null)
+        {
+            ScoreCardRegistry.register(scoreCard.getName());
+            _latencyTrackers.putIfAbsent(scoreCard.getName(), new LatencyTracker());
+        }
+    }
+
+    /** Index the ScoreCards by registry ordinal, unnamed cards are only run without a CardSelection */
+    @SuppressWarnings("unchecked")
+    private CardSlot<T>[] indexSlots(Map<ScoreCard<T>, ExecutorService> scoring) {
+
+        CardSlot<T>[] slots = new CardSlot[ScoreCardRegistry.size()];
+        for (Map.Entry<ScoreCard<T>, ExecutorService> entry : scoring.entrySet())
+        {
+            int ordinal = ScoreCardRegistry.find(entry.getKey().getName());
+            if (ordinal >= 0 && ordinal < slots.length)
+            {
+                slots[ordinal] = new CardSlot<>(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return slots;
+    }
+
+    /** When a card's task(s) were submitted and finished, recorded in the card's LatencyTracker */
+    private static class TaskTiming {
+
+        private final LatencyTracker _tracker;
+        private final long _submittedNanos;
+        /** Tasks (chunks) still running, the last one records the card's latency */
+        private final AtomicInteger _pending = new AtomicInteger(1);
+        private final AtomicLong _elapsedNanos = new AtomicLong(-1);
+
+        private TaskTiming(LatencyTracker tracker) {
+            _tracker = tracker;
+            _submittedNanos = System.nanoTime();
+        }
+
+        /** Call before submitting the tasks, when a card is split into chunks */
+        private void expectTasks(int tasks) {
+            _pending.set(tasks);
+        }
+
+        /**
+         * Called by each task (or once by the winning hedged execution), only the last
+         * one records a sample, measured from submission
+         */
+        private void finish() {
+
+            if (_pending.decrementAndGet() > 0)
+            {
+                return;
+            }
+
+            long elapsed = System.nanoTime() - _submittedNanos;
+            if (_elapsedNanos.compareAndSet(-1, elapsed) && _tracker != null)
+            {
+                _tracker.record(elapsed);
+            }
+        }
+
+        /** @return Until the task finished, or until now if it has not */
+        private long elapsedNanos() {
+
+            long elapsed = _elapsedNanos.get();
+            return elapsed >= 0 ? elapsed : System.nanoTime() - _submittedNanos;
+        }
+    }
+
+    /** A ScoreCard and its executor */
+    private static class CardSlot<T> {
+
+        private final ScoreCard<T> _scoreCard;
+        private final ExecutorService _executor;
+
+        private CardSlot(ScoreCard<T> scoreCard, ExecutorService executor) {
+            _scoreCard = scoreCard;
+            _executor = executor;
+        }
+    }
+
     /** Encapsulates a Future and a Timeout */
     public static class ScoringFuture<T> {
 
         private final Future<T> _future;
         private final long _timeout;
+        private final String _scoreCardName;
+        private final TaskTiming _timing;
+        private final CircuitBreaker _circuitBreaker;
+        /** true if the card was not submitted, its future is already done */
+        private final boolean _circuitOpen;
 
         private ScoringFuture(Future<T> future, long timeout) {
+            this(future, timeout, null, null, null, false);
+        }
+
+        private ScoringFuture(Future<T> future, long timeout, String scoreCardName, TaskTiming timing,
+                              CircuitBreaker circuitBreaker, boolean circuitOpen) {
             _future = future;
             _timeout = timeout;
+            _scoreCardName = scoreCardName;
+            _timing = timing;
+            _circuitBreaker = circuitBreaker;
+            _circuitOpen = circuitOpen;
         }
 
         public Future<T> getFuture() {
@@ -289,6 +781,14 @@ public class Prankster<T> {
             return _timeout;
         }
 
+        public String getScoreCardName() {
+            return _scoreCardName;
+        }
+
+        public boolean isCircuitOpen() {
+            return _circuitOpen;
+        }
+
         @Override
         public boolean equals(Object o) {
 
@@ -327,19 +827,36 @@ public class Prankster<T> {
      * @param <T> The object to setupScoring.
      */
     private class ScoreRunnable<T>
-        implements Runnable {
+        implements Runnable, Prioritized {
 
         private final ScoreCard<T> _scoreCard;
         private final Request<T> _request;
+        private final TaskTiming _timing;
 
-        private ScoreRunnable(ScoreCard<T> scoreCard, Request<T> request) {
+        private ScoreRunnable(ScoreCard<T> scoreCard, Request<T> request, TaskTiming timing) {
             _scoreCard = scoreCard;
             _request = request;
+            _timing = timing;
         }
 
         @Override
         public void run() {
 
+            try
+            {
+                score();
+            }
+            finally
+            {
+                if (_timing != null)
+                {
+                    _timing.finish();
+                }
+            }
+        }
+
+        private void score() {
+
             if (_request.getOptions() != null)
             {
                 RequestOptions options = _request.getOptionsForScoreCard(_scoreCard.getName());
@@ -352,6 +869,276 @@ public class Prankster<T> {
 
             _scoreCard.updateObjectsWithScore(_request.getRequestObject());
         }
+
+        @Override
+        public RequestPriority getPriority() {
+            return _request.getPriority();
+        }
+    }
+
+    /** Scores one chunk of a FanOutScoreCard request */
+    private static class ChunkRunnable<E>
+        implements Runnable, Prioritized {
+
+        private final FanOutScoreCard<E> _scoreCard;
+        private final List<E> _elements;
+        private final int _from;
+        private final int _to;
+        private final RequestOptions _options;
+        private final RequestPriority _priority;
+        private final TaskTiming _timing;
+
+        private ChunkRunnable(FanOutScoreCard<E> scoreCard, List<E> elements, int from, int to,
+                              RequestOptions options, RequestPriority priority, TaskTiming timing) {
+            _scoreCard = scoreCard;
+            _elements = elements;
+            _from = from;
+            _to = to;
+            _options = options;
+            _priority = priority;
+            _timing = timing;
+        }
+
+        @Override
+        public void run() {
+
+            try
+            {
+                _scoreCard.scoreChunk(_elements, _from, _to, _options);
+            }
+            finally
+            {
+                _timing.finish();
+            }
+        }
+
+        @Override
+        public RequestPriority getPriority() {
+            return _priority;
+        }
+    }
+
+    /**
+     * The first and (maybe) hedged execution of a card. Each execution stages its
+     * Results (see ScoreSummary.beginStaging()), the first to succeed publishes them,
+     * records the card's latency and interrupts the other. Fails when every launched
+     * execution has failed.
+     */
+    private static class HedgedFuture
+        implements Future<Object> {
+
+        private final TaskTiming _timing;
+        private final CompletableFuture<Object> _first = new CompletableFuture<>();
+        private final List<Execution> _executions = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean _won = new AtomicBoolean();
+        private final AtomicInteger _launched = new AtomicInteger();
+        private final AtomicInteger _failed = new AtomicInteger();
+        private final AtomicReference<Throwable> _failure = new AtomicReference<>();
+
+        private HedgedFuture(TaskTiming timing) {
+            _timing = timing;
+        }
+
+        private void launch(ExecutorService executor, Runnable runnable, RequestPriority priority) {
+
+            _launched.incrementAndGet();
+            try
+            {
+                Execution execution = new Execution(runnable, priority);
+                _executions.add(execution);
+                execution._task = executor.submit(execution);
+            }
+            catch (RejectedExecutionException e)
+            {
+                failed(e);
+                throw e;
+            }
+        }
+
+        private void failed(Throwable failure) {
+
+            _failure.compareAndSet(null, failure);
+            if (_failed.incrementAndGet() >= _launched.get() && _first.completeExceptionally(_failure.get()))
+            {
+                _timing.finish();
+            }
+        }
+
+        /** Publish before completing, so Prankster returns with the winner's Results in place */
+        private void won(ScoreSummary.Staging staging, Execution winner) {
+
+            staging.publish();
+            _timing.finish();
+            _first.complete(null);
+
+            for (Execution execution : _executions)
+            {
+                Future<?> task = execution._task;
+                if (execution != winner && task != null)
+                {
+                    task.cancel(true);
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+
+            boolean cancelled = _first.cancel(mayInterruptIfRunning);
+            for (Execution execution : _executions)
+            {
+                Future<?> task = execution._task;
+                cancelled |= task != null && task.cancel(mayInterruptIfRunning);
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return _first.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return _first.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return _first.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+            return _first.get(timeout, unit);
+        }
+
+        /** Skips scoring if the other execution already won while this one was queued */
+        private class Execution
+            implements Runnable, Prioritized {
+
+            private final Runnable _runnable;
+            private final RequestPriority _priority;
+            /** This execution's task, null until submit() returns */
+            private volatile Future<?> _task;
+
+            private Execution(Runnable runnable, RequestPriority priority) {
+                _runnable = runnable;
+                _priority = priority;
+            }
+
+            @Override
+            public void run() {
+
+                if (_first.isDone())
+                {
+                    return;
+                }
+
+                ScoreSummary.Staging staging = ScoreSummary.beginStaging();
+                try
+                {
+                    _runnable.run();
+                }
+                catch (Throwable t)
+                {
+                    failed(t);
+                    return;
+                }
+                finally
+                {
+                    ScoreSummary.endStaging();
+                }
+
+                // The loser's staged Results are dropped
+                if (_won.compareAndSet(false, true))
+                {
+                    won(staging, this);
+                }
+            }
+
+            @Override
+            public RequestPriority getPriority() {
+                return _priority;
+            }
+        }
+    }
+
+    /** Completes when every chunk completes, a timed get() shares one deadline across chunks */
+    private static class ChunkedFuture
+        implements Future<Object> {
+
+        private final List<Future<?>> _chunks;
+
+        private ChunkedFuture(List<Future<?>> chunks) {
+            _chunks = chunks;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+
+            boolean cancelled = false;
+            for (Future<?> chunk : _chunks)
+            {
+                cancelled |= chunk.cancel(mayInterruptIfRunning);
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+
+            for (Future<?> chunk : _chunks)
+            {
+                if (chunk.isCancelled())
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+
+            for (Future<?> chunk : _chunks)
+            {
+                if (!chunk.isDone())
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+
+            for (Future<?> chunk : _chunks)
+            {
+                chunk.get();
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            for (Future<?> chunk : _chunks)
+            {
+                chunk.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+
+            return null;
+        }
     }
 
     /**
@@ -0,0 +1,115 @@
+package net.prank.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates fixed size ScoreCard thread pools that schedule by RequestPriority with a
+ * WeightedFairQueue, so one Prankster can serve interactive searches and batch
+ * re-ranking without a second set of thread pools. BATCH work still runs while
+ * INTERACTIVE work waits, but an INTERACTIVE task waiting longer than
+ * 'interactiveYieldMillis' is always next.
+ * <p>
+ * Prankster<List<Item>> prankster = new Prankster<>(scoreCards, 4, new PriorityThreadPoolFactory(8));
+ * request.setPriority(RequestPriority.BATCH);
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class PriorityThreadPoolFactory
+    implements PrankThreadPoolFactory {
+
+    public static final long DEFAULT_INTERACTIVE_YIELD_MILLIS = 5;
+
+    private final int _threadCount;
+    private final long _interactiveYieldMillis;
+
+    public PriorityThreadPoolFactory(int threadCount) {
+        this(threadCount, DEFAULT_INTERACTIVE_YIELD_MILLIS);
+    }
+
+    /**
+     * @param threadCount The number of threads per ScoreCard pool
+     * @param interactiveYieldMillis How long an INTERACTIVE task waits before it jumps the round
+     */
+    public PriorityThreadPoolFactory(int threadCount, long interactiveYieldMillis) {
+
+        if (threadCount < 1)
+        {
+            throw new IllegalArgumentException("Thread Count Must Be Positive: " + threadCount);
+        }
+
+        _threadCount = threadCount;
+        _interactiveYieldMillis = interactiveYieldMillis;
+    }
+
+    @Override
+    public ExecutorService createThreadPool() {
+        return new PriorityThreadPoolExecutor(_threadCount, new WeightedFairQueue(_interactiveYieldMillis));
+    }
+
+    public int getThreadCount() {
+        return _threadCount;
+    }
+
+    public long getInteractiveYieldMillis() {
+        return _interactiveYieldMillis;
+    }
+
+    /** Keeps the task priority when submit() wraps it in a FutureTask */
+    private static class PriorityThreadPoolExecutor
+        extends ThreadPoolExecutor {
+
+        private PriorityThreadPoolExecutor(int threadCount, WeightedFairQueue queue) {
+            super(threadCount, threadCount, 60, TimeUnit.SECONDS, queue);
+        }
+
+        @Override
+        protected <V> RunnableFuture<V> newTaskFor(Runnable runnable, V value) {
+            return new PrioritizedFutureTask<>(runnable, value, WeightedFairQueue.priorityOf(runnable));
+        }
+
+        @Override
+        protected <V> RunnableFuture<V> newTaskFor(Callable<V> callable) {
+            return new PrioritizedFutureTask<>(callable, WeightedFairQueue.priorityOf(callable));
+        }
+    }
+
+    private static class PrioritizedFutureTask<V>
+        extends FutureTask<V>
+        implements Prioritized {
+
+        private final RequestPriority _priority;
+
+        private PrioritizedFutureTask(Runnable runnable, V value, RequestPriority priority) {
+            super(runnable, value);
+            _priority = priority;
+        }
+
+        private PrioritizedFutureTask(Callable<V> callable, RequestPriority priority) {
+            super(callable);
+            _priority = priority;
+        }
+
+        @Override
+        public RequestPriority getPriority() {
+            return _priority;
+        }
+    }
+}
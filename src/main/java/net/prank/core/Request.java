@@ -12,6 +12,9 @@ import java.util.Map;
  * 1) By default, all ScoreCards are enabled
  * 2) A ScoreCard will not setupScoring if it is disabled
  * 3) Only the enabled ScoreCards are executed
+ * 4) With a CardSelection, only the selected ScoreCards are executed, RequestOptions
+ *    for one card no longer disable the cards without options
+ * 5) The RequestPriority schedules ScoreCard tasks on priority aware thread pools
  *
  * @author dmillett
  * <p>
@@ -36,6 +39,10 @@ public class Request<T> {
     private final Map<String, RequestOptions> _options;
     /** Whether or not to globally ignore scoring for this request */
     private final boolean _disabled;
+    /** Optional precompiled subset of ScoreCards, null for options based selection */
+    private CardSelection _cardSelection;
+    /** Scheduling class for PriorityThreadPoolFactory executors */
+    private RequestPriority _priority = RequestPriority.NORMAL;
 
     public Request(boolean disabled) {
         _disabled = disabled;
@@ -76,6 +83,29 @@ public class Request<T> {
         return _options;
     }
 
+    public CardSelection getCardSelection() {
+        return _cardSelection;
+    }
+
+    /**
+     * Select ScoreCards by ordinal instead of by the presence of RequestOptions
+     * @param cardSelection The ScoreCards to run, null to restore options based selection
+     */
+    public void setCardSelection(CardSelection cardSelection) {
+        _cardSelection = cardSelection;
+    }
+
+    public RequestPriority getPriority() {
+        return _priority;
+    }
+
+    /**
+     * @param priority The scheduling class, null for NORMAL
+     */
+    public void setPriority(RequestPriority priority) {
+        _priority = priority != null ? priority : RequestPriority.NORMAL;
+    }
+
     public RequestOptions getOptionsForScoreCard(String scoreCardName) {
 
         if (_options != null)
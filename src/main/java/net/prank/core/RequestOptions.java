@@ -65,6 +65,62 @@ public class RequestOptions {
         return _timeoutMillis;
     }
 
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o)
+        {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        RequestOptions that = (RequestOptions) o;
+
+        if (Double.compare(that._minPoints, _minPoints) != 0)
+        {
+            return false;
+        }
+
+        if (Double.compare(that._maxPoints, _maxPoints) != 0)
+        {
+            return false;
+        }
+
+        return _bucketCount == that._bucketCount && _enabled == that._enabled && _timeoutMillis == that._timeoutMillis;
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result;
+        long temp;
+
+        temp = Double.doubleToLongBits(_minPoints);
+        result = (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(_maxPoints);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + _bucketCount;
+        result = 31 * result + (_enabled ? 1 : 0);
+        result = 31 * result + (int) (_timeoutMillis ^ (_timeoutMillis >>> 32));
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestOptions{" +
+                "_minPoints=" + _minPoints +
+                ", _maxPoints=" + _maxPoints +
+                ", _bucketCount=" + _bucketCount +
+                ", _enabled=" + _enabled +
+                ", _timeoutMillis=" + _timeoutMillis +
+                '}';
+    }
+
     /**
      * Use this if any of the defaults are acceptable, otherwise specify every value
      * in the RequestOptions constructor. This could be renamed to something simpler,
@@ -0,0 +1,39 @@
+package net.prank.core;
+
+/**
+ * The scheduling class of a Request. Executors from PriorityThreadPoolFactory dequeue
+ * ScoreCard tasks by weight, so with every class waiting, INTERACTIVE gets about 8 of
+ * every 13 threads, NORMAL 4 and BATCH 1. Other executors ignore the priority.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public enum RequestPriority {
+
+    INTERACTIVE(8),
+    NORMAL(4),
+    BATCH(1);
+
+    private final int _weight;
+
+    RequestPriority(int weight) {
+        _weight = weight;
+    }
+
+    /** @return Tasks dequeued per round when every class is waiting */
+    public int getWeight() {
+        return _weight;
+    }
+}
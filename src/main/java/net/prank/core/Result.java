@@ -1,6 +1,7 @@
 package net.prank.core;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 
 /**
  * Each solution should have a Result where 'V' might typically be an integer
@@ -87,6 +88,45 @@ public class Result<T>
         return _statistics;
     }
 
+    /**
+     * The score for a type without going through ScoreData, so lazy Results can
+     * answer tallies without building it.
+     *
+     * @param scoreType ORIGINAL, NORMALIZED or ADJUSTED
+     * @return The score or null
+     */
+    public BigDecimal getScore(ResultScoreType scoreType) {
+
+        ScoreData scoreData = getScoreData();
+        if (scoreData == null || scoreType == null)
+        {
+            return null;
+        }
+
+        switch (scoreType)
+        {
+            case ORIGINAL:
+                return scoreData.getScore();
+            case NORMALIZED:
+                return scoreData.getNormalizedScore();
+            case ADJUSTED:
+                return scoreData.getAdjustedScore();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param scoreType ORIGINAL, NORMALIZED or ADJUSTED
+     * @return The score as a primitive or NaN if there is no score for the type
+     */
+    public double getScoreAsDouble(ResultScoreType scoreType) {
+
+        BigDecimal score = getScore(scoreType);
+        return score != null ? score.doubleValue() : Double.NaN;
+    }
+
+    /** Compares with getters so that lazy and materialized Results are equal */
     @Override
     public boolean equals(Object o) {
 
@@ -95,34 +135,34 @@ public class Result<T>
             return true;
         }
 
-        if ( o == null || getClass() != o.getClass() )
+        if ( !(o instanceof Result) )
         {
             return false;
         }
 
         Result result = (Result) o;
 
-        if ( _indices != null ? !_indices.equals(result._indices) : result._indices != null )
+        if ( !equal(getPosition(), result.getPosition()) )
         {
             return false;
         }
 
-        if ( _score != null ? !_score.equals(result._score) : result._score != null )
+        if ( !equal(getScoreData(), result.getScoreData()) )
         {
             return false;
         }
 
-        if ( _scoreCardName != null ? !_scoreCardName.equals(result._scoreCardName) : result._scoreCardName != null )
+        if ( !equal(getScoreCardName(), result.getScoreCardName()) )
         {
             return false;
         }
 
-        if ( _scoredValue != null ? !_scoredValue.equals(result._scoredValue) : result._scoredValue != null )
+        if ( !equal(getScoredValue(), result.getScoredValue()) )
         {
             return false;
         }
 
-        if ( _statistics != null ? !_statistics.equals(result._statistics) : result._statistics != null )
+        if ( !equal(getStatistics(), result.getStatistics()) )
         {
             return false;
         }
@@ -130,14 +170,24 @@ public class Result<T>
         return true;
     }
 
+    private static boolean equal(Object one, Object two) {
+        return one != null ? one.equals(two) : two == null;
+    }
+
     @Override
     public int hashCode() {
 
-        int result = _scoreCardName != null ? _scoreCardName.hashCode() : 0;
-        result = 31 * result + (_scoredValue != null ? _scoredValue.hashCode() : 0);
-        result = 31 * result + (_indices != null ? _indices.hashCode() : 0);
-        result = 31 * result + (_score != null ? _score.hashCode() : 0);
-        result = 31 * result + (_statistics != null ? _statistics.hashCode() : 0);
+        String scoreCardName = getScoreCardName();
+        T scoredValue = getScoredValue();
+        Indices indices = getPosition();
+        ScoreData score = getScoreData();
+        Statistics statistics = getStatistics();
+
+        int result = scoreCardName != null ? scoreCardName.hashCode() : 0;
+        result = 31 * result + (scoredValue != null ? scoredValue.hashCode() : 0);
+        result = 31 * result + (indices != null ? indices.hashCode() : 0);
+        result = 31 * result + (score != null ? score.hashCode() : 0);
+        result = 31 * result + (statistics != null ? statistics.hashCode() : 0);
 
         return result;
     }
@@ -145,11 +195,11 @@ public class Result<T>
     @Override
     public String toString() {
         return "Result{" +
-                "_scoreCardName='" + _scoreCardName + '\'' +
-                ", _scoredValue=" + _scoredValue +
-                ", _position=" + _indices +
-                ", _score=" + _score +
-                ", _statistics=" + _statistics +
+                "_scoreCardName='" + getScoreCardName() + '\'' +
+                ", _scoredValue=" + getScoredValue() +
+                ", _position=" + getPosition() +
+                ", _score=" + getScoreData() +
+                ", _statistics=" + getStatistics() +
                 '}';
     }
 
@@ -170,11 +220,11 @@ public class Result<T>
 
             if (original != null)
             {
-                _bCardName = original._scoreCardName;
-                _bOriginal = original._scoredValue;
-                _bIndices = original._indices;
-                _bScore = original._score;
-                _bStatistics = original._statistics;
+                _bCardName = original.getScoreCardName();
+                _bOriginal = original.getScoredValue();
+                _bIndices = original.getPosition();
+                _bScore = original.getScoreData();
+                _bStatistics = original.getStatistics();
             }
         }
 
@@ -211,6 +261,17 @@ public class Result<T>
         public Result build() {
             return new Result<>(_bCardName, _bOriginal, _bIndices, _bScore, _bStatistics);
         }
+
+        /** Clear all fields so the builder can be reused */
+        public Builder reset() {
+
+            _bCardName = null;
+            _bOriginal = null;
+            _bIndices = null;
+            _bScore = null;
+            _bStatistics = null;
+            return this;
+        }
     }
 }
 
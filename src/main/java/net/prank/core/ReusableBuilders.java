@@ -0,0 +1,54 @@
+package net.prank.core;
+
+/**
+ * Per thread Result, ScoreData and Statistics builders for ScoreCards that build a
+ * Result for every scored object. Each call returns the calling thread's builder,
+ * already reset, so a card loop allocates only what build() returns. Prankster runs
+ * each ScoreCard on its own executor threads, so cards never share a builder.
+ * <p>
+ * Finish with one builder (call build()) before asking for it again on the same
+ * thread, and never hand a builder to another thread.
+ * <p>
+ * For the scores themselves, CardScores avoids building ScoreData at all.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public final class ReusableBuilders {
+
+    private static final ThreadLocal<Result.Builder> RESULT_BUILDER = ThreadLocal.withInitial(Result.Builder::new);
+    private static final ThreadLocal<ScoreData.Builder> SCORE_DATA_BUILDER =
+            ThreadLocal.withInitial(ScoreData.Builder::new);
+    private static final ThreadLocal<Statistics.Builder> STATISTICS_BUILDER =
+            ThreadLocal.withInitial(Statistics.Builder::new);
+
+    private ReusableBuilders() {}
+
+    /** @return This thread's Result.Builder, reset */
+    @SuppressWarnings("unchecked")
+    public static <T> Result.Builder<T> result() {
+        return RESULT_BUILDER.get().reset();
+    }
+
+    /** @return This thread's ScoreData.Builder, reset */
+    public static ScoreData.Builder scoreData() {
+        return SCORE_DATA_BUILDER.get().reset();
+    }
+
+    /** @return This thread's Statistics.Builder, reset */
+    public static Statistics.Builder statistics() {
+        return STATISTICS_BUILDER.get().reset();
+    }
+}
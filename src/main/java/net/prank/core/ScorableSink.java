@@ -0,0 +1,35 @@
+package net.prank.core;
+
+/**
+ * A ScoreSink that adds each Result to the ScoreSummary of the scored object,
+ * which matches what ScoreCard.updateObjectsWithScore() implementations do.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScorableSink<T extends Scorable>
+    implements ScoreSink<T> {
+
+    @Override
+    public void accept(T scored, Result result) {
+
+        if (scored == null || result == null || scored.getScoreSummary() == null)
+        {
+            return;
+        }
+
+        scored.getScoreSummary().addResult(result.getScoreCardName(), result);
+    }
+}
@@ -0,0 +1,131 @@
+package net.prank.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each ScoreCard name a stable ordinal for the life of the JVM, so that
+ * ScoreSummary, tallies and comparators can index Results by int (and card subsets
+ * by BitSet) instead of hashing names. Prankster registers its cards when it is
+ * constructed or reloaded. Everything else (ScoreSummary, CardSelection, CardTally,
+ * ScoreSorter) only looks names up with find(), so an unknown or misspelled name is
+ * not selected or has no score, and does not grow the registry.
+ * <p>
+ * Ordinals are never reused or removed, card names should be a fixed configuration
+ * rather than per request values. Register card names up front if a CardSelection
+ * is built before the Prankster that scores them. Ordinals are not serialized, a deserialized
+ * ScoreSummary falls back to lookups by name.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public final class ScoreCardRegistry {
+
+    private static final ConcurrentHashMap<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static final Object LOCK = new Object();
+    private static volatile String[] _names = new String[0];
+
+    private ScoreCardRegistry() {}
+
+    /**
+     * @param scoreCardName A ScoreCard name
+     * @return The existing or a new ordinal for the name
+     */
+    public static int register(String scoreCardName) {
+
+        if (scoreCardName == null)
+        {
+            throw new IllegalArgumentException("ScoreCard Name Is Required");
+        }
+
+        Integer ordinal = ORDINALS.get(scoreCardName);
+        if (ordinal != null)
+        {
+            return ordinal;
+        }
+
+        synchronized (LOCK)
+        {
+            ordinal = ORDINALS.get(scoreCardName);
+            if (ordinal != null)
+            {
+                return ordinal;
+            }
+
+            String[] names = Arrays.copyOf(_names, _names.length + 1);
+            names[_names.length] = scoreCardName;
+            _names = names;
+
+            ORDINALS.put(scoreCardName, _names.length - 1);
+            return _names.length - 1;
+        }
+    }
+
+    /**
+     * @param scoreCardName A ScoreCard name
+     * @return The ordinal, or -1 if the name was never registered
+     */
+    public static int find(String scoreCardName) {
+
+        Integer ordinal = scoreCardName != null ? ORDINALS.get(scoreCardName) : null;
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * @param ordinal A registered ordinal
+     * @return The ScoreCard name or null if the ordinal is unknown
+     */
+    public static String getName(int ordinal) {
+
+        String[] names = _names;
+        return ordinal >= 0 && ordinal < names.length ? names[ordinal] : null;
+    }
+
+    /** @return The number of registered names, one more than the largest ordinal */
+    public static int size() {
+        return _names.length;
+    }
+
+    /**
+     * Build a BitSet of the registered names' ordinals
+     * @param scoreCardNames A subset of ScoreCard names, null and unregistered names are ignored
+     * @return The ordinals as a BitSet
+     */
+    public static BitSet toBitSet(Collection<String> scoreCardNames) {
+
+        BitSet ordinals = new BitSet();
+        if (scoreCardNames == null)
+        {
+            return ordinals;
+        }
+
+        for (String scoreCardName : scoreCardNames)
+        {
+            int ordinal = find(scoreCardName);
+            if (ordinal >= 0)
+            {
+                ordinals.set(ordinal);
+            }
+        }
+
+        return ordinals;
+    }
+
+    public static BitSet toBitSet(String... scoreCardNames) {
+        return toBitSet(scoreCardNames != null ? Arrays.asList(scoreCardNames) : null);
+    }
+}
@@ -0,0 +1,581 @@
+package net.prank.core;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Off-heap score columns for very large (offline) scoring runs. Instead of a
+ * ScoreSummary, Results and BigDecimals per scored object, each ScoreCard gets
+ * a block of primitive columns addressed by candidate ordinal (row):
+ * <p>
+ * value (double), score (double), adjusted (double), normalized (double),
+ * original index (int), last index (int)
+ * <p>
+ * Columns live in direct ByteBuffers or in a memory mapped file (see mapped()),
+ * so they do not contribute to GC pressure. Missing doubles are NaN and missing
+ * indices are -1. Columns are little endian and laid out per card, one column
+ * after another, which is also the on disk layout for ScoreFileWriter.
+ * <p>
+ * Writing different rows/cards from multiple threads is safe (absolute puts only).
+ * Use scorable(row) where a Scorable is required (ScoreComparator, ScoringTool),
+ * otherwise prefer the primitive getters and tally().
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoreColumnStore {
+
+    /** value, score, adjusted, normalized */
+    public static final int DOUBLE_COLUMNS = 4;
+    /** original index, last index */
+    public static final int INT_COLUMNS = 2;
+    /** Bytes per row, per card */
+    public static final int ROW_BYTES = DOUBLE_COLUMNS * Double.BYTES + INT_COLUMNS * Integer.BYTES;
+    /** The maximum number of rows, each card block must fit in a single ByteBuffer */
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE / ROW_BYTES;
+
+    private final String _name;
+    private final int _capacity;
+    private final List<String> _cardNames;
+    private final Map<String, Integer> _cardOrdinals;
+    private final ByteBuffer[] _blocks;
+    private final Statistics[] _statistics;
+
+    private final DoubleBuffer[] _values;
+    private final DoubleBuffer[] _scores;
+    private final DoubleBuffer[] _adjusted;
+    private final DoubleBuffer[] _normalized;
+    private final IntBuffer[] _originalIndices;
+    private final IntBuffer[] _lastIndices;
+
+    /**
+     * Allocate direct (off-heap) columns for each ScoreCard
+     * @param name The name used for ScoreSummary views
+     * @param cardNames The score cards, the list position is the card ordinal
+     * @param capacity The number of rows (candidates)
+     */
+    public ScoreColumnStore(String name, List<String> cardNames, int capacity) {
+        this(name, cardNames, capacity, allocateBlocks(cardNames, capacity), true);
+    }
+
+    private ScoreColumnStore(String name, List<String> cardNames, int capacity, ByteBuffer[] blocks,
+                             boolean initialize) {
+
+        if (capacity < 0 || capacity > MAX_CAPACITY)
+        {
+            throw new IllegalArgumentException("Capacity Must Be Between 0 And " + MAX_CAPACITY + ": " + capacity);
+        }
+
+        _name = name;
+        _capacity = capacity;
+        _cardNames = Collections.unmodifiableList(new ArrayList<>(cardNames));
+        _cardOrdinals = new HashMap<>(cardNames.size() * 2);
+        _blocks = blocks;
+        _statistics = new Statistics[cardNames.size()];
+
+        int cards = cardNames.size();
+        _values = new DoubleBuffer[cards];
+        _scores = new DoubleBuffer[cards];
+        _adjusted = new DoubleBuffer[cards];
+        _normalized = new DoubleBuffer[cards];
+        _originalIndices = new IntBuffer[cards];
+        _lastIndices = new IntBuffer[cards];
+
+        for (int card = 0; card < cards; card++)
+        {
+            _cardOrdinals.put(cardNames.get(card), card);
+            ByteBuffer block = blocks[card];
+            int doubleBytes = capacity * Double.BYTES;
+            int intBytes = capacity * Integer.BYTES;
+
+            _values[card] = slice(block, 0, doubleBytes).asDoubleBuffer();
+            _scores[card] = slice(block, doubleBytes, doubleBytes).asDoubleBuffer();
+            _adjusted[card] = slice(block, 2 * doubleBytes, doubleBytes).asDoubleBuffer();
+            _normalized[card] = slice(block, 3 * doubleBytes, doubleBytes).asDoubleBuffer();
+            _originalIndices[card] = slice(block, 4 * doubleBytes, intBytes).asIntBuffer();
+            _lastIndices[card] = slice(block, 4 * doubleBytes + intBytes, intBytes).asIntBuffer();
+
+            if (initialize)
+            {
+                clear(card);
+            }
+        }
+    }
+
+    /**
+     * Back the columns with a memory mapped (read/write) file that is created or
+     * resized as necessary. Call force() to flush to disk.
+     *
+     * @param file The scratch file for the columns
+     * @param name The name used for ScoreSummary views
+     * @param cardNames The score cards, the list position is the card ordinal
+     * @param capacity The number of rows (candidates)
+     * @return A store backed by 'file'
+     * @throws IOException If the file cannot be mapped
+     */
+    public static ScoreColumnStore mapped(Path file, String name, List<String> cardNames, int capacity)
+        throws IOException {
+
+        if (capacity < 0 || capacity > MAX_CAPACITY)
+        {
+            throw new IllegalArgumentException("Capacity Must Be Between 0 And " + MAX_CAPACITY + ": " + capacity);
+        }
+
+        ByteBuffer[] blocks = new ByteBuffer[cardNames.size()];
+        long blockBytes = blockBytes(capacity);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE))
+        {
+            for (int card = 0; card < blocks.length; card++)
+            {
+                blocks[card] = channel.map(FileChannel.MapMode.READ_WRITE, card * blockBytes, blockBytes);
+            }
+        }
+
+        return new ScoreColumnStore(name, cardNames, capacity, blocks, true);
+    }
+
+    /**
+     * Wrap existing column blocks without copying or initializing them, for
+     * example blocks read from a memory mapped ScoreFileWriter file. Each block
+     * must hold blockBytes(capacity) bytes starting at its current position.
+     *
+     * @param name The name used for ScoreSummary views
+     * @param cardNames The score cards, the list position is the card ordinal
+     * @param capacity The number of rows (candidates)
+     * @param blocks One column block per card
+     * @return A store view over 'blocks'
+     */
+    public static ScoreColumnStore wrap(String name, List<String> cardNames, int capacity, ByteBuffer[] blocks) {
+
+        if (blocks.length != cardNames.size())
+        {
+            throw new IllegalArgumentException("Expected " + cardNames.size() + " Blocks, Found " + blocks.length);
+        }
+
+        ByteBuffer[] views = new ByteBuffer[blocks.length];
+        for (int card = 0; card < blocks.length; card++)
+        {
+            views[card] = slice(blocks[card], 0, (int) blockBytes(capacity));
+        }
+
+        return new ScoreColumnStore(name, cardNames, capacity, views, false);
+    }
+
+    /**
+     * @param capacity The number of rows
+     * @return The number of bytes for one card's columns
+     */
+    public static long blockBytes(int capacity) {
+        return (long) capacity * ROW_BYTES;
+    }
+
+    /** Reset a card's columns to NaN and -1 */
+    public void clear(int card) {
+
+        for (int row = 0; row < _capacity; row++)
+        {
+            _values[card].put(row, Double.NaN);
+            _scores[card].put(row, Double.NaN);
+            _adjusted[card].put(row, Double.NaN);
+            _normalized[card].put(row, Double.NaN);
+            _originalIndices[card].put(row, -1);
+            _lastIndices[card].put(row, -1);
+        }
+    }
+
+    /** Flush changes for a mapped store to disk, does nothing for direct buffers */
+    public void force() {
+
+        for (ByteBuffer block : _blocks)
+        {
+            if (block instanceof MappedByteBuffer)
+            {
+                ((MappedByteBuffer) block).force();
+            }
+        }
+    }
+
+    public String getName() {
+        return _name;
+    }
+
+    public int getCapacity() {
+        return _capacity;
+    }
+
+    public List<String> getCardNames() {
+        return _cardNames;
+    }
+
+    /**
+     * @param cardName The score card name
+     * @return The card ordinal or -1 if the card is not part of this store
+     */
+    public int cardOrdinal(String cardName) {
+
+        Integer ordinal = _cardOrdinals.get(cardName);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Read only access to the column block of a card (see ScoreFileWriter)
+     * @param card The card ordinal
+     * @return A read only duplicate of the card's column block
+     */
+    public ByteBuffer getBlock(int card) {
+        return _blocks[card].asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Set the primitive equivalent of a Result, NaN for any missing score
+     *
+     * @param card The card ordinal
+     * @param row The candidate ordinal
+     * @param value The value that was scored
+     * @param score The score
+     * @param adjusted The adjusted score
+     * @param normalized The normalized score
+     * @param originalIndex The original position of the candidate
+     */
+    public void setResult(int card, int row, double value, double score, double adjusted, double normalized,
+                          int originalIndex) {
+
+        _values[card].put(row, value);
+        _scores[card].put(row, score);
+        _adjusted[card].put(row, adjusted);
+        _normalized[card].put(row, normalized);
+        _originalIndices[card].put(row, originalIndex);
+        _lastIndices[card].put(row, originalIndex);
+    }
+
+    /**
+     * Copy an existing Result into the columns for its ScoreCard. The scored value
+     * is stored if it is a Number.
+     *
+     * @param row The candidate ordinal
+     * @param result The result to store
+     * @return false if the ScoreCard is not part of this store
+     */
+    public boolean putResult(int row, Result result) {
+
+        int card = result != null ? cardOrdinal(result.getScoreCardName()) : -1;
+        if (card < 0)
+        {
+            return false;
+        }
+
+        Object scored = result.getScoredValue();
+        double value = scored instanceof Number ? ((Number) scored).doubleValue() : Double.NaN;
+        ScoreData data = result.getScoreData();
+        Indices indices = result.getPosition();
+
+        setResult(card, row, value,
+                  data != null ? toDouble(data.getScore()) : Double.NaN,
+                  data != null ? toDouble(data.getAdjustedScore()) : Double.NaN,
+                  data != null ? toDouble(data.getNormalizedScore()) : Double.NaN,
+                  indices != null ? indices.getOriginalIndex() : -1);
+
+        if (indices != null)
+        {
+            _lastIndices[card].put(row, indices.getLastIndex());
+        }
+
+        return true;
+    }
+
+    public void setValue(int card, int row, double value) {
+        _values[card].put(row, value);
+    }
+
+    public void setScore(int card, int row, double score) {
+        _scores[card].put(row, score);
+    }
+
+    public void setAdjustedScore(int card, int row, double adjusted) {
+        _adjusted[card].put(row, adjusted);
+    }
+
+    public void setNormalizedScore(int card, int row, double normalized) {
+        _normalized[card].put(row, normalized);
+    }
+
+    public void setOriginalIndex(int card, int row, int index) {
+        _originalIndices[card].put(row, index);
+    }
+
+    public void setLastIndex(int card, int row, int index) {
+        _lastIndices[card].put(row, index);
+    }
+
+    public void setStatistics(int card, Statistics statistics) {
+        _statistics[card] = statistics;
+    }
+
+    public double getValue(int card, int row) {
+        return _values[card].get(row);
+    }
+
+    public double getScore(int card, int row) {
+        return _scores[card].get(row);
+    }
+
+    public double getAdjustedScore(int card, int row) {
+        return _adjusted[card].get(row);
+    }
+
+    public double getNormalizedScore(int card, int row) {
+        return _normalized[card].get(row);
+    }
+
+    public int getOriginalIndex(int card, int row) {
+        return _originalIndices[card].get(row);
+    }
+
+    public int getLastIndex(int card, int row) {
+        return _lastIndices[card].get(row);
+    }
+
+    public Statistics getStatistics(int card) {
+        return _statistics[card];
+    }
+
+    /**
+     * @param card The card ordinal
+     * @param row The candidate ordinal
+     * @param scoreType Original, adjusted or normalized
+     * @return The score or NaN if missing
+     */
+    public double getScore(int card, int row, Result.ResultScoreType scoreType) {
+
+        switch (scoreType)
+        {
+            case ORIGINAL:
+                return _scores[card].get(row);
+            case ADJUSTED:
+                return _adjusted[card].get(row);
+            case NORMALIZED:
+                return _normalized[card].get(row);
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * The primitive equivalent of ScoreSummary.tallyScore()
+     * @param row The candidate ordinal
+     * @param scoreType Original, adjusted or normalized
+     * @return The sum of all present scores or NaN if there are none
+     */
+    public double tally(int row, Result.ResultScoreType scoreType) {
+
+        double tally = 0.0;
+        boolean found = false;
+
+        for (int card = 0; card < _cardNames.size(); card++)
+        {
+            double score = getScore(card, row, scoreType);
+            if (!Double.isNaN(score))
+            {
+                tally += score;
+                found = true;
+            }
+        }
+
+        return found ? tally : Double.NaN;
+    }
+
+    /**
+     * Record the new position for every row after a sort, which is the column
+     * equivalent of ScoringTool.updateSortedCollectionIndices().
+     *
+     * @param sortedRows The rows in their sorted order
+     */
+    public void updateSortedIndices(int[] sortedRows) {
+
+        for (int card = 0; card < _cardNames.size(); card++)
+        {
+            IntBuffer last = _lastIndices[card];
+            for (int position = 0; position < sortedRows.length; position++)
+            {
+                last.put(sortedRows[position], position);
+            }
+        }
+    }
+
+    /**
+     * Build a Result from the columns
+     * @param card The card ordinal
+     * @param row The candidate ordinal
+     * @return A Result or null if there is no score for this card and row
+     */
+    public Result getResult(int card, int row) {
+
+        double score = getScore(card, row);
+        double adjusted = getAdjustedScore(card, row);
+        double normalized = getNormalizedScore(card, row);
+
+        if (Double.isNaN(score) && Double.isNaN(adjusted) && Double.isNaN(normalized))
+        {
+            return null;
+        }
+
+        ScoreData.Builder scoreBuilder = new ScoreData.Builder();
+        scoreBuilder.setScore(toBigDecimal(score));
+        scoreBuilder.setAdjustedScore(toBigDecimal(adjusted));
+        scoreBuilder.setNormalizedScore(toBigDecimal(normalized));
+
+        Indices indices = null;
+        int originalIndex = getOriginalIndex(card, row);
+        if (originalIndex > -1)
+        {
+            indices = new Indices(originalIndex);
+            int lastIndex = getLastIndex(card, row);
+            if (lastIndex > -1 && lastIndex != originalIndex)
+            {
+                indices.updateWithCurrentIndex(lastIndex);
+            }
+        }
+
+        double value = getValue(card, row);
+        Result.Builder builder = new Result.Builder(_cardNames.get(card), scoreBuilder.build());
+        builder.setOriginal(Double.isNaN(value) ? null : value);
+        builder.setPosition(indices);
+        builder.setStatistics(_statistics[card]);
+
+        return builder.build();
+    }
+
+    /**
+     * Build a ScoreSummary with every card Result for a row
+     * @param row The candidate ordinal
+     * @return A new ScoreSummary
+     */
+    public ScoreSummary getScoreSummary(int row) {
+
+        ScoreSummary summary = new ScoreSummary(_name);
+        for (int card = 0; card < _cardNames.size(); card++)
+        {
+            Result result = getResult(card, row);
+            if (result != null)
+            {
+                summary.addResult(_cardNames.get(card), result);
+            }
+        }
+
+        return summary;
+    }
+
+    /**
+     * A Scorable view of a row for ScoreComparator and ScoringTool. The ScoreSummary
+     * is built from the columns on first use.
+     *
+     * @param row The candidate ordinal
+     * @return A Scorable view of the row
+     */
+    public RowScorable scorable(int row) {
+        return new RowScorable(this, row);
+    }
+
+    /**
+     * Scorable views for every row, convenient for sorting with ScoreComparator
+     * @return A list of views in row order
+     */
+    public List<RowScorable> scorables() {
+
+        List<RowScorable> scorables = new ArrayList<>(_capacity);
+        for (int row = 0; row < _capacity; row++)
+        {
+            scorables.add(new RowScorable(this, row));
+        }
+
+        return scorables;
+    }
+
+    private static ByteBuffer[] allocateBlocks(List<String> cardNames, int capacity) {
+
+        if (capacity < 0 || capacity > MAX_CAPACITY)
+        {
+            throw new IllegalArgumentException("Capacity Must Be Between 0 And " + MAX_CAPACITY + ": " + capacity);
+        }
+
+        ByteBuffer[] blocks = new ByteBuffer[cardNames.size()];
+        for (int card = 0; card < blocks.length; card++)
+        {
+            blocks[card] = ByteBuffer.allocateDirect((int) blockBytes(capacity));
+        }
+
+        return blocks;
+    }
+
+    private static ByteBuffer slice(ByteBuffer block, int offset, int length) {
+
+        ByteBuffer duplicate = block.duplicate();
+        duplicate.position(block.position() + offset);
+        duplicate.limit(block.position() + offset + length);
+        return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static BigDecimal toBigDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+
+    /** A row of a ScoreColumnStore presented as a Scorable */
+    public static class RowScorable
+        implements Scorable {
+
+        private final ScoreColumnStore _store;
+        private final int _row;
+        private ScoreSummary _summary;
+
+        private RowScorable(ScoreColumnStore store, int row) {
+            _store = store;
+            _row = row;
+        }
+
+        public int getRow() {
+            return _row;
+        }
+
+        @Override
+        public ScoreSummary getScoreSummary() {
+
+            if (_summary == null)
+            {
+                _summary = _store.getScoreSummary(_row);
+            }
+
+            return _summary;
+        }
+    }
+}
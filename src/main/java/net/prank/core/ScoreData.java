@@ -202,6 +202,18 @@ public class ScoreData
             return new ScoreData(_bScore, _bAdjustedScore, _bNormalizedScore, _bBuckets, _bMaxPoints, _bMinPoints);
         }
 
+        /** Clear all fields so the builder can be reused */
+        public Builder reset() {
+
+            _bScore = null;
+            _bAdjustedScore = null;
+            _bNormalizedScore = null;
+            _bBuckets = 0;
+            _bMaxPoints = null;
+            _bMinPoints = null;
+            return this;
+        }
+
         public Builder setScore(BigDecimal score) {
             _bScore = score;
             return this;
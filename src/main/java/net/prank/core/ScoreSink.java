@@ -0,0 +1,30 @@
+package net.prank.core;
+
+/**
+ * Receives each Result as a StreamingScoreCard produces it. A sink might add the
+ * Result to a ScoreSummary (see ScorableSink), write it to a file, or aggregate it,
+ * so that the scored objects never have to be held in memory together.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public interface ScoreSink<T> {
+
+    /**
+     * @param scored The object that was scored
+     * @param result The ScoreCard result for 'scored'
+     */
+    public void accept(T scored, Result result);
+}
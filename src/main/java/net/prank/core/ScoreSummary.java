@@ -1,14 +1,19 @@
 package net.prank.core;
 
+import net.prank.tools.CardTally;
 import net.prank.tools.ScoreFormatter;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provide a mechanism to store and/or process results associated with a given
@@ -18,6 +23,11 @@ import java.util.Set;
  * 1) Summary (T,V) interface.
  * 2) ScoreTally (V) interface
  * <p>
+ * Different ScoreCards (and hedged executions of the same card) write concurrently,
+ * so adding a Result is thread safe and repeating it for the same card only replaces
+ * the earlier Result. Null card names and Results are ignored. getResults() is a
+ * read only view, so the name and ordinal lookups cannot disagree.
+ * <p>
  * @author dmillett
  * <p>
  * Copyright 2012 David Millett
@@ -37,24 +47,154 @@ public class ScoreSummary
     implements Serializable {
 
     private static final long serialVersionUID = 42L;
+    /** Results of a hedged execution, buffered on its thread until it wins, see Prankster */
+    private static final ThreadLocal<Staging> STAGING = new ThreadLocal<>();
     private final Map<String, Result> _results;
     private final String _name;
+    /**
+     * Results indexed by ScoreCardRegistry ordinal, null until a registered card adds one.
+     * Not serialized since ordinals are per JVM.
+     */
+    private transient volatile Result[] _ordinalResults;
+    /** Cards that timed out or failed for this object, null until one does */
+    private volatile Map<String, CardStatus> _cardStatuses;
 
     public ScoreSummary(String name) {
         _name = name;
-        _results = new HashMap<>();
+        _results = new ConcurrentHashMap<>();
     }
 
+    /**
+     * Both indexes are written under one lock, so concurrent writes for the same card
+     * (hedged executions) leave the name and ordinal lookups with the same Result.
+     * Names are not registered here (see ScoreCardRegistry), unregistered names are
+     * only indexed by name.
+     * Inside a hedged execution the Result is buffered until that execution wins.
+     *
+     * @param key The ScoreCard name
+     * @param result Replaces any earlier Result for 'key'
+     */
     public void addResult(String key, Result result) {
+
+        if (key == null || result == null)
+        {
+            return;
+        }
+
+        Staging staging = STAGING.get();
+        if (staging != null)
+        {
+            staging.add(this, key, result);
+            return;
+        }
+
+        putResult(key, result);
+    }
+
+    private synchronized void putResult(String key, Result result) {
+
         _results.put(key, result);
+        int ordinal = ScoreCardRegistry.find(key);
+        if (ordinal < 0)
+        {
+            return;
+        }
+
+        if (_ordinalResults == null || ordinal >= _ordinalResults.length)
+        {
+            Result[] resized = new Result[Math.max(ordinal + 1, ScoreCardRegistry.size())];
+            if (_ordinalResults != null)
+            {
+                System.arraycopy(_ordinalResults, 0, resized, 0, _ordinalResults.length);
+            }
+
+            _ordinalResults = resized;
+        }
+
+        _ordinalResults[ordinal] = result;
     }
 
     public Result getResultByScoreCard(String scoreCardName) {
-        return _results.get(scoreCardName);
+        return scoreCardName != null ? _results.get(scoreCardName) : null;
+    }
+
+    /**
+     * Look up a Result by ScoreCardRegistry ordinal without hashing the card name.
+     * Results added before their card was registered are found by name instead.
+     *
+     * @param ordinal The ScoreCard ordinal
+     * @return The Result or null
+     */
+    public Result getResultByOrdinal(int ordinal) {
+
+        Result[] ordinalResults = _ordinalResults;
+        if (ordinalResults != null && ordinal >= 0 && ordinal < ordinalResults.length
+            && ordinalResults[ordinal] != null)
+        {
+            return ordinalResults[ordinal];
+        }
+
+        String scoreCardName = ScoreCardRegistry.getName(ordinal);
+        return scoreCardName != null ? _results.get(scoreCardName) : null;
+    }
+
+    /**
+     * Tells a card that is missing because it timed out or failed apart from a card
+     * that did not apply to this object (or was not requested).
+     *
+     * @param scoreCardName A ScoreCard name
+     * @return COMPLETED with a Result, TIMED_OUT or FAILED if Prankster marked it, otherwise null
+     */
+    public CardStatus getCardStatus(String scoreCardName) {
+
+        if (scoreCardName == null)
+        {
+            return null;
+        }
+
+        if (_results.containsKey(scoreCardName))
+        {
+            return CardStatus.COMPLETED;
+        }
+
+        Map<String, CardStatus> cardStatuses = _cardStatuses;
+        return cardStatuses != null ? cardStatuses.get(scoreCardName) : null;
+    }
+
+    /**
+     * Record why a card has no Result for this object, see getCardStatus()
+     * @param scoreCardName A ScoreCard name
+     * @param cardStatus Usually TIMED_OUT or FAILED
+     */
+    public void markCardStatus(String scoreCardName, CardStatus cardStatus) {
+
+        if (scoreCardName == null || cardStatus == null)
+        {
+            return;
+        }
+
+        Map<String, CardStatus> cardStatuses = _cardStatuses;
+        if (cardStatuses == null)
+        {
+            synchronized (this)
+            {
+                if (_cardStatuses == null)
+                {
+                    _cardStatuses = new ConcurrentHashMap<>(4);
+                }
+
+                cardStatuses = _cardStatuses;
+            }
+        }
+
+        cardStatuses.put(scoreCardName, cardStatus);
     }
 
+    /**
+     * @return A read only view of the Results by ScoreCard name, see addResult()
+     */
     public Map<String, Result> getResults() {
-        return _results;
+        return Collections.unmodifiableMap(_results);
     }
 
     public String getName() {
@@ -74,6 +214,17 @@ public class ScoreSummary
         return tallyScore(_results.keySet(), scoreType);
     }
 
+    /**
+     * Tally with a compiled CardTally (weights, aggregation strategy, score type)
+     * using primitive scores.
+     *
+     * @param cardTally The compiled cards and aggregation
+     * @return The tally or NaN if none of the cards have a Result
+     */
+    public double tallyScore(CardTally cardTally) {
+        return cardTally.tally(this);
+    }
+
     /**
      * Get the setupScoring for a subset of ScoreCards by name.
      *
@@ -133,8 +284,10 @@ public class ScoreSummary
 
     private BigDecimal updateTallyFromResult(Result.ResultScoreType scoreType, BigDecimal tally,
                                              String scoreCardName) {
+        return updateTally(scoreType, tally, _results.get(scoreCardName));
+    }
 
-        Result result = _results.get(scoreCardName);
+    private BigDecimal updateTally(Result.ResultScoreType scoreType, BigDecimal tally, Result result) {
 
         if (result == null) { return tally; }
 
@@ -143,19 +296,38 @@ public class ScoreSummary
             tally = new BigDecimal("0.0");
         }
 
-        if (scoreType.equals(Result.ResultScoreType.ORIGINAL))
+        if (scoreType.equals(Result.ResultScoreType.ORIGINAL) || scoreType.equals(Result.ResultScoreType.ADJUSTED))
         {
-            if (result.getScoreData().getScore() != null)
+            BigDecimal score = result.getScore(scoreType);
+            if (score != null)
             {
-                tally = tally.add(result.getScoreData().getScore());
+                tally = tally.add(score);
             }
         }
-        else if (scoreType.equals(Result.ResultScoreType.ADJUSTED))
+
+        return tally;
+    }
+
+    /**
+     * Tally a subset of ScoreCards by ordinal (see ScoreCardRegistry.toBitSet()),
+     * which avoids copying and hashing card names for every summary.
+     *
+     * @param scoreCardOrdinals The ScoreCard ordinals to apply
+     * @param scoreType The scoring type to use
+     * @return null if there are no matching ScoreCards, otherwise the tally(+)
+     */
+    public BigDecimal tallyScoreFor(BitSet scoreCardOrdinals, Result.ResultScoreType scoreType) {
+
+        if (scoreCardOrdinals == null)
+        {
+            return null;
+        }
+
+        BigDecimal tally = null;
+        for (int ordinal = scoreCardOrdinals.nextSetBit(0); ordinal >= 0;
+             ordinal = scoreCardOrdinals.nextSetBit(ordinal + 1))
         {
-            if (result.getScoreData().getAdjustedScore() != null)
-            {
-                tally = tally.add(result.getScoreData().getAdjustedScore());
-            }
+            tally = updateTally(scoreType, tally, getResultByOrdinal(ordinal));
         }
 
         return tally;
@@ -260,5 +432,42 @@ public class ScoreSummary
         result = 31 * result + (_name != null ? _name.hashCode() : 0);
         return result;
     }
-}
 
+    /**
+     * Buffer every addResult() on this thread until endStaging(), so only the
+     * hedged execution that wins publishes its Results
+     */
+    static Staging beginStaging() {
+
+        Staging staging = new Staging();
+        STAGING.set(staging);
+        return staging;
+    }
+
+    static void endStaging() {
+        STAGING.remove();
+    }
+
+    /** The buffered addResult() calls of one execution */
+    static final class Staging {
+
+        private final List<ScoreSummary> _summaries = new ArrayList<>();
+        private final List<String> _keys = new ArrayList<>();
+        private final List<Result> _results = new ArrayList<>();
+
+        private void add(ScoreSummary summary, String key, Result result) {
+            _summaries.add(summary);
+            _keys.add(key);
+            _results.add(result);
+        }
+
+        /** Write the buffered Results in the order they were added */
+        void publish() {
+
+            for (int i = 0; i < _summaries.size(); i++)
+            {
+                _summaries.get(i).putResult(_keys.get(i), _results.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package net.prank.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An optional cache in front of Prankster for requests that repeat within a short
+ * time with the same candidates and RequestOptions (paging, retries, etc). On a hit
+ * the cached Results are copied into each ScoreSummary and Prankster is not called,
+ * so there is no thread hand-off or scoring at all.
+ * <p>
+ * The caller supplies a fingerprint that identifies the request object (candidate
+ * ids, search key, etc). The cache key is that fingerprint plus the per card
+ * RequestOptions and CardSelection. Results are stored by position, so a hit requires the request
+ * object to be a Scorable or an Iterable of Scorable with the same size and order
+ * as the cached request. Any other request object is scored without caching.
+ * <p>
+ * Entries are evicted least recently used beyond 'maxEntries' and expire after
+ * 'timeToLiveMillis'. ScoreData and Statistics are shared with cached Results,
+ * Indices are copied since sorting updates them.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoringCache<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScoringCache.class);
+
+    private final Prankster<T> _prankster;
+    private final long _timeToLiveNanos;
+    private final Map<CacheKey, CachedScores> _cache;
+
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+    private final AtomicLong _evictions = new AtomicLong();
+
+    /**
+     * @param prankster Scores requests that are not cached
+     * @param maxEntries The maximum number of cached requests
+     * @param timeToLiveMillis How long a cached request remains valid
+     */
+    public ScoringCache(Prankster<T> prankster, final int maxEntries, long timeToLiveMillis) {
+
+        _prankster = prankster;
+        _timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        _cache = new LinkedHashMap<CacheKey, CachedScores>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 42L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedScores> eldest) {
+
+                if (size() > maxEntries)
+                {
+                    _evictions.incrementAndGet();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Copy cached Results into the request object(s), otherwise score with Prankster
+     * and cache the Results. Only requests where every card completed are cached, so a
+     * timeout or failure is not repeated for 'timeToLiveMillis'.
+     *
+     * @param request The request to score
+     * @param fingerprint Identifies the request object, null disables caching for this request
+     * @param defaultTimeoutInMillis The time to wait for scoring to complete on a miss
+     * @return The Prankster outcome on a miss, a COMPLETED outcome for the cached cards on a hit
+     */
+    public ScoringOutcome updateObjectsWithScores(Request<T> request, Object fingerprint, int defaultTimeoutInMillis) {
+
+        if (request == null || request.isDisabled())
+        {
+            return _prankster.updateObjectsWithScores(request, defaultTimeoutInMillis);
+        }
+
+        List<Scorable> scorables = findScorables(request.getRequestObject());
+        if (fingerprint == null || scorables == null)
+        {
+            return _prankster.updateObjectsWithScores(request, defaultTimeoutInMillis);
+        }
+
+        CacheKey key = new CacheKey(fingerprint, request.getOptions(), request.getCardSelection());
+        CachedScores cached = get(key);
+
+        if (cached != null && cached._results.size() == scorables.size())
+        {
+            _hits.incrementAndGet();
+            copyInto(cached, scorables);
+            return cachedOutcome(request, cached);
+        }
+
+        _misses.incrementAndGet();
+        ScoringOutcome outcome = _prankster.updateObjectsWithScores(request, defaultTimeoutInMillis);
+        if (outcome.isComplete())
+        {
+            put(key, snapshot(scorables, outcome.findScoreCards(CardStatus.COMPLETED)));
+        }
+
+        return outcome;
+    }
+
+    public long getHitCount() {
+        return _hits.get();
+    }
+
+    public long getMissCount() {
+        return _misses.get();
+    }
+
+    public long getEvictionCount() {
+        return _evictions.get();
+    }
+
+    /** @return hits / (hits + misses) or 0.0 before the first request */
+    public double getHitRate() {
+
+        long hits = _hits.get();
+        long total = hits + _misses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public int size() {
+
+        synchronized (_cache)
+        {
+            return _cache.size();
+        }
+    }
+
+    public void invalidateAll() {
+
+        synchronized (_cache)
+        {
+            _cache.clear();
+        }
+    }
+
+    private CachedScores get(CacheKey key) {
+
+        synchronized (_cache)
+        {
+            CachedScores cached = _cache.get(key);
+            if (cached != null && System.nanoTime() - cached._createdNanos > _timeToLiveNanos)
+            {
+                _cache.remove(key);
+                _evictions.incrementAndGet();
+                return null;
+            }
+
+            return cached;
+        }
+    }
+
+    private void put(CacheKey key, CachedScores scores) {
+
+        synchronized (_cache)
+        {
+            _cache.put(key, scores);
+        }
+    }
+
+    /** A single Scorable, or an Iterable where non Scorable elements keep their position */
+    private List<Scorable> findScorables(Object requestObject) {
+
+        if (requestObject instanceof Scorable)
+        {
+            return Collections.singletonList((Scorable) requestObject);
+        }
+
+        if (!(requestObject instanceof Iterable))
+        {
+            LOG.debug("Request Object Is Not Scorable, Skipping Cache: {}", requestObject);
+            return null;
+        }
+
+        List<Scorable> scorables = new ArrayList<>();
+        for (Object element : (Iterable<?>) requestObject)
+        {
+            scorables.add(element instanceof Scorable ? (Scorable) element : null);
+        }
+
+        return scorables;
+    }
+
+    private CachedScores snapshot(List<Scorable> scorables, Set<String> scoreCards) {
+
+        List<Map<String, Result>> results = new ArrayList<>(scorables.size());
+        for (Scorable scorable : scorables)
+        {
+            if (scorable == null || scorable.getScoreSummary() == null)
+            {
+                results.add(Collections.<String, Result>emptyMap());
+                continue;
+            }
+
+            // Only the cards this request completed, not Results from other requests or callers
+            Map<String, Result> copies = new HashMap<>();
+            for (String scoreCard : scoreCards)
+            {
+                Result result = scorable.getScoreSummary().getResultByScoreCard(scoreCard);
+                if (result != null)
+                {
+                    copies.put(scoreCard, copyResult(result));
+                }
+            }
+
+            results.add(copies);
+        }
+
+        return new CachedScores(results, scoreCards);
+    }
+
+    private ScoringOutcome cachedOutcome(Request<T> request, CachedScores cached) {
+
+        Map<String, ScoringOutcome.CardOutcome> outcomes = ScoringOutcome.newCardOutcomes(cached._scoreCards.size());
+        for (String scoreCard : cached._scoreCards)
+        {
+            outcomes.put(scoreCard, new ScoringOutcome.CardOutcome(scoreCard, CardStatus.COMPLETED, 0, null));
+        }
+
+        return new ScoringOutcome(request.getRequestObject(), outcomes, 0);
+    }
+
+    private void copyInto(CachedScores cached, List<Scorable> scorables) {
+
+        for (int i = 0; i < scorables.size(); i++)
+        {
+            Scorable scorable = scorables.get(i);
+            if (scorable == null || scorable.getScoreSummary() == null)
+            {
+                continue;
+            }
+
+            for (Map.Entry<String, Result> entry : cached._results.get(i).entrySet())
+            {
+                scorable.getScoreSummary().addResult(entry.getKey(), copyResult(entry.getValue()));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result copyResult(Result result) {
+
+        if (result == null)
+        {
+            return null;
+        }
+
+        Indices indices = result.getPosition() != null ? new Indices(result.getPosition()) : null;
+        return new Result(result.getScoreCardName(), result.getScoredValue(), indices, result.getScoreData(),
+                          result.getStatistics());
+    }
+
+    /** Results by position, the cards that completed and when they were cached */
+    private static class CachedScores {
+
+        private final List<Map<String, Result>> _results;
+        private final Set<String> _scoreCards;
+        private final long _createdNanos;
+
+        private CachedScores(List<Map<String, Result>> results, Set<String> scoreCards) {
+            _results = results;
+            _scoreCards = scoreCards;
+            _createdNanos = System.nanoTime();
+        }
+    }
+
+    /** Caller fingerprint plus a snapshot of the per card options and the selected cards */
+    private static class CacheKey {
+
+        private final Object _fingerprint;
+        private final Map<String, RequestOptions> _options;
+        private final CardSelection _cardSelection;
+        private final int _hashCode;
+
+        private CacheKey(Object fingerprint, Map<String, RequestOptions> options, CardSelection cardSelection) {
+            _fingerprint = fingerprint;
+            _options = options != null ? new HashMap<>(options) : Collections.<String, RequestOptions>emptyMap();
+            _cardSelection = cardSelection != null ? cardSelection : CardSelection.all();
+            _hashCode = 31 * (31 * _fingerprint.hashCode() + _options.hashCode()) + _cardSelection.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o)
+            {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            CacheKey that = (CacheKey) o;
+            return _hashCode == that._hashCode && _fingerprint.equals(that._fingerprint)
+                   && _options.equals(that._options) && _cardSelection.equals(that._cardSelection);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+    }
+}
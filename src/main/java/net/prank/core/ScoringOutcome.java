@@ -0,0 +1,216 @@
+package net.prank.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How complete the scoring of one Request was: a CardStatus, elapsed time and any
+ * failure for each ScoreCard, returned by Prankster.updateObjectsWithScores(). The
+ * number of objects a card scored is counted on request with getScoredCount(), so
+ * callers that only check isComplete() pay nothing extra.
+ * <p>
+ * Each object's ScoreSummary is also marked for cards that timed out or failed, see
+ * ScoreSummary.getCardStatus().
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoringOutcome {
+
+    private static final ScoringOutcome EMPTY =
+            new ScoringOutcome(null, Collections.<String, CardOutcome>emptyMap(), 0);
+
+    private final Object _requestObject;
+    private final Map<String, CardOutcome> _cardOutcomes;
+    private final long _elapsedNanos;
+
+    ScoringOutcome(Object requestObject, Map<String, CardOutcome> cardOutcomes, long elapsedNanos) {
+        _requestObject = requestObject;
+        _cardOutcomes = cardOutcomes;
+        _elapsedNanos = elapsedNanos;
+    }
+
+    /** @return An outcome without cards, for a null or disabled Request */
+    public static ScoringOutcome empty() {
+        return EMPTY;
+    }
+
+    /** @return true if every card that was not SKIPPED COMPLETED */
+    public boolean isComplete() {
+
+        for (CardOutcome outcome : _cardOutcomes.values())
+        {
+            if (outcome._status != CardStatus.COMPLETED && outcome._status != CardStatus.SKIPPED)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param scoreCardName A ScoreCard name
+     * @return The card status, or null for an unknown card
+     */
+    public CardStatus getStatus(String scoreCardName) {
+
+        CardOutcome outcome = _cardOutcomes.get(scoreCardName);
+        return outcome != null ? outcome._status : null;
+    }
+
+    public CardOutcome getCardOutcome(String scoreCardName) {
+        return _cardOutcomes.get(scoreCardName);
+    }
+
+    public Collection<CardOutcome> getCardOutcomes() {
+        return Collections.unmodifiableCollection(_cardOutcomes.values());
+    }
+
+    /** @return The names of the cards with a status */
+    public Set<String> findScoreCards(CardStatus status) {
+
+        Set<String> scoreCards = new HashSet<>();
+        for (CardOutcome outcome : _cardOutcomes.values())
+        {
+            if (outcome._status == status)
+            {
+                scoreCards.add(outcome._scoreCardName);
+            }
+        }
+
+        return scoreCards;
+    }
+
+    public int countScoreCards(CardStatus status) {
+
+        int count = 0;
+        for (CardOutcome outcome : _cardOutcomes.values())
+        {
+            if (outcome._status == status)
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Count the request's Scorable objects with a Result from the card. For a card
+     * that timed out, this is a snapshot and may still grow.
+     *
+     * @param scoreCardName A ScoreCard name
+     * @return The number of scored objects
+     */
+    public int getScoredCount(String scoreCardName) {
+
+        int ordinal = ScoreCardRegistry.find(scoreCardName);
+        if (ordinal < 0)
+        {
+            return 0;
+        }
+
+        if (_requestObject instanceof Scorable)
+        {
+            return hasResult((Scorable) _requestObject, ordinal) ? 1 : 0;
+        }
+
+        int count = 0;
+        if (_requestObject instanceof Iterable)
+        {
+            for (Object element : (Iterable<?>) _requestObject)
+            {
+                if (element instanceof Scorable && hasResult((Scorable) element, ordinal))
+                {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /** @return The time Prankster spent scoring and waiting */
+    public double getElapsedMillis() {
+        return _elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private boolean hasResult(Scorable scorable, int ordinal) {
+        return scorable.getScoreSummary() != null && scorable.getScoreSummary().getResultByOrdinal(ordinal) != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoringOutcome{" +
+                "_cardOutcomes=" + _cardOutcomes.values() +
+                ", _elapsedMillis=" + getElapsedMillis() +
+                '}';
+    }
+
+    /** Builds outcomes in card order */
+    static Map<String, CardOutcome> newCardOutcomes(int size) {
+        return new LinkedHashMap<>(Math.max(16, size * 2));
+    }
+
+    /** The status of one ScoreCard */
+    public static class CardOutcome {
+
+        private final String _scoreCardName;
+        private final CardStatus _status;
+        private final long _elapsedNanos;
+        private final Throwable _failure;
+
+        CardOutcome(String scoreCardName, CardStatus status, long elapsedNanos, Throwable failure) {
+            _scoreCardName = scoreCardName;
+            _status = status;
+            _elapsedNanos = elapsedNanos;
+            _failure = failure;
+        }
+
+        public String getScoreCardName() {
+            return _scoreCardName;
+        }
+
+        public CardStatus getStatus() {
+            return _status;
+        }
+
+        /** @return From submission until the card finished, or until Prankster stopped waiting */
+        public double getElapsedMillis() {
+            return _elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        /** @return The exception for a FAILED card, otherwise null */
+        public Throwable getFailure() {
+            return _failure;
+        }
+
+        @Override
+        public String toString() {
+            return "CardOutcome{" +
+                    "_scoreCardName='" + _scoreCardName + '\'' +
+                    ", _status=" + _status +
+                    ", _elapsedMillis=" + getElapsedMillis() +
+                    ", _failure=" + _failure +
+                    '}';
+        }
+    }
+}
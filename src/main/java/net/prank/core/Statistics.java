@@ -228,6 +228,19 @@ public class Statistics
                                   _bStandardDeviation);
         }
 
+        /** Clear all fields so the builder can be reused */
+        public Builder reset() {
+
+            _bMin = null;
+            _bMax = null;
+            _bSampleSize = 0;
+            _bAverage = null;
+            _bMeanDeviation = null;
+            _bMedianDeviation = null;
+            _bStandardDeviation = null;
+            return this;
+        }
+
         public Builder setMin(BigDecimal bMin) {
             _bMin = bMin;
             return this;
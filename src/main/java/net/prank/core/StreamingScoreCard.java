@@ -0,0 +1,50 @@
+package net.prank.core;
+
+/**
+ * A ScoreCard contract for sources that are too large to materialize as a List,
+ * for example rows pulled from a file or database cursor in an offline job.
+ *
+ * The source is an Iterable so that an implementation may iterate it twice: once
+ * to build collection statistics (see RunningStatistics) and once to score and
+ * emit each Result to the ScoreSink. An implementation that only needs a single
+ * pass should iterate once. Either way, memory use is bounded by the sketch and
+ * not the number of scored objects.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public interface StreamingScoreCard<T> {
+
+    /**
+     * Score every object from a re-iterable source with default options
+     * @param source Each call to iterator() must start over from the beginning
+     * @param sink Receives a Result for each scored object
+     */
+    public void scoreStream(Iterable<T> source, ScoreSink<T> sink);
+
+    /**
+     * Score every object from a re-iterable source with request specific options
+     * @param source Each call to iterator() must start over from the beginning
+     * @param options The request specific scoring parameters
+     * @param sink Receives a Result for each scored object
+     */
+    public void scoreStream(Iterable<T> source, RequestOptions options, ScoreSink<T> sink);
+
+    /**
+     * The name of the ScoreCard, used as the Result key in a ScoreSummary
+     * @return The name of the ScoreCard
+     */
+    public String getName();
+}
@@ -0,0 +1,372 @@
+package net.prank.core;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An unbounded executor work queue with one FIFO per RequestPriority and weighted
+ * round robin dequeue. Each round, a priority may dequeue 'weight' tasks while it has
+ * work, higher priorities first, so BATCH work still progresses under interactive
+ * load without delaying it much.
+ * <p>
+ * When the oldest INTERACTIVE task has waited longer than 'interactiveYieldNanos', it
+ * is dequeued next regardless of the round, so lower priority work yields whenever
+ * interactive latency is at risk.
+ * <p>
+ * Tasks that are not Prioritized are queued as NORMAL. All access holds one lock.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+final class WeightedFairQueue
+    extends AbstractQueue<Runnable>
+    implements BlockingQueue<Runnable> {
+
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+    private final ArrayDeque<QueuedTask>[] _queues;
+    private final int[] _credits;
+    private final long _interactiveYieldNanos;
+    private final ReentrantLock _lock = new ReentrantLock();
+    private final Condition _notEmpty = _lock.newCondition();
+    private int _count;
+
+    @SuppressWarnings("unchecked")
+    WeightedFairQueue(long interactiveYieldMillis) {
+
+        _queues = new ArrayDeque[PRIORITIES.length];
+        _credits = new int[PRIORITIES.length];
+        _interactiveYieldNanos = TimeUnit.MILLISECONDS.toNanos(interactiveYieldMillis);
+
+        for (int i = 0; i < PRIORITIES.length; i++)
+        {
+            _queues[i] = new ArrayDeque<>();
+            _credits[i] = PRIORITIES[i].getWeight();
+        }
+    }
+
+    static RequestPriority priorityOf(Object task) {
+
+        RequestPriority priority = task instanceof Prioritized ? ((Prioritized) task).getPriority() : null;
+        return priority != null ? priority : RequestPriority.NORMAL;
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+
+        if (task == null)
+        {
+            throw new NullPointerException("Cannot Queue A Null Task");
+        }
+
+        QueuedTask queued = new QueuedTask(task, System.nanoTime());
+        _lock.lock();
+        try
+        {
+            _queues[priorityOf(task).ordinal()].addLast(queued);
+            _count++;
+            _notEmpty.signal();
+            return true;
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable task) {
+        offer(task);
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) {
+        return offer(task);
+    }
+
+    @Override
+    public Runnable poll() {
+
+        _lock.lock();
+        try
+        {
+            return dequeue();
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+
+        _lock.lockInterruptibly();
+        try
+        {
+            while (_count == 0)
+            {
+                _notEmpty.await();
+            }
+
+            return dequeue();
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long nanos = unit.toNanos(timeout);
+        _lock.lockInterruptibly();
+        try
+        {
+            while (_count == 0)
+            {
+                if (nanos <= 0)
+                {
+                    return null;
+                }
+
+                nanos = _notEmpty.awaitNanos(nanos);
+            }
+
+            return dequeue();
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+
+        _lock.lock();
+        try
+        {
+            int selected = select(false);
+            return selected >= 0 ? _queues[selected].peekFirst()._task : null;
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object task) {
+
+        _lock.lock();
+        try
+        {
+            for (ArrayDeque<QueuedTask> queue : _queues)
+            {
+                Iterator<QueuedTask> tasks = queue.iterator();
+                while (tasks.hasNext())
+                {
+                    if (tasks.next()._task == task)
+                    {
+                        tasks.remove();
+                        _count--;
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+
+        _lock.lock();
+        try
+        {
+            return _count;
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    /** @return The number of queued tasks for one priority */
+    public int size(RequestPriority priority) {
+
+        _lock.lock();
+        try
+        {
+            return _queues[priority.ordinal()].size();
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks) {
+        return drainTo(tasks, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks, int maxElements) {
+
+        _lock.lock();
+        try
+        {
+            int drained = 0;
+            while (drained < maxElements && _count > 0)
+            {
+                tasks.add(dequeue());
+                drained++;
+            }
+
+            return drained;
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    /** A snapshot in priority order, not dequeue order */
+    @Override
+    public Iterator<Runnable> iterator() {
+
+        _lock.lock();
+        try
+        {
+            List<Runnable> snapshot = new ArrayList<>(_count);
+            for (ArrayDeque<QueuedTask> queue : _queues)
+            {
+                for (QueuedTask queued : queue)
+                {
+                    snapshot.add(queued._task);
+                }
+            }
+
+            return Collections.unmodifiableList(snapshot).iterator();
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
+
+    /** Call holding the lock */
+    private Runnable dequeue() {
+
+        int selected = select(true);
+        if (selected < 0)
+        {
+            return null;
+        }
+
+        if (_credits[selected] > 0)
+        {
+            _credits[selected]--;
+        }
+
+        _count--;
+        return _queues[selected].pollFirst()._task;
+    }
+
+    /**
+     * The next priority to dequeue: an overdue INTERACTIVE task, else the highest
+     * priority with work and credits left this round, else start a new round.
+     */
+    private int select(boolean startRound) {
+
+        if (_count == 0)
+        {
+            return -1;
+        }
+
+        QueuedTask oldestInteractive = _queues[RequestPriority.INTERACTIVE.ordinal()].peekFirst();
+        if (oldestInteractive != null && System.nanoTime() - oldestInteractive._queuedNanos >= _interactiveYieldNanos)
+        {
+            return RequestPriority.INTERACTIVE.ordinal();
+        }
+
+        for (int i = 0; i < _queues.length; i++)
+        {
+            if (_credits[i] > 0 && !_queues[i].isEmpty())
+            {
+                return i;
+            }
+        }
+
+        int first = -1;
+        for (int i = 0; i < _queues.length; i++)
+        {
+            if (startRound)
+            {
+                _credits[i] = PRIORITIES[i].getWeight();
+            }
+
+            if (first < 0 && !_queues[i].isEmpty())
+            {
+                first = i;
+            }
+        }
+
+        return first;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightedFairQueue{" +
+                "_interactive=" + _queues[RequestPriority.INTERACTIVE.ordinal()].size() +
+                ", _normal=" + _queues[RequestPriority.NORMAL.ordinal()].size() +
+                ", _batch=" + _queues[RequestPriority.BATCH.ordinal()].size() +
+                '}';
+    }
+
+    /** A task and when it was queued */
+    private static class QueuedTask {
+
+        private final Runnable _task;
+        private final long _queuedNanos;
+
+        private QueuedTask(Runnable task, long queuedNanos) {
+            _task = task;
+            _queuedNanos = queuedNanos;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package net.prank.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A Set of ScoringRange compiled once into parallel primitive arrays, sorted by
+ * range min (then max), for the bulk ScoringTool.scoreFromRanges() loop. When two
+ * ranges share a boundary value, the range with the lower min wins, so results no
+ * longer depend on HashSet iteration order. A value outside every range scores 0.0
+ * just like getScoreFromRange().
+ * <p>
+ * Immutable and safe to share across threads and requests.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class BucketPlan {
+
+    // Package visible for the ScoringTool bulk loop
+    final double[] _mins;
+    final double[] _maxs;
+    final double[] _points;
+
+    private BucketPlan(double[] mins, double[] maxs, double[] points) {
+        _mins = mins;
+        _maxs = maxs;
+        _points = points;
+    }
+
+    /**
+     * @param scoringRanges The ranges from scoreBucketsEvenly*() or elsewhere
+     * @return A compiled plan, null ranges are ignored
+     */
+    public static BucketPlan compile(Collection<ScoringRange> scoringRanges) {
+
+        List<ScoringRange> sorted = new ArrayList<>();
+        if (scoringRanges != null)
+        {
+            for (ScoringRange range : scoringRanges)
+            {
+                if (range != null)
+                {
+                    sorted.add(range);
+                }
+            }
+        }
+
+        sorted.sort(Comparator.comparingDouble(ScoringRange::getMin).thenComparingDouble(ScoringRange::getMax));
+
+        int count = sorted.size();
+        double[] mins = new double[count];
+        double[] maxs = new double[count];
+        double[] points = new double[count];
+
+        for (int i = 0; i < count; i++)
+        {
+            ScoringRange range = sorted.get(i);
+            mins[i] = range.getMin();
+            maxs[i] = range.getMax();
+            points[i] = range.getScorePoints();
+        }
+
+        return new BucketPlan(mins, maxs, points);
+    }
+
+    /**
+     * Score a single value against the plan
+     * @param value The raw value
+     * @return The bucket points, 0.0 if no bucket matches (or NaN)
+     */
+    public double score(double value) {
+
+        for (int i = 0; i < _mins.length; i++)
+        {
+            if (value >= _mins[i] && value <= _maxs[i])
+            {
+                return _points[i];
+            }
+        }
+
+        return 0.0;
+    }
+
+    public int getBucketCount() {
+        return _mins.length;
+    }
+
+    public double getMin(int bucket) {
+        return _mins[bucket];
+    }
+
+    public double getMax(int bucket) {
+        return _maxs[bucket];
+    }
+
+    public double getPoints(int bucket) {
+        return _points[bucket];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o)
+        {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        BucketPlan that = (BucketPlan) o;
+        return Arrays.equals(_mins, that._mins) && Arrays.equals(_maxs, that._maxs)
+               && Arrays.equals(_points, that._points);
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result = Arrays.hashCode(_mins);
+        result = 31 * result + Arrays.hashCode(_maxs);
+        result = 31 * result + Arrays.hashCode(_points);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BucketPlan{" +
+                "_mins=" + Arrays.toString(_mins) +
+                ", _maxs=" + Arrays.toString(_maxs) +
+                ", _points=" + Arrays.toString(_points) +
+                '}';
+    }
+}
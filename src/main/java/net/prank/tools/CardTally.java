@@ -0,0 +1,211 @@
+package net.prank.tools;
+
+import net.prank.core.Result;
+import net.prank.core.Scorable;
+import net.prank.core.ScoreCardRegistry;
+import net.prank.core.ScoreSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A compiled tally: the cards to combine, in priority order, with their weights,
+ * the score type and a ScoreAggregator. Card names are resolved once to
+ * ScoreCardRegistry ordinals (names that are not registered are looked up by
+ * name), so tallying a summary is an array walk over the
+ * cards with primitive scores, without name hashing, set copies or BigDecimal
+ * math. Scores are extracted into per thread scratch arrays, so tallies and
+ * comparisons do not allocate. Immutable and thread safe.
+ * <p>
+ * CardTally tally = new CardTally.Builder(StandardAggregator.WEIGHTED_SUM)
+ *                       .addCard(PriceScoreCard.NAME, 2.0)
+ *                       .addCard(ShippingCostScoreCard.NAME, 1.0)
+ *                       .build();
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class CardTally {
+
+    private final String[] _scoreCardNames;
+    private final int[] _ordinals;
+    private final double[] _weights;
+    private final Result.ResultScoreType _scoreType;
+    private final ScoreAggregator _aggregator;
+    /** Two score arrays per thread, for tally() and compare() */
+    private final ThreadLocal<double[][]> _scratch;
+
+    private CardTally(String[] scoreCardNames, double[] weights, Result.ResultScoreType scoreType,
+                      ScoreAggregator aggregator) {
+
+        _scoreCardNames = scoreCardNames;
+        _ordinals = new int[scoreCardNames.length];
+        _weights = weights;
+
+        for (int i = 0; i < scoreCardNames.length; i++)
+        {
+            _ordinals[i] = ScoreCardRegistry.find(scoreCardNames[i]);
+        }
+        _scoreType = scoreType;
+        _aggregator = aggregator;
+        _scratch = ThreadLocal.withInitial(() -> new double[2][scoreCardNames.length]);
+    }
+
+    /**
+     * @param summary The scored object's summary
+     * @return The aggregated score, or NaN if none of the cards have a Result
+     */
+    public double tally(ScoreSummary summary) {
+
+        if (summary == null)
+        {
+            return Double.NaN;
+        }
+
+        double[] scores = _scratch.get()[0];
+        extractScores(summary, scores);
+        return _aggregator.aggregate(scores, _weights);
+    }
+
+    /**
+     * Copy the card scores, in card order, into 'scores' (NaN where missing)
+     * @param summary The scored object's summary
+     * @param scores At least getCardCount() in length
+     */
+    public void extractScores(ScoreSummary summary, double[] scores) {
+
+        for (int i = 0; i < _scoreCardNames.length; i++)
+        {
+            Result result = summary == null ? null
+                            : _ordinals[i] >= 0 ? summary.getResultByOrdinal(_ordinals[i])
+                            : summary.getResultByScoreCard(_scoreCardNames[i]);
+            scores[i] = result != null ? result.getScoreAsDouble(_scoreType) : Double.NaN;
+        }
+    }
+
+    /**
+     * Order two summaries highest tally first (lexicographic by card for LEXICOGRAPHIC)
+     */
+    public int compare(ScoreSummary one, ScoreSummary two) {
+
+        double[][] scratch = _scratch.get();
+        extractScores(one, scratch[0]);
+        extractScores(two, scratch[1]);
+        return _aggregator.compare(scratch[0], scratch[1], _weights);
+    }
+
+    /**
+     * A Scorable comparator, highest first and null or missing tallies last. This
+     * extracts scores on every comparison, for larger collections (other than
+     * LEXICOGRAPHIC) prefer ScoreSorter.Builder.byTally(cardTally), which extracts
+     * each tally once per sort.
+     */
+    public Comparator<Scorable> comparator() {
+
+        return (one, two) -> {
+
+            ScoreSummary first = one != null ? one.getScoreSummary() : null;
+            ScoreSummary second = two != null ? two.getScoreSummary() : null;
+            return compare(first, second);
+        };
+    }
+
+    public int getCardCount() {
+        return _scoreCardNames.length;
+    }
+
+    public String getScoreCardName(int ordinal) {
+        return _scoreCardNames[ordinal];
+    }
+
+    public double getWeight(int ordinal) {
+        return _weights[ordinal];
+    }
+
+    public Result.ResultScoreType getScoreType() {
+        return _scoreType;
+    }
+
+    public ScoreAggregator getAggregator() {
+        return _aggregator;
+    }
+
+    @Override
+    public String toString() {
+        return "CardTally{" +
+                "_scoreCardNames=" + Arrays.toString(_scoreCardNames) +
+                ", _weights=" + Arrays.toString(_weights) +
+                ", _scoreType=" + _scoreType +
+                ", _aggregator=" + _aggregator +
+                '}';
+    }
+
+    public static class Builder {
+
+        private final ScoreAggregator _bAggregator;
+        private final List<String> _bScoreCardNames = new ArrayList<>();
+        private final List<Double> _bWeights = new ArrayList<>();
+        private Result.ResultScoreType _bScoreType = Result.ResultScoreType.ORIGINAL;
+
+        public Builder(ScoreAggregator aggregator) {
+            _bAggregator = aggregator;
+        }
+
+        /** Add a card with weight 1.0, cards are in priority order */
+        public Builder addCard(String scoreCardName) {
+            return addCard(scoreCardName, 1.0);
+        }
+
+        public Builder addCard(String scoreCardName, double weight) {
+
+            if (scoreCardName == null)
+            {
+                throw new IllegalArgumentException("ScoreCard Name Is Required");
+            }
+
+            if (_bScoreCardNames.contains(scoreCardName))
+            {
+                throw new IllegalArgumentException("Duplicate ScoreCard: " + scoreCardName);
+            }
+
+            _bScoreCardNames.add(scoreCardName);
+            _bWeights.add(weight);
+            return this;
+        }
+
+        public Builder setScoreType(Result.ResultScoreType scoreType) {
+            _bScoreType = scoreType;
+            return this;
+        }
+
+        public CardTally build() {
+
+            if (_bAggregator == null)
+            {
+                throw new IllegalArgumentException("ScoreAggregator Is Required");
+            }
+
+            double[] weights = new double[_bWeights.size()];
+            for (int i = 0; i < weights.length; i++)
+            {
+                weights[i] = _bWeights.get(i);
+            }
+
+            return new CardTally(_bScoreCardNames.toArray(new String[0]), weights, _bScoreType, _bAggregator);
+        }
+    }
+}
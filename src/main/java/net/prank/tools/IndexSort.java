@@ -0,0 +1,132 @@
+package net.prank.tools;
+
+/**
+ * A stable merge sort of int indices with a primitive comparator, so sort keys can
+ * live in primitive arrays rather than boxed objects. Stable: indices that compare
+ * equal keep their relative order.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public final class IndexSort {
+
+    /** Runs at or below this length use insertion sort */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /** Compares two indices into the caller's key arrays */
+    public interface IndexComparator {
+        public int compare(int one, int two);
+    }
+
+    private IndexSort() {}
+
+    /**
+     * @param size The number of indices
+     * @return 0 .. size - 1
+     */
+    public static int[] identity(int size) {
+
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            indices[i] = i;
+        }
+
+        return indices;
+    }
+
+    /**
+     * Stable sort of all 'indices'
+     */
+    public static void sort(int[] indices, IndexComparator comparator) {
+        sort(indices, 0, indices.length, new int[indices.length], comparator);
+    }
+
+    /**
+     * Stable sort of indices[from, to) using buffer[from, to) as scratch space
+     */
+    public static void sort(int[] indices, int from, int to, int[] buffer, IndexComparator comparator) {
+
+        if (to - from <= INSERTION_SORT_THRESHOLD)
+        {
+            insertionSort(indices, from, to, comparator);
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        sort(indices, from, middle, buffer, comparator);
+        sort(indices, middle, to, buffer, comparator);
+
+        // Already in order
+        if (comparator.compare(indices[middle - 1], indices[middle]) <= 0)
+        {
+            return;
+        }
+
+        System.arraycopy(indices, from, buffer, from, to - from);
+        merge(buffer, from, middle, to, indices, from, comparator);
+    }
+
+    /**
+     * Stable merge of the sorted runs source[from, middle) and source[middle, to)
+     * into target starting at 'targetFrom'. On ties the first run wins.
+     */
+    public static void merge(int[] source, int from, int middle, int to, int[] target, int targetFrom,
+                             IndexComparator comparator) {
+
+        int left = from;
+        int right = middle;
+        int out = targetFrom;
+
+        while (left < middle && right < to)
+        {
+            if (comparator.compare(source[right], source[left]) < 0)
+            {
+                target[out++] = source[right++];
+            }
+            else
+            {
+                target[out++] = source[left++];
+            }
+        }
+
+        while (left < middle)
+        {
+            target[out++] = source[left++];
+        }
+
+        while (right < to)
+        {
+            target[out++] = source[right++];
+        }
+    }
+
+    private static void insertionSort(int[] indices, int from, int to, IndexComparator comparator) {
+
+        for (int i = from + 1; i < to; i++)
+        {
+            int current = indices[i];
+            int j = i - 1;
+
+            while (j >= from && comparator.compare(current, indices[j]) < 0)
+            {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+
+            indices[j + 1] = current;
+        }
+    }
+}
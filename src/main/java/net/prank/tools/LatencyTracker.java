@@ -0,0 +1,262 @@
+package net.prank.tools;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A rolling latency distribution for one ScoreCard. Latencies are counted in a
+ * fixed log-linear histogram (8 sub buckets per power of two microseconds, within
+ * 12.5%), so recording is one atomic increment and a percentile is a scan of a few
+ * hundred counters regardless of traffic.
+ * <p>
+ * Samples roll over every 'windowMillis': percentiles cover the current and the
+ * previous window. Each completed window's p99 feeds a slow moving baseline, and the
+ * tracker reports a regression when the current window's p99 exceeds the baseline
+ * by 'regressionFactor'.
+ * <p>
+ * Thread safe, recording never blocks except for the rare window rollover.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class LatencyTracker {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 10000;
+    public static final double DEFAULT_REGRESSION_FACTOR = 2.0;
+    public static final long DEFAULT_MINIMUM_SAMPLES = 100;
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    /** Weight of each completed window in the baseline */
+    private static final double BASELINE_WEIGHT = 0.2;
+
+    private final long _windowNanos;
+    private final double _regressionFactor;
+    private final long _minimumSamples;
+
+    private volatile Window _current;
+    private volatile Window _previous;
+    private volatile double _baselineMicros = Double.NaN;
+
+    public LatencyTracker() {
+        this(DEFAULT_WINDOW_MILLIS, DEFAULT_REGRESSION_FACTOR, DEFAULT_MINIMUM_SAMPLES);
+    }
+
+    /**
+     * @param windowMillis How long each window collects samples
+     * @param regressionFactor How far above the baseline the current p99 is a regression
+     * @param minimumSamples Fewer samples in a window are not used for a baseline or regression
+     */
+    public LatencyTracker(long windowMillis, double regressionFactor, long minimumSamples) {
+
+        if (windowMillis < 1 || regressionFactor <= 1.0)
+        {
+            throw new IllegalArgumentException("Invalid Window: " + windowMillis + ", Or Factor: " + regressionFactor);
+        }
+
+        _windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        _regressionFactor = regressionFactor;
+        _minimumSamples = minimumSamples;
+        _current = new Window(System.nanoTime());
+        _previous = new Window(System.nanoTime());
+    }
+
+    /**
+     * @param elapsedNanos How long one scoring took, negative values are ignored
+     */
+    public void record(long elapsedNanos) {
+
+        if (elapsedNanos < 0)
+        {
+            return;
+        }
+
+        long now = System.nanoTime();
+        Window current = _current;
+        if (now - current._startNanos >= _windowNanos)
+        {
+            current = rollover(now);
+        }
+
+        current._counts.incrementAndGet(bucketFor(TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+    }
+
+    /**
+     * @param percentile Between 0.0 and 1.0, for example 0.99
+     * @return The latency upper bound in millis over the current and previous window, NaN without samples
+     */
+    public double getPercentileMillis(double percentile) {
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = _current.addTo(counts) + _previous.addTo(counts);
+        return toMillis(percentileMicros(counts, total, percentile));
+    }
+
+    /** @return Samples in the current and previous window */
+    public long getCount() {
+        return _current.count() + _previous.count();
+    }
+
+    /** @return The p99 baseline from completed windows, NaN until one has enough samples */
+    public double getBaselineMillis() {
+        return toMillis(_baselineMicros);
+    }
+
+    /**
+     * @return true if the current window has enough samples and its p99 is more than
+     * 'regressionFactor' times the baseline
+     */
+    public boolean isRegressed() {
+
+        double baseline = _baselineMicros;
+        if (Double.isNaN(baseline))
+        {
+            return false;
+        }
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = _current.addTo(counts);
+        if (total < _minimumSamples)
+        {
+            return false;
+        }
+
+        return percentileMicros(counts, total, 0.99) > baseline * _regressionFactor;
+    }
+
+    public long getMinimumSamples() {
+        return _minimumSamples;
+    }
+
+    private synchronized Window rollover(long now) {
+
+        Window completed = _current;
+        if (now - completed._startNanos < _windowNanos)
+        {
+            return completed;
+        }
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = completed.addTo(counts);
+        if (total >= _minimumSamples)
+        {
+            double p99 = percentileMicros(counts, total, 0.99);
+            double baseline = _baselineMicros;
+            _baselineMicros = Double.isNaN(baseline) ? p99 : baseline + BASELINE_WEIGHT * (p99 - baseline);
+        }
+
+        Window next = new Window(now);
+        _previous = completed;
+        _current = next;
+        return next;
+    }
+
+    private static double percentileMicros(long[] counts, long total, double percentile) {
+
+        if (total == 0)
+        {
+            return Double.NaN;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++)
+        {
+            seen += counts[i];
+            if (seen >= target)
+            {
+                return upperMicros(i);
+            }
+        }
+
+        return upperMicros(counts.length - 1);
+    }
+
+    static int bucketFor(long micros) {
+
+        if (micros < SUB_BUCKETS)
+        {
+            return (int) micros;
+        }
+
+        int msb = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = msb - SUB_BUCKET_BITS;
+        return (msb - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /** The largest value counted in the bucket */
+    static long upperMicros(int bucket) {
+
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static double toMillis(double micros) {
+        return micros / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyTracker{" +
+                "_count=" + getCount() +
+                ", _p99Millis=" + getPercentileMillis(0.99) +
+                ", _baselineMillis=" + getBaselineMillis() +
+                ", _regressed=" + isRegressed() +
+                '}';
+    }
+
+    /** Counts for one window */
+    private static class Window {
+
+        private final long _startNanos;
+        private final AtomicLongArray _counts = new AtomicLongArray(BUCKET_COUNT);
+
+        private Window(long startNanos) {
+            _startNanos = startNanos;
+        }
+
+        private long addTo(long[] counts) {
+
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++)
+            {
+                long count = _counts.get(i);
+                counts[i] += count;
+                total += count;
+            }
+
+            return total;
+        }
+
+        private long count() {
+
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++)
+            {
+                total += _counts.get(i);
+            }
+
+            return total;
+        }
+    }
+}
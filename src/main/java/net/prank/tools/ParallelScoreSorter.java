@@ -0,0 +1,287 @@
+package net.prank.tools;
+
+import net.prank.core.Result;
+import net.prank.core.Scorable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts large scored collections on a caller supplied executor. The collection is
+ * split into chunks that extract their ScoreSorter keys and sort their indices in
+ * parallel, then sorted runs are merged pairwise in parallel rounds. The list is
+ * reordered once and, optionally, each Result position is updated in parallel the
+ * same way ScoringTool.updateSortedCollectionIndices() does.
+ * <p>
+ * The calling thread works on one chunk itself and then waits for the rest, so do
+ * not pass a saturated executor that the caller is itself running on. Collections
+ * below the sequential threshold are sorted on the calling thread. The order is
+ * identical to ScoreSorter.sort() (stable).
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ParallelScoreSorter {
+
+    /** Below this size the thread hand-off costs more than it saves */
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8192;
+
+    private final ScoreSorter _sorter;
+    private final ExecutorService _executor;
+    private final int _parallelism;
+    private final int _sequentialThreshold;
+
+    /**
+     * Sort by the tally of all cards (ORIGINAL), like the default ScoreComparator
+     */
+    public ParallelScoreSorter(ExecutorService executor) {
+        this(new ScoreSorter.Builder().byTally(Result.ResultScoreType.ORIGINAL).build(), executor,
+             Runtime.getRuntime().availableProcessors(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * @param sorter The sort keys
+     * @param executor Runs the chunk tasks
+     * @param parallelism The number of chunks (tasks) per phase
+     * @param sequentialThreshold Sort on the calling thread below this size
+     */
+    public ParallelScoreSorter(ScoreSorter sorter, ExecutorService executor, int parallelism,
+                               int sequentialThreshold) {
+
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("Parallelism Must Be Positive: " + parallelism);
+        }
+
+        _sorter = sorter;
+        _executor = executor;
+        _parallelism = parallelism;
+        _sequentialThreshold = sequentialThreshold;
+    }
+
+    /**
+     * Sort 'scorables' in place
+     * @return The pre-sort list index of the object now at each position
+     */
+    public <T extends Scorable> int[] sort(List<T> scorables) {
+
+        int size = scorables.size();
+        if (size < _sequentialThreshold || _parallelism == 1)
+        {
+            return _sorter.sort(scorables);
+        }
+
+        List<T> source = scorables instanceof RandomAccess ? scorables : new ArrayList<>(scorables);
+        int[] order = sortedOrder(source);
+        reorder(scorables, new ArrayList<>(source), order);
+        return order;
+    }
+
+    /**
+     * Sort in place, then update each Result's position with its sorted index
+     * @return The pre-sort list index of the object now at each position
+     */
+    public <T extends Scorable> int[] sortAndUpdatePositions(List<T> scorables) {
+
+        int[] order = sort(scorables);
+        updatePositions(scorables);
+        return order;
+    }
+
+    /**
+     * Parallel version of ScoringTool.updateSortedCollectionIndices()
+     * @param sortedScorables The scored objects in sorted order
+     */
+    public void updatePositions(final List<? extends Scorable> sortedScorables) {
+
+        if (sortedScorables.size() < _sequentialThreshold || !(sortedScorables instanceof RandomAccess))
+        {
+            updatePositions(sortedScorables, 0, sortedScorables.size());
+            return;
+        }
+
+        runChunks(sortedScorables.size(), (from, to) -> updatePositions(sortedScorables, from, to));
+    }
+
+    private int[] sortedOrder(final List<? extends Scorable> scorables) {
+
+        final int size = scorables.size();
+        final double[][] keys = new double[_sorter.getKeyCount()][size];
+        final int[] order = IndexSort.identity(size);
+        final int[] buffer = new int[size];
+        final IndexSort.IndexComparator comparator = (one, two) -> _sorter.compare(keys, one, two);
+
+        final int[] bounds = runChunks(size, (from, to) -> {
+
+            _sorter.extractKeys(scorables, keys, from, to);
+            IndexSort.sort(order, from, to, buffer, comparator);
+        });
+
+        // Merge neighboring runs until one remains, alternating between arrays
+        int[] runs = bounds;
+        int[] source = order;
+        int[] target = buffer;
+
+        while (runs.length > 2)
+        {
+            final int[] currentRuns = runs;
+            final int[] from = source;
+            final int[] to = target;
+            List<Runnable> merges = new ArrayList<>();
+
+            for (int run = 0; run + 1 < currentRuns.length - 1; run += 2)
+            {
+                final int start = currentRuns[run];
+                final int middle = currentRuns[run + 1];
+                final int end = currentRuns[run + 2];
+                merges.add(() -> IndexSort.merge(from, start, middle, end, to, start, comparator));
+            }
+
+            // An odd run out is copied as is
+            if ((currentRuns.length - 1) % 2 == 1)
+            {
+                final int start = currentRuns[currentRuns.length - 2];
+                final int end = currentRuns[currentRuns.length - 1];
+                merges.add(() -> System.arraycopy(from, start, to, start, end - start));
+            }
+
+            runAll(merges);
+            runs = mergedBounds(currentRuns);
+            source = to;
+            target = from;
+        }
+
+        return source;
+    }
+
+    /** Run [from, to) chunks in parallel, returns the chunk boundaries */
+    private int[] runChunks(int size, ChunkTask task) {
+
+        int chunks = Math.max(1, Math.min(_parallelism, size));
+        final int[] bounds = new int[chunks + 1];
+        for (int i = 0; i <= chunks; i++)
+        {
+            bounds[i] = (int) ((long) size * i / chunks);
+        }
+
+        List<Runnable> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++)
+        {
+            final int from = bounds[i];
+            final int to = bounds[i + 1];
+            tasks.add(() -> task.run(from, to));
+        }
+
+        runAll(tasks);
+        return bounds;
+    }
+
+    /** Submit all but the first task, run the first on this thread, then wait */
+    private void runAll(List<Runnable> tasks) {
+
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        for (int i = 1; i < tasks.size(); i++)
+        {
+            futures.add(_executor.submit(tasks.get(i)));
+        }
+
+        tasks.get(0).run();
+
+        try
+        {
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted While Sorting", ie);
+        }
+        catch (ExecutionException ee)
+        {
+            throw new IllegalStateException("Parallel Sort Task Failed", ee.getCause());
+        }
+    }
+
+    /** Every other boundary, keeping the end */
+    private static int[] mergedBounds(int[] bounds) {
+
+        int runs = bounds.length - 1;
+        int mergedRuns = (runs + 1) / 2;
+        int[] merged = new int[mergedRuns + 1];
+
+        for (int i = 0; i < mergedRuns; i++)
+        {
+            merged[i] = bounds[i * 2];
+        }
+
+        merged[mergedRuns] = bounds[runs];
+        return merged;
+    }
+
+    private <T> void reorder(List<T> list, final List<T> original, final int[] order) {
+
+        if (list instanceof RandomAccess)
+        {
+            runChunks(order.length, (from, to) -> {
+
+                for (int i = from; i < to; i++)
+                {
+                    list.set(i, original.get(order[i]));
+                }
+            });
+
+            return;
+        }
+
+        ListIterator<T> iterator = list.listIterator();
+        for (int index : order)
+        {
+            iterator.next();
+            iterator.set(original.get(index));
+        }
+    }
+
+    private static void updatePositions(List<? extends Scorable> sortedScorables, int from, int to) {
+
+        for (int i = from; i < to; i++)
+        {
+            Scorable scorable = sortedScorables.get(i);
+            if (scorable == null || scorable.getScoreSummary() == null)
+            {
+                continue;
+            }
+
+            for (Result result : scorable.getScoreSummary().getResults().values())
+            {
+                if (result != null && result.getPosition() != null)
+                {
+                    result.getPosition().updateWithCurrentIndex(i);
+                }
+            }
+        }
+    }
+
+    private interface ChunkTask {
+        public void run(int from, int to);
+    }
+}
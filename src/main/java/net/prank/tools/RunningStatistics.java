@@ -0,0 +1,177 @@
+package net.prank.tools;
+
+import net.prank.core.Statistics;
+
+import java.math.BigDecimal;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A single pass, mergeable statistics sketch (count, min, max, average and
+ * variance via Welford). Use it when the values to score do not fit in memory
+ * or should not be copied into an intermediate List for NumericTools.
+ *
+ * Two sketches built over separate partitions (threads, Spliterator splits, files)
+ * may be combined with merge(). NaN values are ignored so a missing value can be
+ * represented without boxing.
+ *
+ * Works directly with DoubleStream:
+ * RunningStatistics stats = values.collect(RunningStatistics::new, RunningStatistics::accept,
+ *                                          RunningStatistics::merge);
+ *
+ * Not thread safe, use one per thread and merge().
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class RunningStatistics
+    implements DoubleConsumer {
+
+    private long _count;
+    private double _min = Double.POSITIVE_INFINITY;
+    private double _max = Double.NEGATIVE_INFINITY;
+    private double _mean;
+    /** Sum of squared differences from the current mean */
+    private double _m2;
+
+    /**
+     * Add a value to the sketch, NaN is ignored
+     * @param value The value to add
+     */
+    public void add(double value) {
+
+        if (Double.isNaN(value))
+        {
+            return;
+        }
+
+        _count++;
+        double delta = value - _mean;
+        _mean += delta / _count;
+        _m2 += delta * (value - _mean);
+
+        if (value < _min)
+        {
+            _min = value;
+        }
+
+        if (value > _max)
+        {
+            _max = value;
+        }
+    }
+
+    @Override
+    public void accept(double value) {
+        add(value);
+    }
+
+    /**
+     * Combine another sketch into this one (Chan et al parallel variance).
+     * @param other The sketch for another partition of values
+     * @return this
+     */
+    public RunningStatistics merge(RunningStatistics other) {
+
+        if (other == null || other._count == 0)
+        {
+            return this;
+        }
+
+        if (_count == 0)
+        {
+            _count = other._count;
+            _min = other._min;
+            _max = other._max;
+            _mean = other._mean;
+            _m2 = other._m2;
+            return this;
+        }
+
+        long count = _count + other._count;
+        double delta = other._mean - _mean;
+        _mean += delta * other._count / count;
+        _m2 += other._m2 + delta * delta * ((double) _count * other._count / count);
+        _count = count;
+        _min = Math.min(_min, other._min);
+        _max = Math.max(_max, other._max);
+
+        return this;
+    }
+
+    public long getCount() {
+        return _count;
+    }
+
+    /** @return The minimum or NaN if no values were added */
+    public double getMin() {
+        return _count > 0 ? _min : Double.NaN;
+    }
+
+    /** @return The maximum or NaN if no values were added */
+    public double getMax() {
+        return _count > 0 ? _max : Double.NaN;
+    }
+
+    /** @return The average or NaN if no values were added */
+    public double getAverage() {
+        return _count > 0 ? _mean : Double.NaN;
+    }
+
+    /**
+     * Sample variance (n - 1), consistent with NumericTools.standardDeviation()
+     * @return 0.0 for less than 2 values, otherwise the sample variance
+     */
+    public double getVariance() {
+        return _count < 2 ? 0.0 : _m2 / (_count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Mean and median deviations cannot be computed in a single pass, so
+     * those remain null.
+     *
+     * @return A Statistics object for a Result, or null if no values were added
+     */
+    public Statistics toStatistics() {
+
+        if (_count == 0)
+        {
+            return null;
+        }
+
+        Statistics.Builder builder = new Statistics.Builder();
+        builder.setMin(BigDecimal.valueOf(_min));
+        builder.setMax(BigDecimal.valueOf(_max));
+        builder.setSampleSize((int) Math.min(_count, Integer.MAX_VALUE));
+        builder.setAverage(BigDecimal.valueOf(_mean));
+        builder.setStandardDeviation(BigDecimal.valueOf(getStandardDeviation()));
+
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return "RunningStatistics{" +
+                "_count=" + _count +
+                ", _min=" + getMin() +
+                ", _max=" + getMax() +
+                ", _mean=" + getAverage() +
+                ", _standardDeviation=" + getStandardDeviation() +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package net.prank.tools;
+
+/**
+ * Combines the per card scores of one ScoreSummary into a single tally. Scores and
+ * weights are in CardTally card order, a NaN score means that card has no Result.
+ * Implementations must be stateless so one instance can be shared across threads,
+ * and must not keep the arrays, CardTally reuses them between calls.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public interface ScoreAggregator {
+
+    /**
+     * @param scores The card scores, NaN where a card is missing
+     * @param weights The card weights
+     * @return The tally, or NaN if no card has a score
+     */
+    public double aggregate(double[] scores, double[] weights);
+
+    /**
+     * Orders two sets of card scores highest first, consistent with ScoreComparator.
+     * The default compares aggregate() with missing (NaN) tallies last.
+     *
+     * @return negative if 'one' should sort before 'two'
+     */
+    public default int compare(double[] one, double[] two, double[] weights) {
+        return compareDescending(aggregate(one, weights), aggregate(two, weights));
+    }
+
+    /** Highest first, NaN last */
+    public static int compareDescending(double one, double two) {
+
+        boolean oneMissing = Double.isNaN(one);
+        boolean twoMissing = Double.isNaN(two);
+
+        if (oneMissing || twoMissing)
+        {
+            return oneMissing == twoMissing ? 0 : (oneMissing ? 1 : -1);
+        }
+
+        return Double.compare(two, one);
+    }
+}
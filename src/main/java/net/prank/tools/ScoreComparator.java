@@ -2,9 +2,11 @@ package net.prank.tools;
 
 import net.prank.core.Result;
 import net.prank.core.Scorable;
+import net.prank.core.ScoreCardRegistry;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
@@ -35,6 +37,8 @@ public class ScoreComparator
     private final Set<String> _scoreCardNames;
     /** The type of score to check: ORIGINAL, ADJUSTED, or NORMALIZED */
     private final Result.ResultScoreType _scoreType;
+    /** '_scoreCardNames' as ScoreCardRegistry ordinals, rebuilt after deserialization */
+    private transient BitSet _scoreCardOrdinals;
 
     public ScoreComparator() {
         this(new HashSet<>(), Result.ResultScoreType.ORIGINAL);
@@ -79,8 +83,9 @@ public class ScoreComparator
         }
         else
         {
-            score1 = one.getScoreSummary().tallyScoreFor(_scoreCardNames, _scoreType);
-            score2 = two.getScoreSummary().tallyScoreFor(_scoreCardNames, _scoreType);
+            BitSet ordinals = getScoreCardOrdinals();
+            score1 = one.getScoreSummary().tallyScoreFor(ordinals, _scoreType);
+            score2 = two.getScoreSummary().tallyScoreFor(ordinals, _scoreType);
         }
 
         if (score1 == null && score2 == null)
@@ -98,5 +103,16 @@ public class ScoreComparator
 
         return score2.compareTo(score1);
     }
-}
 
+    private BitSet getScoreCardOrdinals() {
+
+        BitSet ordinals = _scoreCardOrdinals;
+        if (ordinals == null)
+        {
+            ordinals = ScoreCardRegistry.toBitSet(_scoreCardNames);
+            _scoreCardOrdinals = ordinals;
+        }
+
+        return ordinals;
+    }
+}
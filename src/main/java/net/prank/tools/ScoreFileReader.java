@@ -0,0 +1,143 @@
+package net.prank.tools;
+
+import net.prank.core.ScoreColumnStore;
+import net.prank.core.Statistics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory maps a file written by ScoreFileWriter and exposes it as a read only
+ * ScoreColumnStore. Column data is not copied onto the heap; use the primitive
+ * getters for bulk work or ScoreColumnStore.getScoreSummary()/scorable() for
+ * ScoreSummary views of individual rows.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoreFileReader {
+
+    /**
+     * @param file A file written by ScoreFileWriter
+     * @return A read only store backed by the mapped file
+     * @throws IOException If the file cannot be read or is not a score file
+     */
+    public ScoreColumnStore read(Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer fixed = readFully(channel, 0, 4 * Integer.BYTES);
+            if (fixed.getInt() != ScoreFileWriter.MAGIC)
+            {
+                throw new IOException("Not A Prank Score File: " + file);
+            }
+
+            int version = fixed.getInt();
+            if (version != ScoreFileWriter.VERSION)
+            {
+                throw new IOException("Unsupported Score File Version: " + version);
+            }
+
+            int rows = fixed.getInt();
+            int cardCount = fixed.getInt();
+            long position = fixed.capacity();
+
+            // Variable length strings, read progressively
+            ByteBuffer length = readFully(channel, position, Integer.BYTES);
+            int nameLength = length.getInt();
+            String name = new String(readFully(channel, position + Integer.BYTES, nameLength).array(),
+                                     StandardCharsets.UTF_8);
+            position += Integer.BYTES + nameLength;
+
+            List<String> cardNames = new ArrayList<>(cardCount);
+            for (int card = 0; card < cardCount; card++)
+            {
+                int cardLength = readFully(channel, position, Integer.BYTES).getInt();
+                cardNames.add(new String(readFully(channel, position + Integer.BYTES, cardLength).array(),
+                                         StandardCharsets.UTF_8));
+                position += Integer.BYTES + cardLength;
+            }
+
+            ByteBuffer statisticsBlock = readFully(channel, position, cardCount * ScoreFileWriter.STATISTICS_BYTES);
+            position = ScoreFileWriter.align((int) (position + statisticsBlock.capacity()));
+
+            long blockBytes = ScoreColumnStore.blockBytes(rows);
+            if (channel.size() < position + cardCount * blockBytes)
+            {
+                throw new IOException("Truncated Score File: " + file);
+            }
+
+            ByteBuffer[] blocks = new ByteBuffer[cardCount];
+            for (int card = 0; card < cardCount; card++)
+            {
+                blocks[card] = channel.map(FileChannel.MapMode.READ_ONLY, position + card * blockBytes, blockBytes);
+            }
+
+            ScoreColumnStore store = ScoreColumnStore.wrap(name, cardNames, rows, blocks);
+            for (int card = 0; card < cardCount; card++)
+            {
+                store.setStatistics(card, readStatistics(statisticsBlock));
+            }
+
+            return store;
+        }
+    }
+
+    private Statistics readStatistics(ByteBuffer block) {
+
+        boolean present = block.getInt() == 1;
+        int sampleSize = block.getInt();
+        BigDecimal min = toBigDecimal(block.getDouble());
+        BigDecimal max = toBigDecimal(block.getDouble());
+        BigDecimal average = toBigDecimal(block.getDouble());
+        BigDecimal meanDeviation = toBigDecimal(block.getDouble());
+        BigDecimal medianDeviation = toBigDecimal(block.getDouble());
+        BigDecimal standardDeviation = toBigDecimal(block.getDouble());
+
+        if (!present)
+        {
+            return null;
+        }
+
+        return new Statistics(min, max, sampleSize, average, meanDeviation, medianDeviation, standardDeviation);
+    }
+
+    private ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected End Of Score File");
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private static BigDecimal toBigDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+}
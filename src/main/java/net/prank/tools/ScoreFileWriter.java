@@ -0,0 +1,191 @@
+package net.prank.tools;
+
+import net.prank.core.Result;
+import net.prank.core.Scorable;
+import net.prank.core.ScoreColumnStore;
+import net.prank.core.Statistics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes score results in a compact, little endian, columnar binary format that
+ * ScoreFileReader memory maps without copying. This is far smaller and faster than
+ * java.io.Serializable or the ScoreFormatter text dumps for archiving millions of rows.
+ * <p>
+ * Layout:
+ * header     : magic (int), version (int), row count (int), card count (int)
+ * name       : length (int), UTF-8 bytes
+ * dictionary : per card, length (int), UTF-8 bytes
+ * statistics : per card, present (int), sample size (int),
+ *              min:max:average:mean deviation:median deviation:standard deviation (double, NaN for null)
+ * padding    : to an 8 byte boundary
+ * columns    : per card, a ScoreColumnStore block (see ScoreColumnStore.ROW_BYTES)
+ * <p>
+ * Statistics are stored as doubles, so BigDecimal precision beyond a double is not kept.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoreFileWriter {
+
+    /** "PRNK" */
+    public static final int MAGIC = 0x4B4E5250;
+    public static final int VERSION = 1;
+    /** present, sample size, six doubles */
+    static final int STATISTICS_BYTES = 2 * Integer.BYTES + 6 * Double.BYTES;
+
+    /**
+     * Write every card column block of 'store' to 'file', replacing any existing file.
+     *
+     * @param file The destination file
+     * @param store The results to write
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Path file, ScoreColumnStore store) throws IOException {
+
+        ByteBuffer header = buildHeader(store);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            writeFully(channel, header);
+            for (int card = 0; card < store.getCardNames().size(); card++)
+            {
+                writeFully(channel, store.getBlock(card));
+            }
+        }
+    }
+
+    /**
+     * Convert the Results of each Scorable (row order) into columns and write them.
+     * The Statistics of the first Result found for each card are written as that
+     * card's statistics block.
+     *
+     * @param file The destination file
+     * @param name The name for ScoreSummary views when reading
+     * @param cardNames The cards to write, in ordinal order
+     * @param scorables The scored objects
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Path file, String name, List<String> cardNames, List<? extends Scorable> scorables)
+        throws IOException {
+
+        ScoreColumnStore store = new ScoreColumnStore(name, cardNames, scorables.size());
+        int row = 0;
+
+        for (Scorable scorable : scorables)
+        {
+            if (scorable != null && scorable.getScoreSummary() != null)
+            {
+                for (int card = 0; card < cardNames.size(); card++)
+                {
+                    Result result = scorable.getScoreSummary().getResultByScoreCard(cardNames.get(card));
+                    if (result != null && store.putResult(row, result) && store.getStatistics(card) == null)
+                    {
+                        store.setStatistics(card, result.getStatistics());
+                    }
+                }
+            }
+
+            row++;
+        }
+
+        write(file, store);
+    }
+
+    private ByteBuffer buildHeader(ScoreColumnStore store) {
+
+        List<String> cardNames = store.getCardNames();
+        byte[] name = toBytes(store.getName());
+        byte[][] cards = new byte[cardNames.size()][];
+
+        int size = 4 * Integer.BYTES + Integer.BYTES + name.length;
+        for (int card = 0; card < cards.length; card++)
+        {
+            cards[card] = toBytes(cardNames.get(card));
+            size += Integer.BYTES + cards[card].length;
+        }
+
+        size += cards.length * STATISTICS_BYTES;
+        size = align(size);
+
+        ByteBuffer header = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(store.getCapacity()).putInt(cards.length);
+        header.putInt(name.length).put(name);
+
+        for (byte[] card : cards)
+        {
+            header.putInt(card.length).put(card);
+        }
+
+        for (int card = 0; card < cards.length; card++)
+        {
+            putStatistics(header, store.getStatistics(card));
+        }
+
+        header.position(0);
+        return header;
+    }
+
+    private void putStatistics(ByteBuffer header, Statistics statistics) {
+
+        if (statistics == null)
+        {
+            header.putInt(0).putInt(0);
+            for (int i = 0; i < 6; i++)
+            {
+                header.putDouble(Double.NaN);
+            }
+
+            return;
+        }
+
+        header.putInt(1).putInt(statistics.getSampleSize());
+        header.putDouble(toDouble(statistics.getMin()));
+        header.putDouble(toDouble(statistics.getMax()));
+        header.putDouble(toDouble(statistics.getAverage()));
+        header.putDouble(toDouble(statistics.getMeanDeviation()));
+        header.putDouble(toDouble(statistics.getMedianDeviation()));
+        header.putDouble(toDouble(statistics.getStandardDeviation()));
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+    }
+
+    static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    private static byte[] toBytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,731 @@
+package net.prank.tools;
+
+import net.prank.core.Indices;
+import net.prank.core.Result;
+import net.prank.core.ScoreColumnStore;
+import net.prank.core.ScoreData;
+import net.prank.core.ScoreSummary;
+import net.prank.core.Statistics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads the ScoreFormatter dump formats (ScoreSummary, Result, Indices, ScoreData
+ * and Statistics) back into objects, or directly into ScoreColumnStore columns.
+ * Summaries are read one per line (see ScoreStreamFormatter) from a Reader or a
+ * memory mapped file.
+ * <p>
+ * Parsing works on a reused char buffer without regular expressions, split()
+ * or substrings. Numbers become BigDecimal (or double for columns) directly from
+ * the buffer. A scored value is returned as a Double if it is numeric, otherwise
+ * as the dumped String. Empty fields and "null" are read as null (NaN/-1 for columns).
+ * <p>
+ * The dump format is not escaped, so summary names must not contain ':' and card
+ * names and scored values must not contain ';'. Scored values may contain ','.
+ * <p>
+ * Not thread safe, use one instance per thread.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoreParser {
+
+    private static final char INTERNAL_DELIM = ScoreFormatter.DEFAULT_INTERNAL_DELIM.charAt(0);
+    private static final char SEPARATOR = ScoreFormatter.DEFAULT_SEPARATOR.charAt(0);
+    private static final char CARD_SEPARATOR = ScoreFormatter.DEFAULT_CARD_SEPARATOR.charAt(0);
+    private static final char NEWLINE = DELIM.NEWLINE.get().charAt(0);
+    private static final char[] NULL = "null".toCharArray();
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                                                   1e12, 1e13, 1e14, 1e15};
+    /** Mapped regions are at most 1 GB */
+    private static final long MAX_REGION = 1L << 30;
+
+    private char[] _line = new char[256];
+    private final char[] _chunk = new char[8192];
+    private final CharsetDecoder _decoder = StandardCharsets.UTF_8.newDecoder()
+                                                                  .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                  .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    /** Field cursor for the current parse */
+    private int _position;
+
+    /**
+     * @param dump The output of ScoreFormatter.dumpScoreSummary()
+     * @return A ScoreSummary with a Result for each dumped ScoreCard
+     */
+    public ScoreSummary parseScoreSummary(CharSequence dump) {
+        return parseSummary(_line, 0, load(dump));
+    }
+
+    /**
+     * @param dump The output of ScoreFormatter.dumpResult()
+     * @return The Result or null for "null"
+     */
+    public Result parseResult(CharSequence dump) {
+        return parseResult(_line, 0, load(dump));
+    }
+
+    /**
+     * @param dump The output of ScoreFormatter.dumpIndices()
+     * @return The Indices or null for "null"
+     */
+    public Indices parseIndices(CharSequence dump) {
+        return parseIndices(_line, 0, load(dump));
+    }
+
+    /**
+     * @param dump The output of ScoreFormatter.dumpScoreData()
+     * @return The ScoreData or null for "null"
+     */
+    public ScoreData parseScoreData(CharSequence dump) {
+        return parseScoreData(_line, 0, load(dump));
+    }
+
+    /**
+     * @param dump The output of ScoreFormatter.dumpStatistics()
+     * @return The Statistics or null for "null"
+     */
+    public Statistics parseStatistics(CharSequence dump) {
+        return parseStatistics(_line, 0, load(dump));
+    }
+
+    /**
+     * Parse one ScoreSummary per line, blank lines are skipped
+     * @param reader The source, which is not closed
+     * @param consumer Receives each ScoreSummary
+     * @return The number of summaries read
+     * @throws IOException From 'reader'
+     */
+    public long parse(Reader reader, final Consumer<ScoreSummary> consumer) throws IOException {
+
+        final long[] count = new long[1];
+        forEachLine(reader, (chars, start, end) -> {
+            consumer.accept(parseSummary(chars, start, end));
+            count[0]++;
+        });
+
+        return count[0];
+    }
+
+    /**
+     * Memory map 'file' and parse one ScoreSummary per line
+     * @param file A file of dumped summaries
+     * @param consumer Receives each ScoreSummary
+     * @return The number of summaries read
+     * @throws IOException If the file cannot be mapped
+     */
+    public long parse(Path file, final Consumer<ScoreSummary> consumer) throws IOException {
+
+        final long[] count = new long[1];
+        forEachLine(file, (chars, start, end) -> {
+            consumer.accept(parseSummary(chars, start, end));
+            count[0]++;
+        });
+
+        return count[0];
+    }
+
+    /**
+     * Parse dumped summaries straight into primitive columns without creating any
+     * Results. Line 'n' is stored as row 'n', cards that are not part of 'store'
+     * are skipped. The first Statistics found for each card are kept.
+     *
+     * @param reader The source, which is not closed
+     * @param store The destination columns
+     * @return The number of rows read
+     * @throws IOException From 'reader'
+     */
+    public int parseInto(Reader reader, final ScoreColumnStore store) throws IOException {
+
+        final int[] row = new int[1];
+        forEachLine(reader, (chars, start, end) -> {
+            parseColumns(chars, start, end, store, row[0]);
+            row[0]++;
+        });
+
+        return row[0];
+    }
+
+    /** Same as parseInto(Reader, ScoreColumnStore) for a memory mapped file */
+    public int parseInto(Path file, final ScoreColumnStore store) throws IOException {
+
+        final int[] row = new int[1];
+        forEachLine(file, (chars, start, end) -> {
+            parseColumns(chars, start, end, store, row[0]);
+            row[0]++;
+        });
+
+        return row[0];
+    }
+
+    ScoreSummary parseSummary(char[] c, int start, int end) {
+
+        int nameEnd = indexOf(c, start, end, INTERNAL_DELIM);
+        if (nameEnd < 0)
+        {
+            throw new IllegalArgumentException("Missing ScoreSummary Name: " + new String(c, start, end - start));
+        }
+
+        ScoreSummary summary = new ScoreSummary(new String(c, start, nameEnd - start));
+        int position = nameEnd + 1;
+
+        while (position < end)
+        {
+            int resultEnd = indexOf(c, position, end, CARD_SEPARATOR);
+            if (resultEnd < 0)
+            {
+                resultEnd = end;
+            }
+
+            Result result = parseResult(c, position, resultEnd);
+            if (result != null)
+            {
+                summary.addResult(result.getScoreCardName(), result);
+            }
+
+            position = resultEnd + 1;
+        }
+
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    Result parseResult(char[] c, int start, int end) {
+
+        if (isNull(c, start, end))
+        {
+            return null;
+        }
+
+        int cardEnd = indexOf(c, start, end, SEPARATOR);
+        int statisticsStart = lastIndexOf(c, cardEnd + 1, end, SEPARATOR);
+        int scoreDataStart = lastIndexOf(c, cardEnd + 1, statisticsStart, SEPARATOR);
+        int indicesStart = lastIndexOf(c, cardEnd + 1, scoreDataStart, SEPARATOR);
+
+        if (cardEnd < 0 || indicesStart < 0)
+        {
+            throw new IllegalArgumentException("Invalid Result: " + new String(c, start, end - start));
+        }
+
+        String cardName = new String(c, start, cardEnd - start);
+        Object scoredValue = parseScoredValue(c, cardEnd + 1, indicesStart);
+        Indices indices = parseIndices(c, indicesStart + 1, scoreDataStart);
+        ScoreData scoreData = parseScoreData(c, scoreDataStart + 1, statisticsStart);
+        Statistics statistics = parseStatistics(c, statisticsStart + 1, end);
+
+        return new Result(cardName, scoredValue, indices, scoreData, statistics);
+    }
+
+    Indices parseIndices(char[] c, int start, int end) {
+
+        if (isNull(c, start, end) || start >= end)
+        {
+            return null;
+        }
+
+        _position = start;
+        Indices indices = new Indices(nextInt(c, end));
+        while (_position < end)
+        {
+            indices.updateWithCurrentIndex(nextInt(c, end));
+        }
+
+        return indices;
+    }
+
+    ScoreData parseScoreData(char[] c, int start, int end) {
+
+        if (isNull(c, start, end))
+        {
+            return null;
+        }
+
+        _position = start;
+        BigDecimal score = nextDecimal(c, end);
+        BigDecimal adjusted = nextDecimal(c, end);
+        BigDecimal normalized = nextDecimal(c, end);
+        BigDecimal minPoints = nextDecimal(c, end);
+        BigDecimal maxPoints = nextDecimal(c, end);
+        int buckets = nextInt(c, end);
+
+        return new ScoreData(score, adjusted, normalized, buckets, maxPoints, minPoints);
+    }
+
+    Statistics parseStatistics(char[] c, int start, int end) {
+
+        if (isNull(c, start, end))
+        {
+            return null;
+        }
+
+        _position = start;
+        BigDecimal min = nextDecimal(c, end);
+        BigDecimal max = nextDecimal(c, end);
+        int sampleSize = nextInt(c, end);
+        BigDecimal average = nextDecimal(c, end);
+        BigDecimal meanDeviation = nextDecimal(c, end);
+        BigDecimal medianDeviation = nextDecimal(c, end);
+        BigDecimal standardDeviation = nextDecimal(c, end);
+
+        return new Statistics(min, max, sampleSize, average, meanDeviation, medianDeviation, standardDeviation);
+    }
+
+    /** Same layout as parseSummary(), but only primitives are extracted */
+    private void parseColumns(char[] c, int start, int end, ScoreColumnStore store, int row) {
+
+        int position = indexOf(c, start, end, INTERNAL_DELIM) + 1;
+        if (position == 0)
+        {
+            throw new IllegalArgumentException("Missing ScoreSummary Name: " + new String(c, start, end - start));
+        }
+
+        while (position < end)
+        {
+            int resultEnd = indexOf(c, position, end, CARD_SEPARATOR);
+            if (resultEnd < 0)
+            {
+                resultEnd = end;
+            }
+
+            parseResultColumns(c, position, resultEnd, store, row);
+            position = resultEnd + 1;
+        }
+    }
+
+    private void parseResultColumns(char[] c, int start, int end, ScoreColumnStore store, int row) {
+
+        if (isNull(c, start, end))
+        {
+            return;
+        }
+
+        int cardEnd = indexOf(c, start, end, SEPARATOR);
+        int card = cardOrdinal(store, c, start, cardEnd);
+        if (card < 0)
+        {
+            return;
+        }
+
+        int statisticsStart = lastIndexOf(c, cardEnd + 1, end, SEPARATOR);
+        int scoreDataStart = lastIndexOf(c, cardEnd + 1, statisticsStart, SEPARATOR);
+        int indicesStart = lastIndexOf(c, cardEnd + 1, scoreDataStart, SEPARATOR);
+
+        if (indicesStart < 0)
+        {
+            throw new IllegalArgumentException("Invalid Result: " + new String(c, start, end - start));
+        }
+
+        double value = parseDouble(c, cardEnd + 1, indicesStart);
+        int originalIndex = -1;
+        int lastIndex = -1;
+
+        if (!isNull(c, indicesStart + 1, scoreDataStart) && indicesStart + 1 < scoreDataStart)
+        {
+            _position = indicesStart + 1;
+            originalIndex = nextInt(c, scoreDataStart);
+            lastIndex = originalIndex;
+            int lastDelim = lastIndexOf(c, indicesStart + 1, scoreDataStart, INTERNAL_DELIM);
+            if (lastDelim > -1)
+            {
+                _position = lastDelim + 1;
+                lastIndex = nextInt(c, scoreDataStart);
+            }
+        }
+
+        double score = Double.NaN;
+        double adjusted = Double.NaN;
+        double normalized = Double.NaN;
+
+        if (!isNull(c, scoreDataStart + 1, statisticsStart))
+        {
+            _position = scoreDataStart + 1;
+            score = nextDouble(c, statisticsStart);
+            adjusted = nextDouble(c, statisticsStart);
+            normalized = nextDouble(c, statisticsStart);
+        }
+
+        store.setResult(card, row, value, score, adjusted, normalized, originalIndex);
+        store.setLastIndex(card, row, lastIndex);
+
+        if (store.getStatistics(card) == null)
+        {
+            store.setStatistics(card, parseStatistics(c, statisticsStart + 1, end));
+        }
+    }
+
+    private Object parseScoredValue(char[] c, int start, int end) {
+
+        if (isNull(c, start, end))
+        {
+            return null;
+        }
+
+        double value = parseDouble(c, start, end);
+        if (Double.isNaN(value))
+        {
+            return new String(c, start, end - start);
+        }
+
+        // Keep whole numbers (ex: "20") as Integer/Long so they dump the same way
+        if (indexOf(c, start, end, '.') < 0 && indexOf(c, start, end, 'E') < 0 && value == Math.rint(value)
+            && Math.abs(value) < (double) Long.MAX_VALUE)
+        {
+            long whole = (long) value;
+            return whole == (int) whole ? (Object) (int) whole : (Object) whole;
+        }
+
+        return value;
+    }
+
+    private BigDecimal nextDecimal(char[] c, int end) {
+
+        int fieldEnd = fieldEnd(c, end);
+        BigDecimal value = fieldEnd > _position ? new BigDecimal(c, _position, fieldEnd - _position) : null;
+        _position = fieldEnd + 1;
+        return value;
+    }
+
+    private double nextDouble(char[] c, int end) {
+
+        int fieldEnd = fieldEnd(c, end);
+        double value = parseDouble(c, _position, fieldEnd);
+        _position = fieldEnd + 1;
+        return value;
+    }
+
+    private int nextInt(char[] c, int end) {
+
+        int fieldEnd = fieldEnd(c, end);
+        int value = 0;
+        boolean negative = false;
+
+        for (int i = _position; i < fieldEnd; i++)
+        {
+            char ch = c[i];
+            if (ch == '-' && i == _position)
+            {
+                negative = true;
+            }
+            else if (ch >= '0' && ch <= '9')
+            {
+                value = value * 10 + (ch - '0');
+            }
+            else
+            {
+                throw new NumberFormatException("Invalid Integer: " + new String(c, _position, fieldEnd - _position));
+            }
+        }
+
+        _position = fieldEnd + 1;
+        return negative ? -value : value;
+    }
+
+    private int fieldEnd(char[] c, int end) {
+
+        int fieldEnd = indexOf(c, _position, end, INTERNAL_DELIM);
+        return fieldEnd < 0 ? end : fieldEnd;
+    }
+
+    /**
+     * Plain decimals of up to 15 digits are exact as long / power of ten, anything
+     * else (exponents, long values) falls back to Double.parseDouble().
+     *
+     * @return The value or NaN for an empty field, "null" or a non numeric value
+     */
+    static double parseDouble(char[] c, int start, int end) {
+
+        if (start >= end || isNull(c, start, end))
+        {
+            return Double.NaN;
+        }
+
+        int i = start;
+        boolean negative = c[i] == '-';
+        if (negative || c[i] == '+')
+        {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+
+        for (; i < end; i++)
+        {
+            char ch = c[i];
+            if (ch >= '0' && ch <= '9')
+            {
+                mantissa = mantissa * 10 + (ch - '0');
+                digits++;
+                if (fractionDigits > -1)
+                {
+                    fractionDigits++;
+                }
+
+                if (digits > MAX_FAST_DIGITS)
+                {
+                    return parseDoubleSlow(c, start, end);
+                }
+            }
+            else if (ch == '.' && fractionDigits < 0)
+            {
+                fractionDigits = 0;
+            }
+            else
+            {
+                return parseDoubleSlow(c, start, end);
+            }
+        }
+
+        if (digits == 0)
+        {
+            return Double.NaN;
+        }
+
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static double parseDoubleSlow(char[] c, int start, int end) {
+
+        try
+        {
+            return Double.parseDouble(new String(c, start, end - start));
+        }
+        catch (NumberFormatException nfe)
+        {
+            return Double.NaN;
+        }
+    }
+
+    private static int cardOrdinal(ScoreColumnStore store, char[] c, int start, int end) {
+
+        int length = end - start;
+        for (int card = 0; card < store.getCardNames().size(); card++)
+        {
+            String name = store.getCardNames().get(card);
+            if (name.length() != length)
+            {
+                continue;
+            }
+
+            boolean matches = true;
+            for (int i = 0; i < length && matches; i++)
+            {
+                matches = name.charAt(i) == c[start + i];
+            }
+
+            if (matches)
+            {
+                return card;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isNull(char[] c, int start, int end) {
+
+        if (end - start != NULL.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < NULL.length; i++)
+        {
+            if (c[start + i] != NULL[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int indexOf(char[] c, int start, int end, char ch) {
+
+        for (int i = start; i < end; i++)
+        {
+            if (c[i] == ch)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int lastIndexOf(char[] c, int start, int end, char ch) {
+
+        for (int i = end - 1; i >= start; i--)
+        {
+            if (c[i] == ch)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /** Copy a CharSequence into the reused line buffer */
+    private int load(CharSequence dump) {
+
+        int length = dump.length();
+        ensureLine(length);
+        for (int i = 0; i < length; i++)
+        {
+            _line[i] = dump.charAt(i);
+        }
+
+        return length;
+    }
+
+    private void ensureLine(int length) {
+
+        if (length > _line.length)
+        {
+            char[] line = new char[Math.max(length, _line.length * 2)];
+            System.arraycopy(_line, 0, line, 0, _line.length);
+            _line = line;
+        }
+    }
+
+    private void forEachLine(Reader reader, LineHandler handler) throws IOException {
+
+        int length = 0;
+        int read;
+
+        while ((read = reader.read(_chunk)) > 0)
+        {
+            for (int i = 0; i < read; i++)
+            {
+                char ch = _chunk[i];
+                if (ch == NEWLINE)
+                {
+                    handleLine(handler, length);
+                    length = 0;
+                }
+                else
+                {
+                    ensureLine(length + 1);
+                    _line[length++] = ch;
+                }
+            }
+        }
+
+        handleLine(handler, length);
+    }
+
+    private void forEachLine(Path file, LineHandler handler) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size)
+            {
+                long regionSize = Math.min(size - position, MAX_REGION);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                boolean last = position + regionSize >= size;
+                int lineStart = 0;
+
+                for (int i = 0; i < regionSize; i++)
+                {
+                    if (region.get(i) == NEWLINE)
+                    {
+                        decodeLine(region, lineStart, i, handler);
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (last)
+                {
+                    decodeLine(region, lineStart, (int) regionSize, handler);
+                    position = size;
+                }
+                else if (lineStart == 0)
+                {
+                    throw new IOException("Line Exceeds Maximum Mapped Region: " + MAX_REGION);
+                }
+                else
+                {
+                    // Re-map from the start of the partial line
+                    position += lineStart;
+                }
+            }
+        }
+    }
+
+    /** Copy ASCII directly, otherwise decode UTF-8 */
+    private void decodeLine(ByteBuffer region, int start, int end, LineHandler handler) {
+
+        int length = end - start;
+        ensureLine(length);
+
+        for (int i = 0; i < length; i++)
+        {
+            byte b = region.get(start + i);
+            if (b < 0)
+            {
+                ByteBuffer bytes = region.duplicate();
+                bytes.limit(end);
+                bytes.position(start);
+
+                CharBuffer chars = CharBuffer.wrap(_line);
+                _decoder.reset();
+                _decoder.decode(bytes, chars, true);
+                _decoder.flush(chars);
+                handleLine(handler, chars.position());
+                return;
+            }
+
+            _line[i] = (char) b;
+        }
+
+        handleLine(handler, length);
+    }
+
+    private void handleLine(LineHandler handler, int length) {
+
+        if (length > 0 && _line[length - 1] == '\r')
+        {
+            length--;
+        }
+
+        if (length > 0)
+        {
+            handler.line(_line, 0, length);
+        }
+    }
+
+    /** A line of text within a reused buffer */
+    private interface LineHandler {
+        void line(char[] chars, int start, int end);
+    }
+}
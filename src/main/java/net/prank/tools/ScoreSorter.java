@@ -0,0 +1,336 @@
+package net.prank.tools;
+
+import net.prank.core.Indices;
+import net.prank.core.Result;
+import net.prank.core.Scorable;
+import net.prank.core.ScoreCardRegistry;
+import net.prank.core.ScoreSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorts Scorable objects by a chain of keys, for example the tally of cards A and B,
+ * then the score of card C, then the original index. Every key is extracted once per
+ * object into a primitive array, then indices are sorted with a stable merge sort,
+ * so ties keep a deterministic order and the list is only sorted once.
+ * <p>
+ * Scores sort highest first and the original index lowest first. A missing key
+ * (no matching Result, null Scorable or summary) sorts after any present value.
+ * <p>
+ * ScoreSorter sorter = new ScoreSorter.Builder()
+ *                          .byTally(cardsA, Result.ResultScoreType.ORIGINAL)
+ *                          .byCardScore(PriceScoreCard.NAME, Result.ResultScoreType.ORIGINAL)
+ *                          .byOriginalIndex()
+ *                          .build();
+ * sorter.sort(examples);
+ * <p>
+ * Immutable and thread safe.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoreSorter {
+
+    private final SortKey[] _keys;
+
+    private ScoreSorter(List<SortKey> keys) {
+        _keys = keys.toArray(new SortKey[0]);
+    }
+
+    /**
+     * Sort 'scorables' in place
+     * @param scorables The scored objects
+     * @return The pre-sort list index of the object now at each position
+     */
+    public <T extends Scorable> int[] sort(List<T> scorables) {
+
+        int[] order = sortedOrder(scorables);
+        reorder(scorables, order);
+        return order;
+    }
+
+    /**
+     * @param scorables The scored objects, not modified
+     * @return The list indices in sorted order
+     */
+    public int[] sortedOrder(List<? extends Scorable> scorables) {
+
+        double[][] keys = extractKeys(scorables);
+        int[] order = IndexSort.identity(scorables.size());
+        IndexSort.sort(order, (one, two) -> compare(keys, one, two));
+        return order;
+    }
+
+    /**
+     * Extract every key for every object, missing keys are NaN. Descending keys are
+     * negated so that all keys compare ascending.
+     *
+     * @return keys[key][list index]
+     */
+    public double[][] extractKeys(List<? extends Scorable> scorables) {
+
+        double[][] keys = new double[_keys.length][scorables.size()];
+        extractKeys(scorables, keys, 0, scorables.size());
+        return keys;
+    }
+
+    /**
+     * Extract keys for list indices [from, to) into an existing keys[key][index] array
+     */
+    public void extractKeys(List<? extends Scorable> scorables, double[][] keys, int from, int to) {
+
+        for (int i = from; i < to; i++)
+        {
+            Scorable scorable = scorables.get(i);
+            ScoreSummary summary = scorable != null ? scorable.getScoreSummary() : null;
+
+            for (int k = 0; k < _keys.length; k++)
+            {
+                keys[k][i] = _keys[k].extract(summary, i);
+            }
+        }
+    }
+
+    /**
+     * Compare two list indices by the extracted keys, in key order
+     */
+    public int compare(double[][] keys, int one, int two) {
+
+        for (double[] key : keys)
+        {
+            int comparison = compareAscending(key[one], key[two]);
+            if (comparison != 0)
+            {
+                return comparison;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * A comparator with the same ordering, for Collections.sort() and friends. This
+     * extracts keys on every comparison, prefer sort() for larger collections.
+     */
+    public Comparator<Scorable> comparator() {
+
+        return (one, two) -> {
+
+            ScoreSummary first = one != null ? one.getScoreSummary() : null;
+            ScoreSummary second = two != null ? two.getScoreSummary() : null;
+
+            for (SortKey key : _keys)
+            {
+                int comparison = compareAscending(key.extract(first, -1), key.extract(second, -1));
+                if (comparison != 0)
+                {
+                    return comparison;
+                }
+            }
+
+            return 0;
+        };
+    }
+
+    public int getKeyCount() {
+        return _keys.length;
+    }
+
+    /** Ascending with NaN (missing) last */
+    static int compareAscending(double one, double two) {
+
+        if (one < two)
+        {
+            return -1;
+        }
+
+        if (one > two)
+        {
+            return 1;
+        }
+
+        boolean oneMissing = one != one;
+        boolean twoMissing = two != two;
+        return oneMissing == twoMissing ? 0 : (oneMissing ? 1 : -1);
+    }
+
+    /** Rewrite the list so that position i holds the element previously at order[i] */
+    static <T> void reorder(List<T> list, int[] order) {
+
+        List<T> original = new ArrayList<>(list);
+        for (int i = 0; i < order.length; i++)
+        {
+            list.set(i, original.get(order[i]));
+        }
+    }
+
+    private enum KeyType {
+        TALLY,
+        CARD_TALLY,
+        ORIGINAL_INDEX
+    }
+
+    private static class SortKey {
+
+        private final KeyType _type;
+        /** null for a tally of all cards */
+        private final String[] _scoreCardNames;
+        /** -1 for a name that is not registered, which is looked up by name */
+        private final int[] _ordinals;
+        private final Result.ResultScoreType _scoreType;
+        private final CardTally _cardTally;
+
+        private SortKey(KeyType type, String[] scoreCardNames, Result.ResultScoreType scoreType,
+                        CardTally cardTally) {
+            _type = type;
+            _scoreCardNames = scoreCardNames;
+            _ordinals = scoreCardNames != null ? new int[scoreCardNames.length] : null;
+            _scoreType = scoreType;
+            _cardTally = cardTally;
+
+            for (int i = 0; _ordinals != null && i < _ordinals.length; i++)
+            {
+                _ordinals[i] = ScoreCardRegistry.find(scoreCardNames[i]);
+            }
+        }
+
+        /** The key, negated for descending scores, NaN if missing */
+        private double extract(ScoreSummary summary, int listIndex) {
+
+            if (summary == null)
+            {
+                return Double.NaN;
+            }
+
+            switch (_type)
+            {
+                case TALLY:
+                    return -tally(summary);
+                case CARD_TALLY:
+                    return -_cardTally.tally(summary);
+                case ORIGINAL_INDEX:
+                    return originalIndex(summary, listIndex);
+                default:
+                    return Double.NaN;
+            }
+        }
+
+        /** Sum of the card scores, NaN only if none of the cards have a Result */
+        private double tally(ScoreSummary summary) {
+
+            double tally = 0.0;
+            boolean found = false;
+
+            if (_ordinals == null)
+            {
+                for (Result result : summary.getResults().values())
+                {
+                    if (result != null)
+                    {
+                        found = true;
+                        tally += scoreOrZero(result);
+                    }
+                }
+            }
+            else
+            {
+                for (int i = 0; i < _ordinals.length; i++)
+                {
+                    Result result = _ordinals[i] >= 0 ? summary.getResultByOrdinal(_ordinals[i])
+                                                      : summary.getResultByScoreCard(_scoreCardNames[i]);
+                    if (result != null)
+                    {
+                        found = true;
+                        tally += scoreOrZero(result);
+                    }
+                }
+            }
+
+            return found ? tally : Double.NaN;
+        }
+
+        private double scoreOrZero(Result result) {
+
+            double score = result.getScoreAsDouble(_scoreType);
+            return score == score ? score : 0.0;
+        }
+
+        /** From any Result's Indices, otherwise the current list index */
+        private double originalIndex(ScoreSummary summary, int listIndex) {
+
+            for (Result result : summary.getResults().values())
+            {
+                Indices indices = result != null ? result.getPosition() : null;
+                if (indices != null)
+                {
+                    return indices.getOriginalIndex();
+                }
+            }
+
+            return listIndex >= 0 ? listIndex : Double.NaN;
+        }
+    }
+
+    public static class Builder {
+
+        private final List<SortKey> _bKeys = new ArrayList<>();
+
+        /** Highest tally of all cards first */
+        public Builder byTally(Result.ResultScoreType scoreType) {
+            _bKeys.add(new SortKey(KeyType.TALLY, null, scoreType, null));
+            return this;
+        }
+
+        /** Highest tally of a subset of cards first */
+        public Builder byTally(Collection<String> scoreCardNames, Result.ResultScoreType scoreType) {
+
+            String[] names = scoreCardNames.toArray(new String[scoreCardNames.size()]);
+            _bKeys.add(new SortKey(KeyType.TALLY, names, scoreType, null));
+            return this;
+        }
+
+        /** Highest score for one card first */
+        public Builder byCardScore(String scoreCardName, Result.ResultScoreType scoreType) {
+
+            _bKeys.add(new SortKey(KeyType.TALLY, new String[]{scoreCardName}, scoreType, null));
+            return this;
+        }
+
+        /** Highest CardTally (weighted, geometric mean, etc) first */
+        public Builder byTally(CardTally cardTally) {
+            _bKeys.add(new SortKey(KeyType.CARD_TALLY, null, cardTally.getScoreType(), cardTally));
+            return this;
+        }
+
+        /** Lowest Indices.getOriginalIndex() first */
+        public Builder byOriginalIndex() {
+            _bKeys.add(new SortKey(KeyType.ORIGINAL_INDEX, null, null, null));
+            return this;
+        }
+
+        public ScoreSorter build() {
+
+            if (_bKeys.isEmpty())
+            {
+                throw new IllegalArgumentException("At Least One Sort Key Is Required");
+            }
+
+            return new ScoreSorter(_bKeys);
+        }
+    }
+}
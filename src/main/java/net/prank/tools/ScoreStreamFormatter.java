@@ -0,0 +1,389 @@
+package net.prank.tools;
+
+import net.prank.core.Indices;
+import net.prank.core.Result;
+import net.prank.core.ScoreData;
+import net.prank.core.ScoreSummary;
+import net.prank.core.Statistics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A high throughput alternative to ScoreFormatter.dumpScoreSummary() for writing
+ * many ScoreSummaries, one per line, to an Appendable, Writer or ByteBuffer.
+ * <p>
+ * The output of each line is identical to dumpScoreSummary() with the same
+ * delimiters (see DELIM), but a single buffer is reused for every summary and
+ * decimals are rounded HALF_EVEN with exact long arithmetic on the unscaled value
+ * instead of BigDecimal.setScale(). Values with more than 18 digits (after scaling),
+ * or a scale outside 0 - 6, fall back to BigDecimal formatting so the output still
+ * matches.
+ * <p>
+ * Not thread safe, use one instance per thread/writer.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ScoreStreamFormatter {
+
+    public static final String DEFAULT_LINE_SEPARATOR = DELIM.NEWLINE.get();
+
+    private static final int MAX_FAST_SCALE = 6;
+    /** Every 18 digit value fits in a long */
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L,
+        100000000000L, 1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L,
+        10000000000000000L, 100000000000000000L, 1000000000000000000L};
+
+    private final int _scale;
+    private final StringBuilder _buffer = new StringBuilder(256);
+    private final CharsetEncoder _encoder = StandardCharsets.UTF_8.newEncoder();
+    private char[] _chars = new char[256];
+    private CharBuffer _charBuffer = CharBuffer.wrap(_chars);
+
+    /** Uses ScoreFormatter.DEFAULT_SCALE */
+    public ScoreStreamFormatter() {
+        this(ScoreFormatter.DEFAULT_SCALE);
+    }
+
+    /**
+     * @param scale The decimal scale, or -1 to keep the original BigDecimal scale
+     */
+    public ScoreStreamFormatter(int scale) {
+        _scale = scale;
+    }
+
+    /**
+     * Format a summary into the reused buffer (no line separator). The returned
+     * CharSequence is only valid until the next call on this formatter.
+     *
+     * @param summary The summary to format
+     * @return The same text as ScoreFormatter.dumpScoreSummary()
+     */
+    public CharSequence format(ScoreSummary summary) {
+
+        _buffer.setLength(0);
+        appendSummary(_buffer, summary);
+        return _buffer;
+    }
+
+    /**
+     * Append a summary followed by DEFAULT_LINE_SEPARATOR
+     * @param out Any Appendable (StringBuilder, PrintStream, etc)
+     * @param summary The summary to append
+     * @throws IOException From 'out'
+     */
+    public void append(Appendable out, ScoreSummary summary) throws IOException {
+
+        if (out instanceof StringBuilder)
+        {
+            appendSummary((StringBuilder) out, summary);
+            ((StringBuilder) out).append(DEFAULT_LINE_SEPARATOR);
+            return;
+        }
+
+        format(summary);
+        _buffer.append(DEFAULT_LINE_SEPARATOR);
+        out.append(_buffer);
+    }
+
+    /**
+     * Write every summary, one per line, without creating a String per summary
+     * @param writer The destination, which is not flushed or closed
+     * @param summaries The summaries to write
+     * @throws IOException From 'writer'
+     */
+    public void write(Writer writer, Iterable<? extends ScoreSummary> summaries) throws IOException {
+
+        for (ScoreSummary summary : summaries)
+        {
+            write(writer, summary);
+        }
+    }
+
+    /**
+     * Write one summary followed by DEFAULT_LINE_SEPARATOR
+     * @param writer The destination
+     * @param summary The summary to write
+     * @throws IOException From 'writer'
+     */
+    public void write(Writer writer, ScoreSummary summary) throws IOException {
+
+        format(summary);
+        _buffer.append(DEFAULT_LINE_SEPARATOR);
+        int length = copyToChars();
+        writer.write(_chars, 0, length);
+    }
+
+    /**
+     * UTF-8 encode one summary and DEFAULT_LINE_SEPARATOR into 'out'. If 'out'
+     * does not have enough space its position is left unchanged.
+     *
+     * @param out The destination buffer
+     * @param summary The summary to write
+     * @return false if 'out' did not have enough space
+     */
+    public boolean write(ByteBuffer out, ScoreSummary summary) {
+
+        format(summary);
+        _buffer.append(DEFAULT_LINE_SEPARATOR);
+        int length = copyToChars();
+
+        _charBuffer.clear();
+        _charBuffer.limit(length);
+        _encoder.reset();
+
+        int start = out.position();
+        CoderResult result = _encoder.encode(_charBuffer, out, true);
+        if (!result.isOverflow())
+        {
+            result = _encoder.flush(out);
+        }
+
+        if (result.isOverflow())
+        {
+            out.position(start);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Append 'value' with 'scale' digits after the decimal point, HALF_EVEN, the
+     * same as BigDecimal.valueOf(value).setScale(scale, HALF_EVEN).toString()
+     *
+     * @param sb The destination
+     * @param value The value to format
+     * @param scale The number of fractional digits (0 - 6 is formatted without setScale())
+     */
+    public static void appendDecimal(StringBuilder sb, double value, int scale) {
+        appendDecimal(sb, BigDecimal.valueOf(value), scale);
+    }
+
+    /**
+     * Append 'value' with 'scale' digits after the decimal point, HALF_EVEN, the
+     * same as value.setScale(scale, HALF_EVEN).toString(). Rounding is exact long
+     * arithmetic on the unscaled value when it fits in 18 digits.
+     *
+     * @param sb The destination
+     * @param value The value to format
+     * @param scale The number of fractional digits (0 - 6 is formatted without setScale())
+     */
+    public static void appendDecimal(StringBuilder sb, BigDecimal value, int scale) {
+
+        if (scale < 0 || scale > MAX_FAST_SCALE || value.precision() > MAX_LONG_DIGITS)
+        {
+            appendSlow(sb, value, scale);
+            return;
+        }
+
+        long units = rescaleHalfEven(value.unscaledValue().longValue(), value.scale(), value.precision(), scale);
+        if (units == Long.MIN_VALUE)
+        {
+            appendSlow(sb, value, scale);
+            return;
+        }
+
+        if (units < 0)
+        {
+            sb.append('-');
+            units = -units;
+        }
+
+        long power = POWERS_OF_TEN[scale];
+        sb.append(units / power);
+
+        if (scale > 0)
+        {
+            sb.append('.');
+            long fraction = units % power;
+            for (long digit = power / 10; digit > fraction && digit > 1; digit /= 10)
+            {
+                sb.append('0');
+            }
+
+            sb.append(fraction);
+        }
+    }
+
+    /**
+     * @param unscaled A BigDecimal unscaled value with 'precision' (at most 18) digits
+     * @param fromScale The BigDecimal scale
+     * @param precision The number of digits in 'unscaled'
+     * @param toScale The scale to round to
+     * @return The unscaled value at 'toScale', HALF_EVEN, or Long.MIN_VALUE if it needs more than 18 digits
+     */
+    static long rescaleHalfEven(long unscaled, int fromScale, int precision, int toScale) {
+
+        long shift = (long) toScale - fromScale;
+        if (shift >= 0)
+        {
+            return shift + precision <= MAX_LONG_DIGITS ? unscaled * POWERS_OF_TEN[(int) shift] : Long.MIN_VALUE;
+        }
+
+        // Dropping more digits than 'unscaled' has always leaves less than half a unit
+        if (-shift > MAX_LONG_DIGITS)
+        {
+            return 0;
+        }
+
+        long divisor = POWERS_OF_TEN[(int) -shift];
+        long quotient = unscaled / divisor;
+        long remainder = Math.abs(unscaled % divisor);
+        long rest = divisor - remainder;
+
+        if (remainder > rest || (remainder == rest && (quotient & 1L) != 0))
+        {
+            quotient += unscaled < 0 ? -1 : 1;
+        }
+
+        return quotient;
+    }
+
+    private void appendDecimal(StringBuilder sb, BigDecimal value) {
+        appendDecimal(sb, value, _scale);
+    }
+
+    private static void appendSlow(StringBuilder sb, BigDecimal value, int scale) {
+
+        if (scale > -1)
+        {
+            sb.append(value.setScale(scale, RoundingMode.HALF_EVEN));
+        }
+        else
+        {
+            sb.append(value);
+        }
+    }
+
+    private void appendSummary(StringBuilder sb, ScoreSummary summary) {
+
+        sb.append(summary.getName()).append(ScoreFormatter.DEFAULT_INTERNAL_DELIM);
+
+        for (Map.Entry<String, Result> entry : summary.getResults().entrySet())
+        {
+            appendResult(sb, entry.getValue());
+            sb.append(ScoreFormatter.DEFAULT_CARD_SEPARATOR);
+        }
+    }
+
+    private void appendResult(StringBuilder sb, Result result) {
+
+        if (result == null)
+        {
+            sb.append("null");
+            return;
+        }
+
+        String separator = ScoreFormatter.DEFAULT_SEPARATOR;
+        sb.append(result.getScoreCardName()).append(separator);
+        sb.append(result.getScoredValue()).append(separator);
+        appendIndices(sb, result.getPosition());
+        sb.append(separator);
+        appendScoreData(sb, result.getScoreData());
+        sb.append(separator);
+        appendStatistics(sb, result.getStatistics());
+    }
+
+    private void appendIndices(StringBuilder sb, Indices indices) {
+
+        if (indices == null)
+        {
+            sb.append("null");
+            return;
+        }
+
+        int count = indices.getIndexCount();
+        for (int i = 0; i < count; i++)
+        {
+            if (i > 0)
+            {
+                sb.append(ScoreFormatter.DEFAULT_INTERNAL_DELIM);
+            }
+
+            sb.append(indices.getIndex(i));
+        }
+    }
+
+    private void appendScoreData(StringBuilder sb, ScoreData scoreData) {
+
+        if (scoreData == null)
+        {
+            sb.append("null");
+            return;
+        }
+
+        String delim = ScoreFormatter.DEFAULT_INTERNAL_DELIM;
+        appendField(sb, scoreData.getScore(), delim);
+        appendField(sb, scoreData.getAdjustedScore(), delim);
+        appendField(sb, scoreData.getNormalizedScore(), delim);
+        appendField(sb, scoreData.getMinPoints(), delim);
+        appendField(sb, scoreData.getMaxPoints(), delim);
+        sb.append(scoreData.getBuckets());
+    }
+
+    private void appendStatistics(StringBuilder sb, Statistics statistics) {
+
+        if (statistics == null)
+        {
+            sb.append("null");
+            return;
+        }
+
+        String delim = ScoreFormatter.DEFAULT_INTERNAL_DELIM;
+        appendField(sb, statistics.getMin(), delim);
+        appendField(sb, statistics.getMax(), delim);
+        sb.append(statistics.getSampleSize()).append(delim);
+        appendField(sb, statistics.getAverage(), delim);
+        appendField(sb, statistics.getMeanDeviation(), delim);
+        appendField(sb, statistics.getMedianDeviation(), delim);
+        appendField(sb, statistics.getStandardDeviation(), DELIM.EMPTY.get());
+    }
+
+    private void appendField(StringBuilder sb, BigDecimal value, String delim) {
+
+        if (value != null)
+        {
+            appendDecimal(sb, value);
+        }
+
+        sb.append(delim);
+    }
+
+    /** Copy the buffer to the reused char array, growing it when necessary */
+    private int copyToChars() {
+
+        int length = _buffer.length();
+        if (length > _chars.length)
+        {
+            _chars = new char[Math.max(length, _chars.length * 2)];
+            _charBuffer = CharBuffer.wrap(_chars);
+        }
+
+        _buffer.getChars(0, length, _chars, 0);
+        return length;
+    }
+}
@@ -0,0 +1,264 @@
+package net.prank.tools;
+
+import java.util.Arrays;
+
+/**
+ * A continuous alternative to ScoringRange buckets, compiled once and evaluated with
+ * primitive math. Where buckets give every value in a slice the same points, a curve
+ * gives a smooth score and needs no range lookups:
+ * <p>
+ * 1) linear: minPoints at 'fromValue' to maxPoints at 'toValue', clamped outside
+ * 2) logistic: an S curve around 'midpoint', negative steepness for low value as high score
+ * 3) z-score clamp: linear over 'average' +/- 'maxZ' standard deviations
+ * 4) piecewise linear: interpolate between control points, clamped at the ends
+ * <p>
+ * Use score(double[], double[]) for a whole request, typically into the normalized
+ * score column of CardScores. NaN values score NaN. Immutable and thread safe.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public abstract class ScoringCurve {
+
+    /**
+     * @param value The raw value
+     * @return The points for the value, NaN for NaN
+     */
+    public abstract double score(double value);
+
+    /**
+     * Score every value in bulk
+     * @param values The raw values, NaN for missing
+     * @param scores The output, at least values.length
+     */
+    public void score(double[] values, double[] scores) {
+
+        for (int i = 0; i < values.length; i++)
+        {
+            scores[i] = score(values[i]);
+        }
+    }
+
+    /**
+     * @param fromValue The value that earns 'fromPoints' (or less for low to high)
+     * @param toValue The value that earns 'toPoints'
+     */
+    public static ScoringCurve linear(double fromValue, double toValue, double fromPoints, double toPoints) {
+
+        if (fromValue == toValue)
+        {
+            throw new IllegalArgumentException("Linear Curve Needs Two Different Values: " + fromValue);
+        }
+
+        return new Linear(fromValue, toValue, fromPoints, toPoints);
+    }
+
+    /**
+     * minPoints + (maxPoints - minPoints) / (1 + e^(-steepness * (value - midpoint)))
+     */
+    public static ScoringCurve logistic(double midpoint, double steepness, double minPoints, double maxPoints) {
+        return new Logistic(midpoint, steepness, minPoints, maxPoints);
+    }
+
+    /**
+     * Values at or below 'average - maxZ * standardDeviation' earn 'lowPoints', at or above
+     * 'average + maxZ * standardDeviation' earn 'highPoints'. A zero standard deviation
+     * scores every value at the midpoint.
+     */
+    public static ScoringCurve zScore(double average, double standardDeviation, double maxZ,
+                                      double lowPoints, double highPoints) {
+
+        if (maxZ <= 0.0 || standardDeviation < 0.0)
+        {
+            throw new IllegalArgumentException("Invalid Z Score Curve, maxZ: " + maxZ + ", std: " + standardDeviation);
+        }
+
+        if (standardDeviation == 0.0)
+        {
+            return new Linear(average - 1.0, average + 1.0, lowPoints, highPoints);
+        }
+
+        double spread = maxZ * standardDeviation;
+        return new Linear(average - spread, average + spread, lowPoints, highPoints);
+    }
+
+    /** z-score clamp from the streaming statistics of a request */
+    public static ScoringCurve zScore(RunningStatistics stats, double maxZ, double lowPoints, double highPoints) {
+        return zScore(stats.getAverage(), stats.getStandardDeviation(), maxZ, lowPoints, highPoints);
+    }
+
+    /**
+     * @param values Control point values, strictly increasing
+     * @param points Control point scores, same length as values
+     */
+    public static ScoringCurve piecewiseLinear(double[] values, double[] points) {
+
+        if (values == null || points == null || values.length != points.length || values.length < 2)
+        {
+            throw new IllegalArgumentException("Piecewise Curve Needs At Least Two Matching Control Points");
+        }
+
+        for (int i = 1; i < values.length; i++)
+        {
+            if (!(values[i] > values[i - 1]))
+            {
+                throw new IllegalArgumentException("Control Point Values Must Increase: " + Arrays.toString(values));
+            }
+        }
+
+        return new PiecewiseLinear(values.clone(), points.clone());
+    }
+
+    /** Clamped linear interpolation, slope precomputed */
+    private static final class Linear
+        extends ScoringCurve {
+
+        private final double _lowValue;
+        private final double _highValue;
+        private final double _lowPoints;
+        private final double _highPoints;
+        private final double _slope;
+
+        private Linear(double fromValue, double toValue, double fromPoints, double toPoints) {
+
+            boolean ascending = fromValue < toValue;
+            _lowValue = ascending ? fromValue : toValue;
+            _highValue = ascending ? toValue : fromValue;
+            _lowPoints = ascending ? fromPoints : toPoints;
+            _highPoints = ascending ? toPoints : fromPoints;
+            _slope = (_highPoints - _lowPoints) / (_highValue - _lowValue);
+        }
+
+        @Override
+        public double score(double value) {
+
+            double clamped = Math.min(Math.max(value, _lowValue), _highValue);
+            return _lowPoints + (clamped - _lowValue) * _slope;
+        }
+
+        @Override
+        public void score(double[] values, double[] scores) {
+
+            double low = _lowValue;
+            double high = _highValue;
+            double lowPoints = _lowPoints;
+            double slope = _slope;
+
+            for (int i = 0; i < values.length; i++)
+            {
+                scores[i] = lowPoints + (Math.min(Math.max(values[i], low), high) - low) * slope;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Linear{" +
+                    "_lowValue=" + _lowValue +
+                    ", _highValue=" + _highValue +
+                    ", _lowPoints=" + _lowPoints +
+                    ", _highPoints=" + _highPoints +
+                    '}';
+        }
+    }
+
+    private static final class Logistic
+        extends ScoringCurve {
+
+        private final double _midpoint;
+        private final double _steepness;
+        private final double _minPoints;
+        private final double _pointRange;
+
+        private Logistic(double midpoint, double steepness, double minPoints, double maxPoints) {
+            _midpoint = midpoint;
+            _steepness = steepness;
+            _minPoints = minPoints;
+            _pointRange = maxPoints - minPoints;
+        }
+
+        @Override
+        public double score(double value) {
+            return _minPoints + _pointRange / (1.0 + Math.exp(-_steepness * (value - _midpoint)));
+        }
+
+        @Override
+        public String toString() {
+            return "Logistic{" +
+                    "_midpoint=" + _midpoint +
+                    ", _steepness=" + _steepness +
+                    ", _minPoints=" + _minPoints +
+                    ", _maxPoints=" + (_minPoints + _pointRange) +
+                    '}';
+        }
+    }
+
+    /** Binary search for the segment, then interpolate with a precomputed slope */
+    private static final class PiecewiseLinear
+        extends ScoringCurve {
+
+        private final double[] _values;
+        private final double[] _points;
+        private final double[] _slopes;
+
+        private PiecewiseLinear(double[] values, double[] points) {
+
+            _values = values;
+            _points = points;
+            _slopes = new double[values.length - 1];
+
+            for (int i = 0; i < _slopes.length; i++)
+            {
+                _slopes[i] = (points[i + 1] - points[i]) / (values[i + 1] - values[i]);
+            }
+        }
+
+        @Override
+        public double score(double value) {
+
+            if (Double.isNaN(value))
+            {
+                return Double.NaN;
+            }
+
+            int last = _values.length - 1;
+            if (value <= _values[0])
+            {
+                return _points[0];
+            }
+
+            if (value >= _values[last])
+            {
+                return _points[last];
+            }
+
+            int segment = Arrays.binarySearch(_values, value);
+            if (segment >= 0)
+            {
+                return _points[segment];
+            }
+
+            segment = -segment - 2;
+            return _points[segment] + (value - _values[segment]) * _slopes[segment];
+        }
+
+        @Override
+        public String toString() {
+            return "PiecewiseLinear{" +
+                    "_values=" + Arrays.toString(_values) +
+                    ", _points=" + Arrays.toString(_points) +
+                    '}';
+        }
+    }
+}
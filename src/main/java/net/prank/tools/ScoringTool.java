@@ -1,12 +1,16 @@
 package net.prank.tools;
 
+import net.prank.core.PositionTracker;
 import net.prank.core.Result;
 import net.prank.core.Scorable;
 import net.prank.core.ScoreSummary;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +34,11 @@ import java.util.Set;
  */
 public class ScoringTool {
 
+    /** Above this many values, quantile buckets are estimated from a sample */
+    public static final int QUANTILE_SAMPLE_SIZE = 4096;
+    /** Standard deviation buckets cover the average +/- this many deviations */
+    public static final double STANDARD_DEVIATION_SPAN = 2.0;
+
     /**
      * Split the range of grossMax - grossMin and divide it evenly by the bucketCount.
      * Use for larger ranges.
@@ -119,6 +128,91 @@ public class ScoringTool {
         return scores;
     }
 
+    /**
+     * Bucket boundaries at quantiles of the values instead of evenly over grossMin to
+     * grossMax, so each bucket holds about the same number of candidates and a single
+     * outlier does not squash everything else into one bucket. The lowest values earn
+     * maxPoints. Above QUANTILE_SAMPLE_SIZE values, quantiles are estimated from an
+     * evenly strided sample, so building the plan stays O(n).
+     *
+     * @param minPoints The smallest score point value
+     * @param maxPoints The largest score point value
+     * @param bucketCount How many buckets (fewer if quantiles repeat)
+     * @param values The raw values, NaN is ignored
+     * @param grossMin The smallest actual value
+     * @param grossMax The largest actual value
+     * @return A compiled plan
+     */
+    public BucketPlan scoreQuantileBucketsLowValueAsHighScore(double minPoints, double maxPoints, int bucketCount,
+                                                              double[] values, double grossMin, double grossMax) {
+
+        double[] cuts = quantileCuts(values, bucketCount, grossMin, grossMax);
+        return compileCuts(cuts, minPoints, maxPoints, bucketCount, true);
+    }
+
+    /**
+     * The same as scoreQuantileBucketsLowValueAsHighScore(), but the highest values earn maxPoints.
+     */
+    public BucketPlan scoreQuantileBucketsHighValueAsHighScore(double minPoints, double maxPoints, int bucketCount,
+                                                               double[] values, double grossMin, double grossMax) {
+
+        double[] cuts = quantileCuts(values, bucketCount, grossMin, grossMax);
+        return compileCuts(cuts, minPoints, maxPoints, bucketCount, false);
+    }
+
+    /**
+     * Bucket boundaries evenly over average +/- STANDARD_DEVIATION_SPAN standard deviations,
+     * with the outer buckets extended to grossMin and grossMax. Outliers land in the outer
+     * buckets instead of stretching every bucket. The lowest values earn maxPoints.
+     *
+     * @param minPoints The smallest score point value
+     * @param maxPoints The largest score point value
+     * @param bucketCount How many buckets (fewer if the spread is narrower than the data)
+     * @param average The average value
+     * @param standardDeviation The standard deviation of the values
+     * @param grossMin The smallest actual value
+     * @param grossMax The largest actual value
+     * @return A compiled plan
+     */
+    public BucketPlan scoreStandardDeviationBucketsLowValueAsHighScore(double minPoints, double maxPoints,
+                                                                       int bucketCount, double average,
+                                                                       double standardDeviation, double grossMin,
+                                                                       double grossMax) {
+
+        double[] cuts = standardDeviationCuts(bucketCount, average, standardDeviation, grossMin, grossMax);
+        return compileCuts(cuts, minPoints, maxPoints, bucketCount, true);
+    }
+
+    /**
+     * The same as scoreStandardDeviationBucketsLowValueAsHighScore(), but the highest values earn maxPoints.
+     */
+    public BucketPlan scoreStandardDeviationBucketsHighValueAsHighScore(double minPoints, double maxPoints,
+                                                                        int bucketCount, double average,
+                                                                        double standardDeviation, double grossMin,
+                                                                        double grossMax) {
+
+        double[] cuts = standardDeviationCuts(bucketCount, average, standardDeviation, grossMin, grossMax);
+        return compileCuts(cuts, minPoints, maxPoints, bucketCount, false);
+    }
+
+    /** Using the average, standard deviation, min and max a card already computed */
+    public BucketPlan scoreStandardDeviationBucketsLowValueAsHighScore(double minPoints, double maxPoints,
+                                                                       int bucketCount, RunningStatistics stats) {
+
+        return scoreStandardDeviationBucketsLowValueAsHighScore(minPoints, maxPoints, bucketCount,
+                                                                stats.getAverage(), stats.getStandardDeviation(),
+                                                                stats.getMin(), stats.getMax());
+    }
+
+    /** Using the average, standard deviation, min and max a card already computed */
+    public BucketPlan scoreStandardDeviationBucketsHighValueAsHighScore(double minPoints, double maxPoints,
+                                                                        int bucketCount, RunningStatistics stats) {
+
+        return scoreStandardDeviationBucketsHighValueAsHighScore(minPoints, maxPoints, bucketCount,
+                                                                 stats.getAverage(), stats.getStandardDeviation(),
+                                                                 stats.getMin(), stats.getMax());
+    }
+
     /**
      * Create a String dump from a Set of ScoringRange where each is separated by a newline.
      *
@@ -162,6 +256,76 @@ public class ScoringTool {
         return 0.0;
     }
 
+    /**
+     * Bulk version of getScoreFromRange() for a column of values. NaN marks a missing
+     * value and scores 'missingScore', a value outside every bucket scores 0.0.
+     * <p>
+     * Each bucket is one pass over the arrays with a conditional select and no early
+     * exit, walking buckets high to low so the lowest bucket wins a shared boundary.
+     * The inner loop is a simple counted loop over primitives, which the JIT can
+     * unroll (and vectorize where the JVM supports it) rather than a per object
+     * iterator over a HashSet.
+     *
+     * @param values The raw values, NaN for missing
+     * @param plan The compiled scoring ranges
+     * @param scores The output, at least values.length
+     * @param missingScore The score to use for missing (NaN) values
+     */
+    public void scoreFromRanges(double[] values, BucketPlan plan, double[] scores, double missingScore) {
+        scoreFromRanges(values, null, values.length, plan, scores, missingScore);
+    }
+
+    /**
+     * Bulk scoring with an optional presence mask, for values that were null rather
+     * than NaN. Only the first 'length' values are scored.
+     *
+     * @param values The raw values, NaN for missing
+     * @param present null, or false where a value is missing
+     * @param length The number of values to score
+     * @param plan The compiled scoring ranges
+     * @param scores The output, at least 'length'
+     * @param missingScore The score to use for missing values
+     */
+    public void scoreFromRanges(double[] values, boolean[] present, int length, BucketPlan plan, double[] scores,
+                                double missingScore) {
+
+        if (length > values.length || length > scores.length || (present != null && length > present.length))
+        {
+            throw new IllegalArgumentException("Length Exceeds Array Size: " + length);
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            double value = values[i];
+            scores[i] = value != value ? missingScore : 0.0;
+        }
+
+        double[] mins = plan._mins;
+        double[] maxs = plan._maxs;
+        double[] points = plan._points;
+
+        for (int b = mins.length - 1; b >= 0; b--)
+        {
+            double min = mins[b];
+            double max = maxs[b];
+            double bucketPoints = points[b];
+
+            for (int i = 0; i < length; i++)
+            {
+                double value = values[i];
+                scores[i] = (value >= min & value <= max) ? bucketPoints : scores[i];
+            }
+        }
+
+        if (present != null)
+        {
+            for (int i = 0; i < length; i++)
+            {
+                scores[i] = present[i] ? scores[i] : missingScore;
+            }
+        }
+    }
+
     /**
      * Add up all the scores for each Result.
      *
@@ -183,7 +347,7 @@ public class ScoringTool {
 
         for ( Map.Entry<String, Result> entry : summary.getResults().entrySet() )
         {
-            BigDecimal score = getScoreByType(entry.getValue(), scoreType);
+            BigDecimal score = entry.getValue() != null ? entry.getValue().getScore(scoreType) : null;
             if (tally == null && score != null)
             {
                 tally = score;
@@ -197,24 +361,16 @@ public class ScoringTool {
         return tally;
     }
 
-    private BigDecimal getScoreByType(Result result, Result.ResultScoreType type) {
-
-        if (result == null)
-        {
-            return null;
-        }
-
-        switch (type)
-        {
-            case ORIGINAL:
-                return result.getScoreData().getScore();
-            case NORMALIZED:
-                return result.getScoreData().getNormalizedScore();
-            case ADJUSTED:
-                return result.getScoreData().getAdjustedScore();
-            default:
-                return null;
-        }
+    /**
+     * Tally a summary with a compiled CardTally, for example a weighted sum or a
+     * weighted geometric mean over a subset of cards.
+     *
+     * @param summary The score summary for all cards
+     * @param cardTally The compiled cards, weights and ScoreAggregator
+     * @return The tally or NaN if none of the cards have a Result
+     */
+    public double tallyScore(ScoreSummary summary, CardTally cardTally) {
+        return cardTally.tally(summary);
     }
 
     /**
@@ -296,6 +452,17 @@ public class ScoringTool {
         }
     }
 
+    /**
+     * Record a sort once for the whole collection rather than appending to every
+     * Result's Indices. Each attached Indices resolves its positions lazily.
+     *
+     * @param sortedScorables The scored objects sorted
+     * @param tracker The tracker created (attached) for this collection
+     */
+    public void updateSortedCollectionIndices(List<? extends Scorable> sortedScorables, PositionTracker tracker) {
+        tracker.record(sortedScorables);
+    }
+
     /**
      * Normalize a value against a target value. If 'original' or 'maximum' are null,
      * then this function returns null. If 'normalizer' is null or 'maximum' == 'normalizer',
@@ -372,22 +539,119 @@ public class ScoringTool {
             tally = new BigDecimal("0.0");
         }
 
-        if (scoreType.equals(Result.ResultScoreType.ORIGINAL))
+        if (scoreType.equals(Result.ResultScoreType.ORIGINAL) || scoreType.equals(Result.ResultScoreType.ADJUSTED))
         {
-            if (result.getScoreData().getScore() != null)
+            BigDecimal score = result.getScore(scoreType);
+            if (score != null)
             {
-                tally = tally.add(result.getScoreData().getScore());
+                tally = tally.add(score);
             }
         }
-        else if (scoreType.equals(Result.ResultScoreType.ADJUSTED))
+
+        return tally;
+    }
+
+    /** grossMin, the inner quantiles, grossMax */
+    private double[] quantileCuts(double[] values, int bucketCount, double grossMin, double grossMax) {
+
+        double[] sample = sampleValues(values);
+        double[] cuts = new double[bucketCount + 1];
+        cuts[0] = grossMin;
+        cuts[bucketCount] = grossMax;
+
+        for (int k = 1; k < bucketCount; k++)
+        {
+            // The last value of bucket k - 1, the lower bucket wins a shared boundary
+            int last = (int) ((long) k * sample.length / bucketCount) - 1;
+            double cut = last >= 0 ? sample[last] : grossMin;
+            cuts[k] = Math.min(Math.max(cut, grossMin), grossMax);
+        }
+
+        return cuts;
+    }
+
+    /** Sorted non NaN values, or an evenly strided sample of them for large inputs */
+    private double[] sampleValues(double[] values) {
+
+        int count = 0;
+        for (double value : values)
         {
-            if (result.getScoreData().getAdjustedScore() != null)
+            if (value == value)
             {
-                tally = tally.add(result.getScoreData().getAdjustedScore());
+                count++;
             }
         }
 
-        return tally;
+        int stride = count > QUANTILE_SAMPLE_SIZE ? (count + QUANTILE_SAMPLE_SIZE - 1) / QUANTILE_SAMPLE_SIZE : 1;
+        double[] sample = new double[(count + stride - 1) / stride];
+        int present = 0;
+        int taken = 0;
+
+        for (double value : values)
+        {
+            if (value == value && present++ % stride == 0)
+            {
+                sample[taken++] = value;
+            }
+        }
+
+        Arrays.sort(sample, 0, taken);
+        return taken == sample.length ? sample : Arrays.copyOf(sample, taken);
+    }
+
+    /** grossMin, average +/- STANDARD_DEVIATION_SPAN deviations, grossMax */
+    private double[] standardDeviationCuts(int bucketCount, double average, double standardDeviation,
+                                           double grossMin, double grossMax) {
+
+        double[] cuts = new double[bucketCount + 1];
+        cuts[0] = grossMin;
+        cuts[bucketCount] = grossMax;
+
+        double low = average - STANDARD_DEVIATION_SPAN * standardDeviation;
+        double sliceRange = 2 * STANDARD_DEVIATION_SPAN * standardDeviation / bucketCount;
+
+        for (int k = 1; k < bucketCount; k++)
+        {
+            cuts[k] = Math.min(Math.max(low + k * sliceRange, grossMin), grossMax);
+        }
+
+        return cuts;
+    }
+
+    /**
+     * One ScoringRange between each distinct pair of cuts. Points step by
+     * (maxPoints - minPoints) / bucketCount like scoreBucketsEvenly*(), with the
+     * best bucket earning maxPoints.
+     */
+    private BucketPlan compileCuts(double[] cuts, double minPoints, double maxPoints, int bucketCount,
+                                   boolean lowValueAsHighScore) {
+
+        if (bucketCount < 1)
+        {
+            throw new IllegalArgumentException("Bucket Count Must Be Positive: " + bucketCount);
+        }
+
+        List<double[]> bounds = new ArrayList<>(bucketCount);
+        for (int k = 0; k < bucketCount; k++)
+        {
+            if (k == 0 || cuts[k + 1] > cuts[k])
+            {
+                bounds.add(new double[] {cuts[k], cuts[k + 1]});
+            }
+        }
+
+        double pointsPerSlice = (maxPoints - minPoints) / bucketCount;
+        int distinct = bounds.size();
+        List<ScoringRange> ranges = new ArrayList<>(distinct);
+
+        for (int k = 0; k < distinct; k++)
+        {
+            int fromBest = lowValueAsHighScore ? k : distinct - 1 - k;
+            double points = maxPoints - fromBest * pointsPerSlice;
+            ranges.add(new ScoringRange(bounds.get(k)[0], bounds.get(k)[1], points));
+        }
+
+        return BucketPlan.compile(ranges);
     }
 
     /** Return a positive range */
@@ -0,0 +1,355 @@
+package net.prank.tools;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, concurrent cache with segmented LRU eviction and TinyLFU style
+ * admission. Keys are spread over lock striped segments so concurrent ScoreCard
+ * threads rarely contend. Each segment keeps:
+ * <p>
+ * 1) a probation LRU for entries seen once
+ * 2) a protected LRU (80%) for entries hit again while on probation
+ * 3) a small count-min frequency sketch (4 bit counters, periodically halved)
+ * <p>
+ * When a segment is full, a new entry is only admitted if it has been requested
+ * more often than the probation victim it would replace. This keeps one-off keys
+ * from flushing frequently used ones, which plain LRU does not.
+ * <p>
+ * Null keys and values are not supported.
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class SegmentedLruCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    /** Entries per segment before striping */
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private final Segment<K, V>[] _segments;
+    private final int _segmentMask;
+
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _evictions = new LongAdder();
+    private final LongAdder _rejections = new LongAdder();
+
+    /**
+     * @param maximumSize The approximate maximum number of entries (rounded per segment)
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedLruCache(int maximumSize) {
+
+        if (maximumSize < 1)
+        {
+            throw new IllegalArgumentException("Maximum Size Must Be Positive: " + maximumSize);
+        }
+
+        int segments = 1;
+        while (segments < MAX_SEGMENTS && maximumSize / (segments * 2) >= MIN_SEGMENT_CAPACITY)
+        {
+            segments *= 2;
+        }
+
+        _segments = new Segment[segments];
+        _segmentMask = segments - 1;
+        int capacity = (maximumSize + segments - 1) / segments;
+
+        for (int i = 0; i < segments; i++)
+        {
+            _segments[i] = new Segment<>(capacity);
+        }
+    }
+
+    /**
+     * @param key The cache key
+     * @return The cached value or null
+     */
+    public V get(K key) {
+
+        int hash = spread(key.hashCode());
+        V value = segmentFor(hash).get(key, hash);
+
+        if (value != null)
+        {
+            _hits.increment();
+        }
+        else
+        {
+            _misses.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Add or replace a value, subject to admission when the segment is full
+     * @param key The cache key
+     * @param value The value to cache
+     * @return true if the value was admitted
+     */
+    public boolean put(K key, V value) {
+
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).put(key, value, hash);
+    }
+
+    public void invalidateAll() {
+
+        for (Segment<K, V> segment : _segments)
+        {
+            segment.clear();
+        }
+    }
+
+    public long size() {
+
+        long size = 0;
+        for (Segment<K, V> segment : _segments)
+        {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    public long getHitCount() {
+        return _hits.sum();
+    }
+
+    public long getMissCount() {
+        return _misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return _evictions.sum();
+    }
+
+    /** @return The number of new entries refused by frequency admission */
+    public long getRejectionCount() {
+        return _rejections.sum();
+    }
+
+    /** @return hits / (hits + misses) or 0.0 before the first get() */
+    public double getHitRate() {
+
+        long hits = _hits.sum();
+        long total = hits + _misses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedLruCache{" +
+                "_size=" + size() +
+                ", _hits=" + getHitCount() +
+                ", _misses=" + getMissCount() +
+                ", _evictions=" + getEvictionCount() +
+                ", _rejections=" + getRejectionCount() +
+                '}';
+    }
+
+    private Segment<K, V> segmentFor(int hash) {
+        return _segments[(hash >>> 16) & _segmentMask];
+    }
+
+    private static int spread(int hash) {
+
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** A lock striped segment, all access is synchronized on the segment */
+    private final class Segment<SK, SV> {
+
+        private final int _capacity;
+        private final int _protectedCapacity;
+        private final LinkedHashMap<SK, SV> _probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<SK, SV> _protected = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch _sketch;
+
+        private Segment(int capacity) {
+            _capacity = capacity;
+            _protectedCapacity = Math.max(1, (int) (capacity * 0.8));
+            _sketch = new FrequencySketch(capacity);
+        }
+
+        private synchronized SV get(SK key, int hash) {
+
+            _sketch.increment(hash);
+
+            SV value = _protected.get(key);
+            if (value != null)
+            {
+                return value;
+            }
+
+            value = _probation.remove(key);
+            if (value != null)
+            {
+                promote(key, value);
+            }
+
+            return value;
+        }
+
+        private synchronized boolean put(SK key, SV value, int hash) {
+
+            if (_protected.containsKey(key))
+            {
+                _protected.put(key, value);
+                return true;
+            }
+
+            if (_probation.containsKey(key))
+            {
+                _probation.put(key, value);
+                return true;
+            }
+
+            if (_probation.size() + _protected.size() < _capacity)
+            {
+                _probation.put(key, value);
+                return true;
+            }
+
+            LinkedHashMap<SK, SV> victims = _probation.isEmpty() ? _protected : _probation;
+            Iterator<Map.Entry<SK, SV>> eldest = victims.entrySet().iterator();
+            Map.Entry<SK, SV> victim = eldest.next();
+
+            if (_sketch.frequency(hash) <= _sketch.frequency(spread(victim.getKey().hashCode())))
+            {
+                _rejections.increment();
+                return false;
+            }
+
+            eldest.remove();
+            _evictions.increment();
+            _probation.put(key, value);
+            return true;
+        }
+
+        /** Move a probation hit to protected, demoting the eldest protected entry if full */
+        private void promote(SK key, SV value) {
+
+            _protected.put(key, value);
+            if (_protected.size() > _protectedCapacity)
+            {
+                Iterator<Map.Entry<SK, SV>> eldest = _protected.entrySet().iterator();
+                Map.Entry<SK, SV> demoted = eldest.next();
+                eldest.remove();
+                _probation.put(demoted.getKey(), demoted.getValue());
+            }
+        }
+
+        private synchronized void clear() {
+            _probation.clear();
+            _protected.clear();
+        }
+
+        private synchronized int size() {
+            return _probation.size() + _protected.size();
+        }
+    }
+
+    /**
+     * Count-min sketch with four rows of 4 bit counters packed into longs. All
+     * counters are halved after 10 * capacity increments so old popularity fades.
+     */
+    private static final class FrequencySketch {
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int[] SEEDS = {0x97CB3127, 0xB1A4F5B3, 0x7F4A7C15, 0xC2B2AE35};
+
+        private final long[] _table;
+        private final int _tableMask;
+        private final int _sampleSize;
+        private int _increments;
+
+        private FrequencySketch(int capacity) {
+
+            int size = 1;
+            while (size < Math.max(capacity, 16))
+            {
+                size <<= 1;
+            }
+
+            _table = new long[size];
+            _tableMask = size - 1;
+            _sampleSize = 10 * Math.max(capacity, 16);
+        }
+
+        private int frequency(int hash) {
+
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < SEEDS.length; row++)
+            {
+                frequency = Math.min(frequency, counter(hash, row));
+            }
+
+            return frequency;
+        }
+
+        private void increment(int hash) {
+
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++)
+            {
+                int index = index(hash, row);
+                int shift = shift(hash, row);
+                long mask = 0xFL << shift;
+
+                if ((_table[index] & mask) != mask)
+                {
+                    _table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+
+            if (added && ++_increments >= _sampleSize)
+            {
+                reset();
+            }
+        }
+
+        private void reset() {
+
+            for (int i = 0; i < _table.length; i++)
+            {
+                _table[i] = (_table[i] >>> 1) & RESET_MASK;
+            }
+
+            _increments /= 2;
+        }
+
+        private int counter(int hash, int row) {
+            return (int) ((_table[index(hash, row)] >>> shift(hash, row)) & 0xFL);
+        }
+
+        private int index(int hash, int row) {
+
+            int h = (hash ^ SEEDS[row]) * SEEDS[row];
+            return (h ^ (h >>> 17)) & _tableMask;
+        }
+
+        /** One of the 16 counters in the long, four per row */
+        private int shift(int hash, int row) {
+            return ((row << 2) + ((hash >>> (row << 3)) & 3)) << 2;
+        }
+    }
+}
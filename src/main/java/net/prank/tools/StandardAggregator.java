@@ -0,0 +1,149 @@
+package net.prank.tools;
+
+/**
+ * Common ScoreAggregator strategies over primitive scores. All skip missing (NaN)
+ * card scores and return NaN if every card is missing.
+ * <p>
+ * WEIGHTED_SUM - sum of weight * score
+ * WEIGHTED_GEOMETRIC_MEAN - exp(sum(weight * ln(score)) / sum(weight)), 0.0 if any score is <= 0
+ * MAX - the largest score (weights ignored)
+ * MIN - the smallest score (weights ignored)
+ * LEXICOGRAPHIC - cards in priority order, compare the first card, then the next on a tie
+ *
+ * @author dmillett
+ * <p>
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public enum StandardAggregator
+    implements ScoreAggregator {
+
+    WEIGHTED_SUM {
+        @Override
+        public double aggregate(double[] scores, double[] weights) {
+
+            double sum = 0.0;
+            boolean found = false;
+
+            for (int i = 0; i < scores.length; i++)
+            {
+                if (scores[i] == scores[i])
+                {
+                    sum += weights[i] * scores[i];
+                    found = true;
+                }
+            }
+
+            return found ? sum : Double.NaN;
+        }
+    },
+
+    WEIGHTED_GEOMETRIC_MEAN {
+        @Override
+        public double aggregate(double[] scores, double[] weights) {
+
+            double logSum = 0.0;
+            double weightSum = 0.0;
+
+            for (int i = 0; i < scores.length; i++)
+            {
+                double score = scores[i];
+                if (score != score)
+                {
+                    continue;
+                }
+
+                if (score <= 0.0)
+                {
+                    return 0.0;
+                }
+
+                logSum += weights[i] * Math.log(score);
+                weightSum += weights[i];
+            }
+
+            if (weightSum == 0.0)
+            {
+                return Double.NaN;
+            }
+
+            return Math.exp(logSum / weightSum);
+        }
+    },
+
+    MAX {
+        @Override
+        public double aggregate(double[] scores, double[] weights) {
+
+            double max = Double.NaN;
+            for (double score : scores)
+            {
+                if (score == score && !(score <= max))
+                {
+                    max = score;
+                }
+            }
+
+            return max;
+        }
+    },
+
+    MIN {
+        @Override
+        public double aggregate(double[] scores, double[] weights) {
+
+            double min = Double.NaN;
+            for (double score : scores)
+            {
+                if (score == score && !(score >= min))
+                {
+                    min = score;
+                }
+            }
+
+            return min;
+        }
+    },
+
+    LEXICOGRAPHIC {
+        /** The highest priority card score present */
+        @Override
+        public double aggregate(double[] scores, double[] weights) {
+
+            for (double score : scores)
+            {
+                if (score == score)
+                {
+                    return score;
+                }
+            }
+
+            return Double.NaN;
+        }
+
+        @Override
+        public int compare(double[] one, double[] two, double[] weights) {
+
+            for (int i = 0; i < one.length; i++)
+            {
+                int comparison = ScoreAggregator.compareDescending(one[i], two[i]);
+                if (comparison != 0)
+                {
+                    return comparison;
+                }
+            }
+
+            return 0;
+        }
+    }
+}
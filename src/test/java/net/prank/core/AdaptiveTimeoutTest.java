@@ -0,0 +1,78 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.tools.LatencyTracker;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class AdaptiveTimeoutTest {
+
+    @Test
+    public void test__timeout_from_latency() {
+
+        AdaptiveTimeout adaptive = new AdaptiveTimeout(0.99, 1.5, 2);
+        LatencyTracker tracker = new LatencyTracker(60000, 2.0, 100);
+
+        // Not enough samples yet
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(50, adaptive.determineTimeout(tracker, 50));
+        assertEquals(50, adaptive.determineTimeout(null, 50));
+
+        for (int i = 0; i < 199; i++)
+        {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertEquals(16, adaptive.determineTimeout(tracker, 50));
+        assertEquals(12, adaptive.determineTimeout(tracker, 12));
+
+        LatencyTracker fast = new LatencyTracker(60000, 2.0, 1);
+        fast.record(TimeUnit.MICROSECONDS.toNanos(50));
+        assertEquals(2, adaptive.determineTimeout(fast, 50));
+    }
+
+    @Test
+    public void test__prankster_tracks_latency() {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(new PriceScoreCard(0, 10, 5));
+        Prankster<List<ExampleObject>> prankster = new Prankster<>(scoreCards, 1);
+        prankster.setAdaptiveTimeout(new AdaptiveTimeout());
+
+        PranksterExample pe = new PranksterExample();
+        prankster.updateObjectsWithScores(new Request<>(pe.getExamples()), 1000);
+        prankster.updateObjectsWithScores(new Request<>(pe.getExamples()), 1000);
+
+        LatencyTracker tracker = prankster.findLatencyTracker(PriceScoreCard.NAME);
+        assertNotNull(tracker);
+        assertEquals(2, tracker.getCount());
+        assertTrue(prankster.findRegressedScoreCards().isEmpty());
+        prankster.gameOver();
+    }
+}
@@ -0,0 +1,93 @@
+package net.prank.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class CardScoresTest {
+
+    @Test
+    public void test__lazy_result_equals_built_result() {
+
+        Statistics stats = new Statistics.Builder().setAverage(new BigDecimal("11.5")).build();
+        CardScores cardScores = new CardScores("Price", 2);
+        cardScores.setScore(0, 13.44, 4.0);
+        cardScores.setScore(1, 9.99, 10.0);
+        cardScores.setAdjustedScore(1, 12.5);
+        cardScores.setStatistics(stats);
+        cardScores.setPoints(5, new BigDecimal("0.0"), new BigDecimal("10.0"));
+
+        Result lazy = cardScores.result(1);
+        ScoreData scoreData = new ScoreData(new BigDecimal("10.0"), new BigDecimal("12.5"), null, 5,
+                                            new BigDecimal("10.0"), new BigDecimal("0.0"));
+        Result built = new Result<>("Price", 9.99, new Indices(1), scoreData, stats);
+
+        assertEquals(built, lazy);
+        assertEquals(lazy, built);
+        assertEquals(built.hashCode(), lazy.hashCode());
+        assertSame(lazy.getPosition(), lazy.getPosition());
+        assertSame(stats, cardScores.result(0).getStatistics());
+    }
+
+    @Test
+    public void test__tally_without_score_data() {
+
+        CardScores price = new CardScores("Price", 2);
+        price.setScore(0, 4.0);
+        CardScores shipping = new CardScores("Shipping", 2);
+        shipping.setScore(0, 2.5);
+
+        ScoreSummary summary = new ScoreSummary("summary");
+        summary.addResult("Price", price.result(0));
+        summary.addResult("Shipping", shipping.result(0));
+
+        assertEquals(0, new BigDecimal("6.5").compareTo(summary.tallyScore()));
+        assertNull(summary.getResultByScoreCard("Price").getScore(Result.ResultScoreType.ADJUSTED));
+        assertNull(price.result(1).getScore(Result.ResultScoreType.ORIGINAL));
+    }
+
+    @Test
+    public void test__serializes_as_result() throws Exception {
+
+        CardScores cardScores = new CardScores("Price", 1);
+        cardScores.setScore(0, 13.44, 4.0);
+        Result lazy = cardScores.result(0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(lazy);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            Result copy = (Result) in.readObject();
+            assertEquals(Result.class, copy.getClass());
+            assertEquals(lazy, copy);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.prank.core;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class CardSelectionTest {
+
+    /** Prankster registers its cards, selections only look names up */
+    @BeforeClass
+    public static void registerCards() {
+
+        ScoreCardRegistry.register("SelectionA");
+        ScoreCardRegistry.register("SelectionB");
+        ScoreCardRegistry.register("SelectionC");
+    }
+
+    @Test
+    public void test__only_and_all_except() {
+
+        CardSelection only = CardSelection.only("SelectionA", "SelectionB");
+        assertTrue(only.isExplicit());
+        assertTrue(only.isSelected("SelectionA"));
+        assertFalse(only.isSelected("SelectionC"));
+        assertFalse(only.isSelected("NeverRegistered"));
+
+        CardSelection except = CardSelection.allExcept("SelectionA");
+        assertFalse(except.isExplicit());
+        assertFalse(except.isSelected("SelectionA"));
+        assertTrue(except.isSelected(ScoreCardRegistry.find("SelectionC")));
+        assertTrue(CardSelection.all().isSelected(ScoreCardRegistry.find("SelectionA")));
+    }
+
+    @Test
+    public void test__unregistered_names_are_ignored() {
+
+        int registered = ScoreCardRegistry.size();
+        CardSelection only = CardSelection.only("SelectionA", "SelectionTypo");
+
+        assertSame(only, only.with("SelectionTypo").without("SelectionOtherTypo"));
+        assertEquals(CardSelection.only("SelectionA"), only);
+        assertFalse(only.isSelected("SelectionTypo"));
+        assertTrue(ScoreCardRegistry.toBitSet("SelectionTypo").isEmpty());
+        assertEquals(registered, ScoreCardRegistry.size());
+    }
+
+    @Test
+    public void test__with_and_without() {
+
+        CardSelection only = CardSelection.only("SelectionA");
+        CardSelection variant = only.with("SelectionB").without("SelectionA");
+
+        assertTrue(only.isSelected("SelectionA"));
+        assertFalse(variant.isSelected("SelectionA"));
+        assertTrue(variant.isSelected("SelectionB"));
+        assertEquals(ScoreCardRegistry.find("SelectionB"), variant.nextSelected(0));
+
+        CardSelection except = CardSelection.allExcept("SelectionA").with("SelectionA").without("SelectionB");
+        assertEquals(CardSelection.allExcept("SelectionB"), except);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test__cannot_iterate_excluding() {
+        CardSelection.allExcept("SelectionA").nextSelected(0);
+    }
+}
@@ -0,0 +1,192 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class CircuitBreakerTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__opens_on_failure_rate() {
+
+        CircuitBreaker breaker = new CircuitBreaker(buildPolicy(60000));
+        for (int i = 0; i < 5; i++)
+        {
+            assertTrue(breaker.allowRequest());
+            breaker.record(CardStatus.COMPLETED);
+        }
+
+        for (int i = 0; i < 4; i++)
+        {
+            breaker.record(CardStatus.FAILED);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(4.0 / 9, breaker.getFailureRate(), DELTA);
+
+        breaker.record(CardStatus.FAILED);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void test__opens_on_timeout_rate_within_window() {
+
+        CircuitBreaker breaker = new CircuitBreaker(buildPolicy(60000));
+        for (int i = 0; i < 10; i++)
+        {
+            breaker.record(CardStatus.COMPLETED);
+            breaker.record(CardStatus.COMPLETED);
+            breaker.record(CardStatus.TIMED_OUT);
+        }
+
+        // Skipped outcomes are not counted
+        breaker.record(CardStatus.SKIPPED);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.3, breaker.getTimeoutRate(), 0.05);
+
+        for (int i = 0; i < 3; i++)
+        {
+            breaker.record(CardStatus.TIMED_OUT);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void test__half_open_probes() {
+
+        CircuitBreaker breaker = new CircuitBreaker(buildPolicy(0));
+        open(breaker);
+
+        // Half open: one of every two requests probes
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+
+        breaker.record(CardStatus.COMPLETED);
+        breaker.record(CardStatus.TIMED_OUT);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertTrue(breaker.allowRequest());
+        breaker.record(CardStatus.COMPLETED);
+        breaker.record(CardStatus.COMPLETED);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate(), DELTA);
+    }
+
+    @Test
+    public void test__prankster_skips_open_card() {
+
+        FailingCard card = new FailingCard();
+        Prankster<List<ExampleObject>> prankster = new Prankster<>(
+                Collections.<ScoreCard<List<ExampleObject>>>singleton(card), 1);
+        prankster.setCircuitBreakerPolicy(buildPolicy(60000));
+        PranksterExample pe = new PranksterExample();
+
+        for (int i = 0; i < 10; i++)
+        {
+            ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(pe.getExamples()), 1000);
+            assertEquals(CardStatus.FAILED, outcome.getStatus(FailingCard.NAME));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, prankster.findCircuitBreaker(FailingCard.NAME).getState());
+
+        List<ExampleObject> examples = pe.getExamples();
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(examples), 1000);
+        assertEquals(CardStatus.CIRCUIT_OPEN, outcome.getStatus(FailingCard.NAME));
+        assertFalse(outcome.isComplete());
+        assertEquals(CardStatus.CIRCUIT_OPEN, examples.get(0).getScoreSummary().getCardStatus(FailingCard.NAME));
+        assertEquals(10, card._calls.get());
+        prankster.gameOver();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test__invalid_policy() {
+        new CircuitBreaker.Policy.Builder().setWindowSize(5).setMinimumCalls(10).build();
+    }
+
+    private CircuitBreaker.Policy buildPolicy(long openMillis) {
+
+        return new CircuitBreaker.Policy.Builder().setWindowSize(20)
+                                                  .setMinimumCalls(10)
+                                                  .setFailureRateThreshold(0.5)
+                                                  .setTimeoutRateThreshold(0.4)
+                                                  .setOpenMillis(openMillis)
+                                                  .setProbeRate(0.5)
+                                                  .setProbesToClose(2)
+                                                  .build();
+    }
+
+    private void open(CircuitBreaker breaker) {
+
+        for (int i = 0; i < 10; i++)
+        {
+            breaker.record(CardStatus.FAILED);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static class FailingCard
+        implements ScoreCard<List<ExampleObject>> {
+
+        private static final String NAME = "CircuitFailingCard";
+        private final AtomicInteger _calls = new AtomicInteger();
+
+        @Override
+        public ScoreSummary score(List<ExampleObject> scoringObject) {
+            updateObjectsWithScore(scoringObject);
+            return null;
+        }
+
+        @Override
+        public ScoreSummary scoreWith(List<ExampleObject> scoringObject, RequestOptions options) {
+            updateObjectsWithScore(scoringObject);
+            return null;
+        }
+
+        @Override
+        public void updateObjectsWithScore(List<ExampleObject> scoringObject) {
+            _calls.incrementAndGet();
+            throw new IllegalStateException("Data Source Down");
+        }
+
+        @Override
+        public void updateObjectsWithScore(List<ExampleObject> scoringObject, RequestOptions options) {
+            updateObjectsWithScore(scoringObject);
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.tools.BucketPlan;
+import net.prank.tools.ScoringCurve;
+import net.prank.tools.ScoringRange;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ExtractorScoreCardTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__matches_price_score_card() {
+
+        PranksterExample pe = new PranksterExample();
+        List<ExampleObject> expected = pe.getExamples();
+        List<ExampleObject> actual = pe.getExamples();
+
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(expected);
+        buildPriceCard().updateObjectsWithScore(actual);
+
+        for (int i = 0; i < expected.size(); i++)
+        {
+            Result e = expected.get(i).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME);
+            Result a = actual.get(i).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME);
+
+            assertEquals(e.getScoreAsDouble(Result.ResultScoreType.ORIGINAL),
+                         a.getScoreAsDouble(Result.ResultScoreType.ORIGINAL), DELTA);
+            assertEquals(e.getScoredValue(), a.getScoredValue());
+            assertEquals(e.getPosition().getOriginalIndex(), a.getPosition().getOriginalIndex());
+            assertEquals(e.getStatistics().getAverage().doubleValue(),
+                         a.getStatistics().getAverage().doubleValue(), DELTA);
+        }
+    }
+
+    @Test
+    public void test__high_value_direction_and_options() {
+
+        List<ExampleObject> examples = buildExamples(10.0, 20.0, 30.0);
+        ExtractorScoreCard<ExampleObject> card = new ExtractorScoreCard.Builder<ExampleObject>(
+                "PriceScoreCard", e -> e.getPrice().doubleValue())
+                .setDirection(ExtractorScoreCard.Direction.HIGH_VALUE_AS_HIGH_SCORE)
+                .setPoints(0, 10, 2)
+                .build();
+
+        card.updateObjectsWithScore(examples);
+        assertEquals(0.0, score(examples.get(0)), DELTA);
+        assertEquals(5.0, score(examples.get(1)), DELTA);
+        assertEquals(10.0, score(examples.get(2)), DELTA);
+
+        RequestOptions options = new RequestOptions.RequestOptionsBuilder().setMinPointsB(0).setMaxPointsB(4)
+                                                                           .setBucketCountB(2).build();
+        examples = buildExamples(10.0, 20.0, 30.0);
+        card.updateObjectsWithScore(examples, options);
+        assertEquals(0.0, score(examples.get(0)), DELTA);
+        assertEquals(2.0, score(examples.get(1)), DELTA);
+        assertEquals(4.0, score(examples.get(2)), DELTA);
+    }
+
+    @Test
+    public void test__fixed_plan_and_skipped_values() {
+
+        List<ExampleObject> examples = buildExamples(5.0, 50.0, 500.0);
+        examples.add(new ExampleObject(1, BigDecimal.ONE, null));
+
+        BucketPlan plan = BucketPlan.compile(Arrays.asList(new ScoringRange(0.0, 10.0, 7.0),
+                                                           new ScoringRange(10.0, 100.0, 3.0)));
+        ExtractorScoreCard<ExampleObject> card = new ExtractorScoreCard.Builder<ExampleObject>(
+                "PriceScoreCard", e -> e.getPrice() != null ? e.getPrice().doubleValue() : Double.NaN)
+                .setBucketPlan(plan)
+                .build();
+
+        card.updateObjectsWithScore(examples);
+        assertEquals(7.0, score(examples.get(0)), DELTA);
+        assertEquals(3.0, score(examples.get(1)), DELTA);
+        assertEquals(0.0, score(examples.get(2)), DELTA);
+        assertNull(examples.get(3).getScoreSummary().getResultByScoreCard("PriceScoreCard"));
+        assertEquals(185.0, examples.get(0).getScoreSummary().getResultByScoreCard("PriceScoreCard")
+                                    .getStatistics().getAverage().doubleValue(), DELTA);
+    }
+
+    @Test
+    public void test__normalized_curve() {
+
+        List<ExampleObject> examples = buildExamples(10.0, 15.0, 20.0);
+        ExtractorScoreCard<ExampleObject> card = new ExtractorScoreCard.Builder<ExampleObject>(
+                "PriceScoreCard", e -> e.getPrice().doubleValue())
+                .setNormalizedCurve(ScoringCurve.linear(10.0, 20.0, 1.0, 0.0))
+                .build();
+
+        card.updateObjectsWithScore(examples);
+        Result middle = examples.get(1).getScoreSummary().getResultByScoreCard("PriceScoreCard");
+        assertEquals(0.5, middle.getScoreAsDouble(Result.ResultScoreType.NORMALIZED), DELTA);
+        assertEquals(0.5, middle.getScoreData().getNormalizedScore().doubleValue(), DELTA);
+    }
+
+    @Test
+    public void test__quantile_bucketing() {
+
+        List<ExampleObject> examples = buildExamples(1.0, 2.0, 3.0, 4.0, 1000.0);
+        ExtractorScoreCard<ExampleObject> card = new ExtractorScoreCard.Builder<ExampleObject>(
+                "PriceScoreCard", e -> e.getPrice().doubleValue())
+                .setBucketing(ExtractorScoreCard.Bucketing.QUANTILE)
+                .setPoints(0, 10, 5)
+                .build();
+
+        card.updateObjectsWithScore(examples);
+        assertEquals(10.0, score(examples.get(0)), DELTA);
+        assertEquals(8.0, score(examples.get(1)), DELTA);
+        assertEquals(6.0, score(examples.get(2)), DELTA);
+        assertEquals(4.0, score(examples.get(3)), DELTA);
+        assertEquals(2.0, score(examples.get(4)), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test__builder_requires_extractor() {
+        new ExtractorScoreCard.Builder<ExampleObject>("PriceScoreCard", null).build();
+    }
+
+    private ExtractorScoreCard<ExampleObject> buildPriceCard() {
+
+        return new ExtractorScoreCard.Builder<ExampleObject>(PriceScoreCard.NAME, e -> e.getPrice().doubleValue())
+                .setDirection(ExtractorScoreCard.Direction.LOW_VALUE_AS_HIGH_SCORE)
+                .setPoints(0, 20, 10)
+                .build();
+    }
+
+    private List<ExampleObject> buildExamples(double... prices) {
+
+        List<ExampleObject> examples = new ArrayList<>();
+        for (double price : prices)
+        {
+            examples.add(new ExampleObject(1, BigDecimal.ONE, BigDecimal.valueOf(price)));
+        }
+
+        return examples;
+    }
+
+    private double score(ExampleObject example) {
+        return example.getScoreSummary().getResultByScoreCard("PriceScoreCard")
+                      .getScoreAsDouble(Result.ResultScoreType.ORIGINAL);
+    }
+}
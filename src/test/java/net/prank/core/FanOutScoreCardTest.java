@@ -0,0 +1,143 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.ExampleScoreCard;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class FanOutScoreCardTest {
+
+    @Test
+    public void test__determineChunkSize() {
+
+        FanOutScoreCard<ExampleObject> fanOut = new FanOutScoreCard<>(indexCard(), 100, 4);
+
+        assertEquals(10, fanOut.determineChunkSize(10));
+        assertEquals(125, fanOut.determineChunkSize(250));
+        assertEquals(100, fanOut.determineChunkSize(300));
+        assertEquals(250, fanOut.determineChunkSize(1000));
+        assertEquals(0, fanOut.determineChunkSize(0));
+    }
+
+    @Test
+    public void test__prankster_scores_chunks() {
+
+        ElementScoreCard<ExampleObject> indexCard = indexCard();
+        Prankster<List<ExampleObject>> prankster = prankster(new FanOutScoreCard<>(indexCard, 50, 4));
+        Prankster<List<ExampleObject>> adapted = prankster(FanOutScoreCard.forElements(new ExampleScoreCard()));
+
+        List<ExampleObject> examples = examples(1000);
+        prankster.updateObjectsWithScores(new Request<>(examples), 5000);
+        adapted.updateObjectsWithScores(new Request<>(examples), 5000);
+
+        List<ExampleObject> linked = new LinkedList<>(examples(120));
+        prankster.updateObjectsWithScores(new Request<>(linked), 5000);
+        adapted.updateObjectsWithScores(new Request<>(linked), 5000);
+
+        prankster.gameOver();
+        adapted.gameOver();
+
+        for (List<ExampleObject> scored : new List[]{examples, linked})
+        {
+            for (int i = 0; i < scored.size(); i++)
+            {
+                ScoreSummary summary = scored.get(i).getScoreSummary();
+                Result result = summary.getResultByScoreCard(indexCard.getName());
+                assertEquals(i, result.getScoredValue());
+                assertNotNull(summary.getResultByScoreCard(new ExampleScoreCard().getName()));
+            }
+        }
+    }
+
+    @Test
+    public void test__prankster_records_one_latency_per_request() {
+
+        ElementScoreCard<ExampleObject> indexCard = indexCard();
+        Prankster<List<ExampleObject>> prankster = prankster(new FanOutScoreCard<>(indexCard, 50, 4));
+
+        for (int i = 0; i < 3; i++)
+        {
+            ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(examples(1000)), 5000);
+            assertEquals(CardStatus.COMPLETED, outcome.getStatus(indexCard.getName()));
+        }
+
+        assertEquals(3, prankster.findLatencyTracker(indexCard.getName()).getCount());
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__direct_call_scores_in_order() {
+
+        List<ExampleObject> examples = examples(10);
+        examples.set(3, null);
+        new FanOutScoreCard<>(indexCard()).updateObjectsWithScore(examples);
+
+        assertEquals(9, examples.get(9).getScoreSummary().getResultByScoreCard("IndexCard").getScoredValue());
+    }
+
+    private Prankster<List<ExampleObject>> prankster(ScoreCard<List<ExampleObject>> scoreCard) {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(scoreCard);
+        return new Prankster<>(scoreCards, 2);
+    }
+
+    private ElementScoreCard<ExampleObject> indexCard() {
+
+        return new ElementScoreCard<ExampleObject>() {
+
+            @Override
+            public void scoreElement(ExampleObject element, int index, RequestOptions options) {
+
+                ScoreData scoreData = ReusableBuilders.scoreData().setScore(BigDecimal.valueOf(index)).build();
+                Result<Integer> result = ReusableBuilders.<Integer>result().setCardName(getName())
+                                                                           .setOriginal(index)
+                                                                           .setScore(scoreData)
+                                                                           .setPosition(new Indices(index))
+                                                                           .build();
+                element.getScoreSummary().addResult(getName(), result);
+            }
+
+            @Override
+            public String getName() {
+                return "IndexCard";
+            }
+        };
+    }
+
+    private List<ExampleObject> examples(int count) {
+
+        List<ExampleObject> examples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            examples.add(new ExampleObject(i % 5, new BigDecimal("5.00"), new BigDecimal(i)));
+        }
+
+        return examples;
+    }
+}
@@ -0,0 +1,228 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.tools.LatencyTracker;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class HedgedScoringTest {
+
+    @Test
+    public void test__hedge_finishes_first() {
+
+        HedgedCard card = new HedgedCard("HedgedFirst", 1000, 0);
+        Prankster<List<ExampleObject>> prankster = buildPrankster(card);
+        warmUp(prankster.findLatencyTracker(card.getName()), 1);
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(examples), 500);
+
+        assertEquals(CardStatus.COMPLETED, outcome.getStatus(card.getName()));
+        assertTrue(outcome.getCardOutcome(card.getName()).getElapsedMillis() < 500.0);
+        assertEquals(1, prankster.getHedgeCount());
+        assertEquals(2, card._calls.get());
+        assertNotNull(examples.get(0).getScoreSummary().getResultByScoreCard(card.getName()));
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__loser_does_not_replace_results() throws Exception {
+
+        HedgedCard card = new HedgedCard("HedgedLoser", 300, 0);
+        Prankster<List<ExampleObject>> prankster = buildPrankster(card);
+        LatencyTracker tracker = prankster.findLatencyTracker(card.getName());
+        warmUp(tracker, 1);
+        long samples = tracker.getCount();
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(examples), 500);
+        assertEquals(CardStatus.COMPLETED, outcome.getStatus(card.getName()));
+
+        // The caller sorts and updates positions while the slow first execution is still running
+        Result winner = examples.get(0).getScoreSummary().getResultByScoreCard(card.getName());
+        assertEquals(2, winner.getPosition().getOriginalIndex());
+        winner.getPosition().updateWithCurrentIndex(7);
+
+        assertTrue(card._finished.await(5, TimeUnit.SECONDS));
+        Result after = examples.get(0).getScoreSummary().getResultByScoreCard(card.getName());
+        assertSame(winner, after);
+        assertEquals(7, after.getPosition().getLastIndex());
+        assertEquals(samples + 1, tracker.getCount());
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__no_hedge_without_samples() {
+
+        HedgedCard card = new HedgedCard("HedgedCold", 50, 0);
+        Prankster<List<ExampleObject>> prankster = buildPrankster(card);
+
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(new PranksterExample().getExamples()),
+                                                                   1000);
+        assertEquals(CardStatus.COMPLETED, outcome.getStatus(card.getName()));
+        assertEquals(0, prankster.getHedgeCount());
+        assertEquals(1, card._calls.get());
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__no_hedge_when_fast() {
+
+        HedgedCard card = new HedgedCard("HedgedFast", 0, 0);
+        Prankster<List<ExampleObject>> prankster = buildPrankster(card);
+        warmUp(prankster.findLatencyTracker(card.getName()), 200);
+
+        for (int i = 0; i < 5; i++)
+        {
+            ScoringOutcome outcome = prankster.updateObjectsWithScores(
+                new Request<>(new PranksterExample().getExamples()), 1000);
+            assertEquals(CardStatus.COMPLETED, outcome.getStatus(card.getName()));
+        }
+
+        assertEquals(0, prankster.getHedgeCount());
+        assertEquals(5, card._calls.get());
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__all_executions_fail() {
+
+        HedgedCard card = new HedgedCard("HedgedFailing", 200, 2);
+        Prankster<List<ExampleObject>> prankster = buildPrankster(card);
+        warmUp(prankster.findLatencyTracker(card.getName()), 1);
+
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(new PranksterExample().getExamples()),
+                                                                   1000);
+        assertEquals(CardStatus.FAILED, outcome.getStatus(card.getName()));
+        assertTrue(outcome.getCardOutcome(card.getName()).getFailure() instanceof IllegalStateException);
+        assertEquals(1, prankster.getHedgeCount());
+        prankster.gameOver();
+    }
+
+    private void warmUp(LatencyTracker tracker, long millis) {
+
+        for (long i = 0; i < tracker.getMinimumSamples(); i++)
+        {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    private Prankster<List<ExampleObject>> buildPrankster(ScoreCard<List<ExampleObject>> card) {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(card);
+        return new Prankster<>(scoreCards, 2);
+    }
+
+    /** The first call sleeps, the first 'failures' calls throw, each Result's position is the call number */
+    private static class HedgedCard
+        implements ScoreCard<List<ExampleObject>>, Hedgeable {
+
+        private final String _name;
+        private final long _firstSleepMillis;
+        private final int _failures;
+        private final AtomicInteger _calls = new AtomicInteger();
+        private final CountDownLatch _finished = new CountDownLatch(2);
+
+        private HedgedCard(String name, long firstSleepMillis, int failures) {
+            _name = name;
+            _firstSleepMillis = firstSleepMillis;
+            _failures = failures;
+        }
+
+        @Override
+        public double getHedgePercentile() {
+            return 0.5;
+        }
+
+        @Override
+        public ScoreSummary score(List<ExampleObject> scoringObject) {
+            updateObjectsWithScore(scoringObject);
+            return null;
+        }
+
+        @Override
+        public ScoreSummary scoreWith(List<ExampleObject> scoringObject, RequestOptions options) {
+            updateObjectsWithScore(scoringObject);
+            return null;
+        }
+
+        @Override
+        public void updateObjectsWithScore(List<ExampleObject> scoringObject) {
+
+            int call = _calls.incrementAndGet();
+            try
+            {
+                if (call == 1)
+                {
+                    sleep(_firstSleepMillis);
+                }
+
+                if (call <= _failures)
+                {
+                    throw new IllegalStateException("Test Failure: " + call);
+                }
+
+                for (ExampleObject example : scoringObject)
+                {
+                    example.getScoreSummary().addResult(_name, new Result<>(_name, example.getPrice(),
+                                                                            new Indices(call), null, null));
+                }
+            }
+            finally
+            {
+                _finished.countDown();
+            }
+        }
+
+        @Override
+        public void updateObjectsWithScore(List<ExampleObject> scoringObject, RequestOptions options) {
+            updateObjectsWithScore(scoringObject);
+        }
+
+        @Override
+        public String getName() {
+            return _name;
+        }
+
+        private void sleep(long millis) {
+
+            try
+            {
+                Thread.sleep(millis);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.ExampleScoreCard;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class MemoizingScoreCardTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__repeat_keys_use_cache() {
+
+        CountingScoreCard counting = new CountingScoreCard();
+        MemoizingScoreCard<ExampleObject> memoizing = new MemoizingScoreCard<>(counting, ExampleObject::getPrice, 100);
+
+        ExampleObject first = new ExampleObject(3, new BigDecimal("5.00"), new BigDecimal("10.00"));
+        ExampleObject second = new ExampleObject(3, new BigDecimal("5.00"), new BigDecimal("10.00"));
+        memoizing.updateObjectsWithScore(first);
+        memoizing.updateObjectsWithScore(second);
+
+        assertEquals(1, counting._calls.get());
+        assertEquals(1, memoizing.getHitCount());
+        assertEquals(0.5, memoizing.getHitRate(), DELTA);
+
+        Result original = first.getScoreSummary().getResultByScoreCard(memoizing.getName());
+        Result cached = second.getScoreSummary().getResultByScoreCard(memoizing.getName());
+        assertEquals(original, cached);
+        assertNotSame(original.getPosition(), cached.getPosition());
+    }
+
+    @Test
+    public void test__options_are_part_of_key() {
+
+        CountingScoreCard counting = new CountingScoreCard();
+        MemoizingScoreCard<ExampleObject> memoizing = new MemoizingScoreCard<>(counting, ExampleObject::getPrice, 100);
+        RequestOptions options = new RequestOptions.RequestOptionsBuilder().setMaxPointsB(5).build();
+
+        memoizing.updateObjectsWithScore(new ExampleObject(3, new BigDecimal("5.00"), new BigDecimal("10.00")));
+        memoizing.updateObjectsWithScore(new ExampleObject(3, new BigDecimal("5.00"), new BigDecimal("10.00")),
+                                         options);
+        memoizing.scoreWith(new ExampleObject(3, new BigDecimal("5.00"), new BigDecimal("10.00")), options);
+
+        assertEquals(2, counting._calls.get());
+        assertEquals(2, memoizing.size());
+    }
+
+    /** Counts calls to the wrapped card */
+    private static class CountingScoreCard
+        extends ExampleScoreCard {
+
+        private final AtomicInteger _calls = new AtomicInteger();
+
+        @Override
+        public void updateObjectsWithScore(ExampleObject scoringObject) {
+            _calls.incrementAndGet();
+            super.updateObjectsWithScore(scoringObject);
+        }
+
+        @Override
+        public void updateObjectsWithScore(ExampleObject scoringObject, RequestOptions options) {
+            _calls.incrementAndGet();
+            super.updateObjectsWithScore(scoringObject, options);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import net.prank.tools.ScoreComparator;
+import net.prank.tools.ScoreSorter;
+import net.prank.tools.ScoringTool;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class PositionTrackerTest {
+
+    @Test
+    public void test__tracked_positions_match_appended_positions() {
+
+        List<ExampleObject> tracked = scoredExamples();
+        List<ExampleObject> appended = scoredExamples();
+        ScoringTool tool = new ScoringTool();
+        PositionTracker tracker = new PositionTracker(tracked);
+
+        // Sort by all cards, then by shipping cost only
+        Collections.sort(tracked, new ScoreComparator());
+        tool.updateSortedCollectionIndices(tracked, tracker);
+        Collections.sort(appended, new ScoreComparator());
+        tool.updateSortedCollectionIndices(asScorables(appended));
+
+        Set<String> shipping = new HashSet<>();
+        shipping.add(ShippingCostScoreCard.NAME);
+        ScoreSorter sorter = new ScoreSorter.Builder()
+                                 .byTally(shipping, Result.ResultScoreType.ORIGINAL)
+                                 .byOriginalIndex()
+                                 .build();
+
+        tracker.record(sorter.sort(tracked));
+        sorter.sort(appended);
+        tool.updateSortedCollectionIndices(asScorables(appended));
+
+        assertEquals(2, tracker.getSortCount());
+        for (int i = 0; i < tracked.size(); i++)
+        {
+            Indices trackedIndices = tracked.get(i).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME)
+                                            .getPosition();
+            Indices appendedIndices = appended.get(i).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME)
+                                              .getPosition();
+
+            assertEquals(appendedIndices, trackedIndices);
+            assertEquals(appendedIndices.hashCode(), trackedIndices.hashCode());
+            assertEquals(appendedIndices.toString(), trackedIndices.toString());
+            assertEquals(3, trackedIndices.getIndexCount());
+            assertEquals(i, trackedIndices.getLastIndex());
+        }
+    }
+
+    @Test
+    public void test__update_detaches_and_serializes() throws Exception {
+
+        List<ExampleObject> examples = scoredExamples();
+        PositionTracker tracker = new PositionTracker(examples);
+        Collections.reverse(examples);
+        tracker.record(examples);
+
+        Indices indices = examples.get(0).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME).getPosition();
+        int original = indices.getOriginalIndex();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(indices);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            assertEquals(indices, in.readObject());
+        }
+
+        indices.updateWithCurrentIndex(4);
+        Collections.reverse(examples);
+        tracker.record(examples);
+
+        assertEquals(3, indices.getIndexCount());
+        assertEquals(original, indices.getIndex(0));
+        assertEquals(0, indices.getIndex(1));
+        assertEquals(4, indices.getLastIndex());
+        assertEquals(Arrays.asList(original, 0, 4), indices.getIndices());
+        assertEquals(new Indices(indices), indices);
+    }
+
+    private List<ExampleObject> scoredExamples() {
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(examples);
+        new ShippingCostScoreCard(0, 10, 10).updateObjectsWithScore(examples);
+        return examples;
+    }
+
+    private Collection<Scorable> asScorables(List<ExampleObject> examples) {
+        return new ArrayList<Scorable>(examples);
+    }
+}
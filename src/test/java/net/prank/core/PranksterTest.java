@@ -2,11 +2,16 @@ package net.prank.core;
 
 import net.prank.example.ExampleObject;
 import net.prank.example.ExampleScoreCard;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import net.prank.example.ShippingTimeScoreCard;
 import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
@@ -266,6 +271,59 @@ public class PranksterTest {
         assertEquals(10, timeout);
     }
 
+    @Test
+    public void test__card_selection() {
+
+        Prankster<List<ExampleObject>> prankster = buildListPrankster();
+        Request<List<ExampleObject>> request = new Request<>(new PranksterExample().getExamples());
+
+        // Legacy: options for one card disable the others
+        request.addOption(PriceScoreCard.NAME, new RequestOptions.RequestOptionsBuilder().build());
+        assertEquals(1, prankster.buildScoringUpdateFutures(request, 50).size());
+
+        // With a selection, cards without options still run
+        request.setCardSelection(CardSelection.all());
+        assertEquals(3, prankster.buildScoringUpdateFutures(request, 50).size());
+
+        request.setCardSelection(CardSelection.only(ShippingCostScoreCard.NAME, ShippingTimeScoreCard.NAME));
+        assertEquals(2, prankster.buildScoringUpdateFutures(request, 50).size());
+
+        request.setCardSelection(CardSelection.allExcept(ShippingTimeScoreCard.NAME));
+        assertEquals(2, prankster.buildScoringUpdateFutures(request, 50).size());
+
+        // Disabled options still win
+        request.addOption(ShippingCostScoreCard.NAME,
+                          new RequestOptions.RequestOptionsBuilder().setEnabledB(false).build());
+        assertEquals(1, prankster.buildScoringUpdateFutures(request, 50).size());
+
+        request.setCardSelection(CardSelection.only("UnknownScoreCard"));
+        assertEquals(0, prankster.buildScoringUpdateFutures(request, 50).size());
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__card_selection_scores_only_selected() {
+
+        Prankster<List<ExampleObject>> prankster = buildListPrankster();
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        Request<List<ExampleObject>> request = new Request<>(examples);
+        request.setCardSelection(CardSelection.only(PriceScoreCard.NAME));
+
+        prankster.updateObjectsWithScores(request, 1000);
+        assertEquals(1, examples.get(0).getScoreSummary().getResults().size());
+        assertNotNull(examples.get(0).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME));
+        prankster.gameOver();
+    }
+
+    private Prankster<List<ExampleObject>> buildListPrankster() {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(new PriceScoreCard(0, 10, 5));
+        scoreCards.add(new ShippingCostScoreCard(0, 10, 5));
+        scoreCards.add(new ShippingTimeScoreCard(0, 10, 5));
+        return new Prankster<>(scoreCards, 1);
+    }
+
     private Prankster<ExampleObject> buildPrankster(ScoreCard... scoreCard) {
 
         Set<ScoreCard<ExampleObject>> scoreCards = new HashSet<>();
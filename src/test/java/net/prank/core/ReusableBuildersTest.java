@@ -0,0 +1,69 @@
+package net.prank.core;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ReusableBuildersTest {
+
+    @Test
+    public void test__reused_builders_are_reset() {
+
+        ScoreData.Builder scoreBuilder = ReusableBuilders.scoreData();
+        ScoreData first = scoreBuilder.setScore(new BigDecimal("4.0")).setBuckets(5).build();
+
+        assertSame(scoreBuilder, ReusableBuilders.scoreData());
+        ScoreData second = ReusableBuilders.scoreData().setScore(new BigDecimal("2.0")).build();
+
+        assertEquals(new BigDecimal("4.0"), first.getScore());
+        assertEquals(5, first.getBuckets());
+        assertEquals(new BigDecimal("2.0"), second.getScore());
+        assertEquals(0, second.getBuckets());
+
+        ReusableBuilders.<Double>result().setCardName("Price").setOriginal(1.0).build();
+        Result result = ReusableBuilders.result().setCardName("Shipping").build();
+        assertNull(result.getScoredValue());
+
+        Statistics.Builder statsBuilder = ReusableBuilders.statistics().setAverage(BigDecimal.ONE);
+        statsBuilder.build();
+        assertNull(ReusableBuilders.statistics().build().getAverage());
+    }
+
+    @Test
+    public void test__builders_are_per_thread() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            ScoreData.Builder other = executor.submit(ReusableBuilders::scoreData).get();
+            assertNotSame(other, ReusableBuilders.scoreData());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import net.prank.example.ShippingTimeScoreCard;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoreCardRegistryTest {
+
+    @Test
+    public void test__ordinals_are_stable() {
+
+        int ordinal = ScoreCardRegistry.register("RegistryTestCard");
+        assertEquals(ordinal, ScoreCardRegistry.register("RegistryTestCard"));
+        assertEquals(ordinal, ScoreCardRegistry.find("RegistryTestCard"));
+        assertEquals("RegistryTestCard", ScoreCardRegistry.getName(ordinal));
+        assertTrue(ordinal < ScoreCardRegistry.size());
+
+        assertEquals(-1, ScoreCardRegistry.find("NeverRegisteredCard"));
+        assertNull(ScoreCardRegistry.getName(-1));
+    }
+
+    @Test
+    public void test__prankster_registers_cards() {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(new ShippingTimeScoreCard(0, 5, 5));
+        Prankster<List<ExampleObject>> prankster = new Prankster<>(scoreCards, 1);
+
+        assertTrue(ScoreCardRegistry.find(ShippingTimeScoreCard.NAME) >= 0);
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__summary_by_ordinal() throws Exception {
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(examples);
+        new ShippingCostScoreCard(0, 10, 10).updateObjectsWithScore(examples);
+
+        ScoreSummary summary = examples.get(0).getScoreSummary();
+        int price = ScoreCardRegistry.find(PriceScoreCard.NAME);
+        assertSame(summary.getResultByScoreCard(PriceScoreCard.NAME), summary.getResultByOrdinal(price));
+
+        BitSet cards = ScoreCardRegistry.toBitSet(PriceScoreCard.NAME, ShippingCostScoreCard.NAME, "Missing");
+        Set<String> names = new HashSet<>();
+        names.add(PriceScoreCard.NAME);
+        names.add(ShippingCostScoreCard.NAME);
+        names.add("Missing");
+
+        assertEquals(summary.tallyScoreFor(names, Result.ResultScoreType.ORIGINAL),
+                     summary.tallyScoreFor(cards, Result.ResultScoreType.ORIGINAL));
+        assertNull(summary.tallyScoreFor(ScoreCardRegistry.toBitSet("Missing"), Result.ResultScoreType.ORIGINAL));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(summary);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            ScoreSummary copy = (ScoreSummary) in.readObject();
+            assertEquals(summary.getResultByScoreCard(PriceScoreCard.NAME), copy.getResultByOrdinal(price));
+            assertEquals(summary.tallyScoreFor(cards, Result.ResultScoreType.ORIGINAL),
+                         copy.tallyScoreFor(cards, Result.ResultScoreType.ORIGINAL));
+        }
+    }
+}
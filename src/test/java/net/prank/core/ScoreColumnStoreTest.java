@@ -0,0 +1,112 @@
+package net.prank.core;
+
+import net.prank.tools.ScoreComparator;
+import net.prank.tools.ScoringTool;
+import org.junit.Test;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoreColumnStoreTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__setResult_and_tally() {
+
+        ScoreColumnStore store = new ScoreColumnStore("Offline", Arrays.asList("price", "shipping"), 3);
+        assertTrue(Double.isNaN(store.tally(0, Result.ResultScoreType.ORIGINAL)));
+
+        store.setResult(0, 0, 10.5, 2.0, Double.NaN, Double.NaN, 0);
+        store.setResult(1, 0, 4.0, 3.0, 6.0, Double.NaN, 0);
+        store.setResult(0, 1, 9.5, 8.0, Double.NaN, Double.NaN, 1);
+
+        assertEquals(5.0, store.tally(0, Result.ResultScoreType.ORIGINAL), DELTA);
+        assertEquals(6.0, store.tally(0, Result.ResultScoreType.ADJUSTED), DELTA);
+        assertEquals(8.0, store.tally(1, Result.ResultScoreType.ORIGINAL), DELTA);
+        assertTrue(Double.isNaN(store.tally(2, Result.ResultScoreType.ORIGINAL)));
+        assertNull(store.getResult(1, 1));
+        assertEquals(-1, store.cardOrdinal("missing"));
+    }
+
+    @Test
+    public void test__scorable_view() {
+
+        ScoreColumnStore store = new ScoreColumnStore("Offline", Arrays.asList("price", "shipping"), 3);
+        for (int row = 0; row < 3; row++)
+        {
+            store.setResult(0, row, row * 2.0, row + 1.0, Double.NaN, Double.NaN, row);
+            store.setResult(1, row, row, 1.5, Double.NaN, Double.NaN, row);
+        }
+
+        ScoringTool tool = new ScoringTool();
+        assertEquals(new BigDecimal("4.5"), tool.tallyScore(store.scorable(2).getScoreSummary()));
+
+        List<ScoreColumnStore.RowScorable> rows = store.scorables();
+        Collections.sort(rows, new ScoreComparator());
+        assertEquals(2, rows.get(0).getRow());
+        assertEquals(0, rows.get(2).getRow());
+
+        store.updateSortedIndices(new int[] {2, 1, 0});
+        Result result = store.getResult(0, 2);
+        assertEquals(2, result.getPosition().getOriginalIndex());
+        assertEquals(0, result.getPosition().getLastIndex());
+        assertEquals(4.0, (Double) result.getScoredValue(), DELTA);
+    }
+
+    @Test
+    public void test__putResult() {
+
+        ScoreColumnStore store = new ScoreColumnStore("Offline", Collections.singletonList("price"), 1);
+        ScoreData.Builder scoreBuilder = new ScoreData.Builder();
+        scoreBuilder.setScore(new BigDecimal("7.0"));
+        Result.Builder builder = new Result.Builder("price", scoreBuilder.build());
+        builder.setPosition(new Indices(0));
+        builder.setOriginal(12);
+
+        assertTrue(store.putResult(0, builder.build()));
+        assertFalse(store.putResult(0, new Result.Builder("other", scoreBuilder.build()).build()));
+        assertEquals(7.0, store.getScore(0, 0), DELTA);
+        assertEquals(12.0, store.getValue(0, 0), DELTA);
+    }
+
+    @Test
+    public void test__mapped() throws Exception {
+
+        File file = File.createTempFile("prank-columns", ".bin");
+        file.deleteOnExit();
+
+        ScoreColumnStore store = ScoreColumnStore.mapped(file.toPath(), "Offline", Arrays.asList("a", "b"), 100);
+        store.setResult(1, 99, 1.0, 9.0, Double.NaN, 0.9, 99);
+        store.force();
+
+        assertEquals(2 * ScoreColumnStore.blockBytes(100), file.length());
+        assertEquals(9.0, store.getScore(1, 99), DELTA);
+        assertEquals(0.9, store.getNormalizedScore(1, 99), DELTA);
+        assertEquals(new BigDecimal("9.0"), store.getScoreSummary(99).tallyScore());
+    }
+}
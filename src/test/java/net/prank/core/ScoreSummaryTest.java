@@ -5,9 +5,15 @@ import org.junit.Test;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  *
@@ -69,4 +75,105 @@ public class ScoreSummaryTest {
         assertEquals(new BigDecimal("1.0"), simple.tallyScoreFor(scoreCardName));
         assertEquals(new BigDecimal("1.0"), simple.tallyScoreFor(Result.ResultScoreType.ORIGINAL, scoreCardName));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test__addResult_repeated_and_concurrent() throws Exception {
+
+        ScoreSummary summary = new ScoreSummary("Concurrent");
+        summary.addResult(null, new Result<>("Ignored", 1, null, null, null));
+        summary.addResult("Ignored", null);
+        assertTrue(summary.getResults().isEmpty());
+        assertNull(summary.getResultByScoreCard(null));
+        assertNull(summary.getCardStatus(null));
+
+        Result first = new Result<>("Hedged", 5, null, null, null);
+        Result second = new Result<>("Hedged", 5, null, null, null);
+        summary.addResult("Hedged", first);
+        summary.addResult("Hedged", second);
+        assertEquals(1, summary.getResults().size());
+        assertSame(second, summary.getResultByScoreCard("Hedged"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 400; i++)
+        {
+            String name = "Concurrent" + (i % 40);
+            executor.execute(() -> summary.addResult(name, new Result<>(name, 1, null, null, null)));
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(41, summary.getResults().size());
+        assertEquals(CardStatus.COMPLETED, summary.getCardStatus("Concurrent39"));
+        assertEquals("Concurrent7", summary.getResultByOrdinal(ScoreCardRegistry.register("Concurrent7"))
+                                           .getScoreCardName());
+    }
+
+    @Test
+    public void test__addResult_same_card_consistent() throws Exception {
+
+        int ordinal = ScoreCardRegistry.register("HedgedConsistent");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        for (int round = 0; round < 200; round++)
+        {
+            ScoreSummary summary = new ScoreSummary("Hedged");
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(2);
+
+            for (int execution = 0; execution < 2; execution++)
+            {
+                Result result = new Result<>("HedgedConsistent", execution, null, null, null);
+                executor.execute(() -> {
+
+                    try
+                    {
+                        start.await();
+                        summary.addResult("HedgedConsistent", result);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    finally
+                    {
+                        done.countDown();
+                    }
+                });
+            }
+
+            start.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertSame(summary.getResultByScoreCard("HedgedConsistent"), summary.getResultByOrdinal(ordinal));
+        }
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void test__addResult_does_not_register_names() {
+
+        int registered = ScoreCardRegistry.size();
+        ScoreSummary summary = new ScoreSummary("AdHoc");
+        Result result = new Result<>("AdHocSummaryResult", 1, null, null, null);
+        summary.addResult("AdHocSummaryResult", result);
+
+        assertEquals(registered, ScoreCardRegistry.size());
+        assertEquals(-1, ScoreCardRegistry.find("AdHocSummaryResult"));
+        assertSame(result, summary.getResultByScoreCard("AdHocSummaryResult"));
+
+        // Registered later, found by name
+        int ordinal = ScoreCardRegistry.register("AdHocSummaryResult");
+        assertSame(result, summary.getResultByOrdinal(ordinal));
+
+        Result replaced = new Result<>("AdHocSummaryResult", 2, null, null, null);
+        summary.addResult("AdHocSummaryResult", replaced);
+        assertSame(replaced, summary.getResultByOrdinal(ordinal));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test__getResults_read_only() {
+
+        ScoreSummary summary = new ScoreSummary("ReadOnly");
+        summary.getResults().put("ReadOnlyResult", new Result<>("ReadOnlyResult", 1, null, null, null));
+    }
+}
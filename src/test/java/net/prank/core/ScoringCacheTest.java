@@ -0,0 +1,170 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoringCacheTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__hit_copies_results() {
+
+        ScoringCache<List<ExampleObject>> cache = new ScoringCache<>(buildPrankster(), 10, 60000);
+        PranksterExample pe = new PranksterExample();
+
+        List<ExampleObject> first = pe.getExamples();
+        cache.updateObjectsWithScores(new Request<>(first), "search-1", 100);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        List<ExampleObject> second = pe.getExamples();
+        cache.updateObjectsWithScores(new Request<>(second), "search-1", 100);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRate(), DELTA);
+
+        for (int i = 0; i < first.size(); i++)
+        {
+            Result original = first.get(i).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME);
+            Result cached = second.get(i).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME);
+
+            assertEquals(original, cached);
+            assertNotSame(original.getPosition(), cached.getPosition());
+        }
+    }
+
+    @Test
+    public void test__options_are_part_of_key() {
+
+        ScoringCache<List<ExampleObject>> cache = new ScoringCache<>(buildPrankster(), 10, 60000);
+        PranksterExample pe = new PranksterExample();
+
+        cache.updateObjectsWithScores(new Request<>(pe.getExamples()), "search-1", 100);
+
+        Request<List<ExampleObject>> withOptions = new Request<>(pe.getExamples());
+        withOptions.addOption(PriceScoreCard.NAME, new RequestOptions.RequestOptionsBuilder().setMaxPointsB(5).build());
+        cache.updateObjectsWithScores(withOptions, "search-1", 100);
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void test__size_and_time_eviction() throws Exception {
+
+        ScoringCache<List<ExampleObject>> cache = new ScoringCache<>(buildPrankster(), 1, 60000);
+        PranksterExample pe = new PranksterExample();
+
+        cache.updateObjectsWithScores(new Request<>(pe.getExamples()), "search-1", 100);
+        cache.updateObjectsWithScores(new Request<>(pe.getExamples()), "search-2", 100);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        ScoringCache<List<ExampleObject>> shortLived = new ScoringCache<>(buildPrankster(), 10, 1);
+        shortLived.updateObjectsWithScores(new Request<>(pe.getExamples()), "search-1", 100);
+        Thread.sleep(5);
+        shortLived.updateObjectsWithScores(new Request<>(pe.getExamples()), "search-1", 100);
+
+        assertEquals(0, shortLived.getHitCount());
+        assertEquals(1, shortLived.getEvictionCount());
+    }
+
+    @Test
+    public void test__card_selection_is_part_of_key() {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(new PriceScoreCard(0, 20, 10));
+        scoreCards.add(new ShippingCostScoreCard(0, 10, 10));
+        Prankster<List<ExampleObject>> prankster = new Prankster<>(scoreCards, 1);
+
+        ScoringCache<List<ExampleObject>> cache = new ScoringCache<>(prankster, 10, 60000);
+        PranksterExample pe = new PranksterExample();
+
+        Request<List<ExampleObject>> priceOnly = new Request<>(pe.getExamples());
+        priceOnly.setCardSelection(CardSelection.only(PriceScoreCard.NAME));
+        cache.updateObjectsWithScores(priceOnly, "search-1", 100);
+
+        List<ExampleObject> both = pe.getExamples();
+        Request<List<ExampleObject>> bothCards = new Request<>(both);
+        bothCards.setCardSelection(CardSelection.only(PriceScoreCard.NAME, ShippingCostScoreCard.NAME));
+        ScoringOutcome outcome = cache.updateObjectsWithScores(bothCards, "search-1", 100);
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.size());
+        assertEquals(CardStatus.COMPLETED, outcome.getStatus(ShippingCostScoreCard.NAME));
+        assertNotNull(both.get(0).getScoreSummary().getResultByScoreCard(ShippingCostScoreCard.NAME));
+
+        List<ExampleObject> priceAgain = pe.getExamples();
+        Request<List<ExampleObject>> priceOnlyAgain = new Request<>(priceAgain);
+        priceOnlyAgain.setCardSelection(CardSelection.only(PriceScoreCard.NAME));
+        cache.updateObjectsWithScores(priceOnlyAgain, "search-1", 100);
+
+        assertEquals(1, cache.getHitCount());
+        assertNotNull(priceAgain.get(0).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME));
+        assertNull(priceAgain.get(0).getScoreSummary().getResultByScoreCard(ShippingCostScoreCard.NAME));
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__hit_copies_only_completed_cards() {
+
+        ScoringCache<List<ExampleObject>> cache = new ScoringCache<>(buildPrankster(), 10, 60000);
+        PranksterExample pe = new PranksterExample();
+
+        List<ExampleObject> first = pe.getExamples();
+        for (ExampleObject example : first)
+        {
+            example.getScoreSummary().addResult("CallerAdded", new Result<>("CallerAdded", 1, null, null, null));
+        }
+
+        Request<List<ExampleObject>> request = new Request<>(first);
+        request.setCardSelection(CardSelection.only(PriceScoreCard.NAME));
+        cache.updateObjectsWithScores(request, "search-1", 100);
+
+        List<ExampleObject> second = pe.getExamples();
+        Request<List<ExampleObject>> repeat = new Request<>(second);
+        repeat.setCardSelection(CardSelection.only(PriceScoreCard.NAME));
+        cache.updateObjectsWithScores(repeat, "search-1", 100);
+
+        assertEquals(1, cache.getHitCount());
+        assertNotNull(second.get(0).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME));
+        assertNull(second.get(0).getScoreSummary().getResultByScoreCard("CallerAdded"));
+        assertEquals(1, second.get(0).getScoreSummary().getResults().size());
+    }
+
+    private Prankster<List<ExampleObject>> buildPrankster() {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(new PriceScoreCard(0, 20, 10));
+        return new Prankster<>(scoreCards, 1);
+    }
+}
@@ -0,0 +1,181 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoringOutcomeTest {
+
+    @Test
+    public void test__completed_and_skipped() {
+
+        Prankster<List<ExampleObject>> prankster = buildPrankster(new PriceScoreCard(0, 10, 5),
+                                                                  new TestCard("OutcomeSkipped", 0, false));
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        Request<List<ExampleObject>> request = new Request<>(examples);
+        request.setCardSelection(CardSelection.only(PriceScoreCard.NAME));
+
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(request, 1000);
+        assertTrue(outcome.isComplete());
+        assertEquals(CardStatus.COMPLETED, outcome.getStatus(PriceScoreCard.NAME));
+        assertEquals(CardStatus.SKIPPED, outcome.getStatus("OutcomeSkipped"));
+        assertEquals(examples.size(), outcome.getScoredCount(PriceScoreCard.NAME));
+        assertEquals(0, outcome.getScoredCount("OutcomeSkipped"));
+        assertTrue(outcome.getCardOutcome(PriceScoreCard.NAME).getElapsedMillis() >= 0.0);
+
+        ScoreSummary summary = examples.get(0).getScoreSummary();
+        assertEquals(CardStatus.COMPLETED, summary.getCardStatus(PriceScoreCard.NAME));
+        assertNull(summary.getCardStatus("OutcomeSkipped"));
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__timed_out() {
+
+        Prankster<List<ExampleObject>> prankster = buildPrankster(new TestCard("OutcomeSlow", 500, false));
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(examples), 10);
+        assertFalse(outcome.isComplete());
+        assertEquals(CardStatus.TIMED_OUT, outcome.getStatus("OutcomeSlow"));
+        assertEquals(1, outcome.countScoreCards(CardStatus.TIMED_OUT));
+        assertTrue(outcome.getCardOutcome("OutcomeSlow").getElapsedMillis() >= 10.0);
+        assertEquals(CardStatus.TIMED_OUT, examples.get(0).getScoreSummary().getCardStatus("OutcomeSlow"));
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__failed() {
+
+        Prankster<List<ExampleObject>> prankster = buildPrankster(new TestCard("OutcomeFailing", 0, true));
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<>(examples), 1000);
+        assertFalse(outcome.isComplete());
+        assertEquals(CardStatus.FAILED, outcome.getStatus("OutcomeFailing"));
+        assertTrue(outcome.getCardOutcome("OutcomeFailing").getFailure() instanceof IllegalStateException);
+        assertEquals(CardStatus.FAILED, examples.get(1).getScoreSummary().getCardStatus("OutcomeFailing"));
+        assertTrue(outcome.findScoreCards(CardStatus.FAILED).contains("OutcomeFailing"));
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__cache_skips_incomplete() {
+
+        Prankster<List<ExampleObject>> prankster = buildPrankster(new TestCard("OutcomeCacheFailing", 0, true));
+        ScoringCache<List<ExampleObject>> cache = new ScoringCache<>(prankster, 10, 60000);
+        PranksterExample pe = new PranksterExample();
+
+        cache.updateObjectsWithScores(new Request<>(pe.getExamples()), "search-1", 1000);
+        ScoringOutcome outcome = cache.updateObjectsWithScores(new Request<>(pe.getExamples()), "search-1", 1000);
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.size());
+        assertEquals(CardStatus.FAILED, outcome.getStatus("OutcomeCacheFailing"));
+        prankster.gameOver();
+    }
+
+    @Test
+    public void test__disabled_request() {
+
+        Prankster<List<ExampleObject>> prankster = buildPrankster(new PriceScoreCard(0, 10, 5));
+        ScoringOutcome outcome = prankster.updateObjectsWithScores(new Request<List<ExampleObject>>(true), 10);
+
+        assertTrue(outcome.isComplete());
+        assertTrue(outcome.getCardOutcomes().isEmpty());
+        prankster.gameOver();
+    }
+
+    @SafeVarargs
+    private final Prankster<List<ExampleObject>> buildPrankster(ScoreCard<List<ExampleObject>>... cards) {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        for (ScoreCard<List<ExampleObject>> card : cards)
+        {
+            scoreCards.add(card);
+        }
+
+        return new Prankster<>(scoreCards, 1);
+    }
+
+    /** Sleeps and/or throws without scoring anything */
+    private static class TestCard
+        implements ScoreCard<List<ExampleObject>> {
+
+        private final String _name;
+        private final long _sleepMillis;
+        private final boolean _fail;
+
+        private TestCard(String name, long sleepMillis, boolean fail) {
+            _name = name;
+            _sleepMillis = sleepMillis;
+            _fail = fail;
+        }
+
+        @Override
+        public ScoreSummary score(List<ExampleObject> scoringObject) {
+            updateObjectsWithScore(scoringObject);
+            return null;
+        }
+
+        @Override
+        public ScoreSummary scoreWith(List<ExampleObject> scoringObject, RequestOptions options) {
+            updateObjectsWithScore(scoringObject);
+            return null;
+        }
+
+        @Override
+        public void updateObjectsWithScore(List<ExampleObject> scoringObject) {
+
+            try
+            {
+                Thread.sleep(_sleepMillis);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            if (_fail)
+            {
+                throw new IllegalStateException("Test Failure");
+            }
+        }
+
+        @Override
+        public void updateObjectsWithScore(List<ExampleObject> scoringObject, RequestOptions options) {
+            updateObjectsWithScore(scoringObject);
+        }
+
+        @Override
+        public String getName() {
+            return _name;
+        }
+    }
+}
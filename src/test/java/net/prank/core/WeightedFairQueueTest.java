@@ -0,0 +1,158 @@
+package net.prank.core;
+
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class WeightedFairQueueTest {
+
+    @Test
+    public void test__weighted_round() {
+
+        WeightedFairQueue queue = new WeightedFairQueue(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 20; i++)
+        {
+            queue.offer(new Task(RequestPriority.BATCH));
+            queue.offer(new Task(RequestPriority.NORMAL));
+            queue.offer(new Task(RequestPriority.INTERACTIVE));
+        }
+
+        assertEquals(60, queue.size());
+        int[] counts = dequeue(queue, 13);
+        assertEquals(8, counts[RequestPriority.INTERACTIVE.ordinal()]);
+        assertEquals(4, counts[RequestPriority.NORMAL.ordinal()]);
+        assertEquals(1, counts[RequestPriority.BATCH.ordinal()]);
+
+        // Batch still progresses every round
+        counts = dequeue(queue, 13);
+        assertEquals(1, counts[RequestPriority.BATCH.ordinal()]);
+        assertEquals(34, queue.size());
+    }
+
+    @Test
+    public void test__lower_priority_runs_when_alone() {
+
+        WeightedFairQueue queue = new WeightedFairQueue(TimeUnit.HOURS.toMillis(1));
+        Runnable plain = new Runnable() {
+            @Override
+            public void run() {}
+        };
+
+        for (int i = 0; i < 5; i++)
+        {
+            queue.offer(new Task(RequestPriority.BATCH));
+        }
+
+        queue.offer(plain);
+        assertEquals(1, queue.size(RequestPriority.NORMAL));
+        assertEquals(plain, queue.poll());
+        assertEquals(5, dequeue(queue, 5)[RequestPriority.BATCH.ordinal()]);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void test__interactive_jumps_when_overdue() {
+
+        WeightedFairQueue queue = new WeightedFairQueue(0);
+        for (int i = 0; i < 10; i++)
+        {
+            queue.offer(new Task(RequestPriority.INTERACTIVE));
+            queue.offer(new Task(RequestPriority.NORMAL));
+        }
+
+        // Past the 8 interactive credits, overdue interactive tasks still go first
+        int[] counts = dequeue(queue, 10);
+        assertEquals(10, counts[RequestPriority.INTERACTIVE.ordinal()]);
+        assertEquals(10, queue.size(RequestPriority.NORMAL));
+    }
+
+    @Test
+    public void test__blocking_poll_remove_and_drain() throws Exception {
+
+        WeightedFairQueue queue = new WeightedFairQueue(1);
+        assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+
+        Task task = new Task(RequestPriority.BATCH);
+        queue.put(task);
+        queue.put(new Task(RequestPriority.NORMAL));
+        assertTrue(queue.remove(task));
+        assertEquals(1, queue.size());
+
+        List<Runnable> drained = new ArrayList<>();
+        assertEquals(1, queue.drainTo(drained));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void test__prankster_with_priority_pools() {
+
+        Set<ScoreCard<List<ExampleObject>>> scoreCards = new HashSet<>();
+        scoreCards.add(new PriceScoreCard(0, 10, 5));
+        Prankster<List<ExampleObject>> prankster = new Prankster<>(scoreCards, 2, new PriorityThreadPoolFactory(2));
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        Request<List<ExampleObject>> request = new Request<>(examples);
+        request.setPriority(RequestPriority.BATCH);
+
+        prankster.updateObjectsWithScores(request, 1000);
+        assertNotNull(examples.get(0).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME));
+        prankster.gameOver();
+    }
+
+    private int[] dequeue(WeightedFairQueue queue, int count) {
+
+        int[] counts = new int[RequestPriority.values().length];
+        for (int i = 0; i < count; i++)
+        {
+            counts[WeightedFairQueue.priorityOf(queue.poll()).ordinal()]++;
+        }
+
+        return counts;
+    }
+
+    private static class Task
+        implements Runnable, Prioritized {
+
+        private final RequestPriority _priority;
+
+        private Task(RequestPriority priority) {
+            _priority = priority;
+        }
+
+        @Override
+        public void run() {}
+
+        @Override
+        public RequestPriority getPriority() {
+            return _priority;
+        }
+    }
+}
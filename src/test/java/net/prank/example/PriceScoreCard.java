@@ -6,6 +6,7 @@ import net.prank.core.Statistics;
 import net.prank.tools.NumericTools;
 import net.prank.core.RequestOptions;
 import net.prank.core.Result;
+import net.prank.core.ReusableBuilders;
 import net.prank.core.ScoreCard;
 import net.prank.core.ScoreSummary;
 import net.prank.tools.ScoringRange;
@@ -130,6 +131,12 @@ public class PriceScoreCard
     void updateSolutionsWithScore(List<ExampleObject> solutions, Set<ScoringRange> scoringRange,
                                   double average, double standardDeviation, ScoringTool scoringTool) {
 
+        // Calculate stats with primitives for performance, the same for every solution
+        Statistics.Builder statsBuilder = ReusableBuilders.statistics();
+        statsBuilder.setAverage(new BigDecimal(String.valueOf(average)));
+        statsBuilder.setStandardDeviation(new BigDecimal(String.valueOf(standardDeviation)));
+        Statistics stats = statsBuilder.build();
+
         int i = 0;
         for ( ExampleObject solution : solutions )
         {
@@ -142,18 +149,15 @@ public class PriceScoreCard
             double totalPrice = solution.getPrice().doubleValue();
             double score = scoringTool.getScoreFromRange(totalPrice, scoringRange);
 
-            // Calculate stats with primitives for performance
-            ScoreData.Builder scoreBuilder = new ScoreData.Builder();
+            ScoreData.Builder scoreBuilder = ReusableBuilders.scoreData();
             scoreBuilder.setScore(new BigDecimal(String.valueOf(score)));
 
-            Statistics.Builder statsBuilder = new Statistics.Builder();
-            statsBuilder.setAverage(new BigDecimal(String.valueOf(average)));
-            statsBuilder.setStandardDeviation(new BigDecimal(String.valueOf(standardDeviation)));
-
-            Result.Builder rb = new Result.Builder(NAME, scoreBuilder.build());
+            Result.Builder rb = ReusableBuilders.result();
+            rb.setCardName(NAME);
+            rb.setScore(scoreBuilder.build());
             rb.setPosition(new Indices(i));
             rb.setOriginal(totalPrice);
-            rb.setStatistics(statsBuilder.build());
+            rb.setStatistics(stats);
             Result result = rb.build();
 
             solution.getScoreSummary().addResult(NAME, result);
@@ -0,0 +1,116 @@
+package net.prank.example;
+
+import net.prank.core.Indices;
+import net.prank.core.RequestOptions;
+import net.prank.core.Result;
+import net.prank.core.ScoreData;
+import net.prank.core.ScoreSink;
+import net.prank.core.Statistics;
+import net.prank.core.StreamingScoreCard;
+import net.prank.tools.RunningStatistics;
+import net.prank.tools.ScoringRange;
+import net.prank.tools.ScoringTool;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Scores the same way as PriceScoreCard, but in two passes over the source
+ * without copying prices into an intermediate List.
+ *
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class StreamingPriceScoreCard
+    implements StreamingScoreCard<ExampleObject> {
+
+    public static final String NAME = PriceScoreCard.NAME;
+
+    private final double _minPoints;
+    private final double _maxPoints;
+    private final int _pointSlices;
+
+    public StreamingPriceScoreCard(double minPoints, double maxPoints, int pointSliceCount) {
+        _minPoints = minPoints;
+        _maxPoints = maxPoints;
+        _pointSlices = pointSliceCount;
+    }
+
+    @Override
+    public void scoreStream(Iterable<ExampleObject> source, ScoreSink<ExampleObject> sink) {
+        scoreStream(source, _minPoints, _maxPoints, _pointSlices, sink);
+    }
+
+    @Override
+    public void scoreStream(Iterable<ExampleObject> source, RequestOptions options, ScoreSink<ExampleObject> sink) {
+        scoreStream(source, options.getMinPoints(), options.getMaxPoints(), options.getBucketCount(), sink);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    private void scoreStream(Iterable<ExampleObject> source, double minPoints, double maxPoints, int buckets,
+                             ScoreSink<ExampleObject> sink) {
+
+        // First pass: statistics only
+        RunningStatistics stats = new RunningStatistics();
+        for ( ExampleObject example : source )
+        {
+            if ( example.getPrice() != null )
+            {
+                stats.add(example.getPrice().doubleValue());
+            }
+        }
+
+        if ( stats.getCount() == 0 )
+        {
+            return;
+        }
+
+        ScoringTool tool = new ScoringTool();
+        Set<ScoringRange> scoring = tool.scoreBucketsEvenlyLowValueAsHighScore(minPoints, maxPoints, buckets,
+                                                                               stats.getMin(), stats.getMax());
+
+        Statistics.Builder statsBuilder = new Statistics.Builder();
+        statsBuilder.setAverage(new BigDecimal(String.valueOf(stats.getAverage())));
+        statsBuilder.setStandardDeviation(new BigDecimal(String.valueOf(stats.getStandardDeviation())));
+        Statistics statistics = statsBuilder.build();
+
+        // Second pass: score and emit
+        int i = 0;
+        for ( ExampleObject example : source )
+        {
+            if ( example.getPrice() != null )
+            {
+                double price = example.getPrice().doubleValue();
+                double score = tool.getScoreFromRange(price, scoring);
+
+                ScoreData.Builder scoreBuilder = new ScoreData.Builder();
+                scoreBuilder.setScore(new BigDecimal(String.valueOf(score)));
+
+                Result.Builder rb = new Result.Builder(NAME, scoreBuilder.build());
+                rb.setPosition(new Indices(i));
+                rb.setOriginal(price);
+                rb.setStatistics(statistics);
+
+                sink.accept(example, rb.build());
+            }
+
+            i++;
+        }
+    }
+}
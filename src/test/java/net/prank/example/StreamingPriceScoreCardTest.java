@@ -0,0 +1,102 @@
+package net.prank.example;
+
+import net.prank.core.Result;
+import net.prank.core.ScorableSink;
+import net.prank.core.ScoreSink;
+import net.prank.tools.RunningStatistics;
+import net.prank.tools.NumericTools;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class StreamingPriceScoreCardTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__scoreStream_matches_price_score_card() {
+
+        PranksterExample pe = new PranksterExample();
+        List<ExampleObject> examples = pe.getExamples();
+        List<ExampleObject> streamed = pe.getExamples();
+
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(examples);
+        new StreamingPriceScoreCard(0, 20, 10).scoreStream(streamed, new ScorableSink<ExampleObject>());
+
+        for (int i = 0; i < examples.size(); i++)
+        {
+            assertEquals(examples.get(i).getScoreSummary().tallyScore(),
+                         streamed.get(i).getScoreSummary().tallyScore());
+        }
+    }
+
+    @Test
+    public void test__scoreStream_custom_sink() {
+
+        final List<Double> scores = new ArrayList<>();
+        ScoreSink<ExampleObject> sink = new ScoreSink<ExampleObject>() {
+            @Override
+            public void accept(ExampleObject scored, Result result) {
+                scores.add(result.getScoreData().getScore().doubleValue());
+            }
+        };
+
+        PranksterExample pe = new PranksterExample();
+        new StreamingPriceScoreCard(0, 20, 10).scoreStream(pe.getExamples(), sink);
+
+        assertEquals(6, scores.size());
+        assertEquals(20.0, scores.get(4), DELTA);
+    }
+
+    @Test
+    public void test__runningStatistics_merge() {
+
+        List<Double> values = Arrays.asList(13.44, 10.39, 11.22, 13.44, 9.99, 12.11);
+        RunningStatistics left = new RunningStatistics();
+        RunningStatistics right = new RunningStatistics();
+
+        for (int i = 0; i < values.size(); i++)
+        {
+            if (i < 2)
+            {
+                left.add(values.get(i));
+            }
+            else
+            {
+                right.add(values.get(i));
+            }
+        }
+
+        left.add(Double.NaN);
+        RunningStatistics merged = left.merge(right);
+        double average = NumericTools.averageForDoubles(values);
+
+        assertEquals(6, merged.getCount());
+        assertEquals(9.99, merged.getMin(), DELTA);
+        assertEquals(13.44, merged.getMax(), DELTA);
+        assertEquals(average, merged.getAverage(), DELTA);
+        assertEquals(NumericTools.standardDeviationForDoubles(average, values), merged.getStandardDeviation(), DELTA);
+        assertEquals(new BigDecimal("9.99"), merged.toStatistics().getMin());
+    }
+}
@@ -0,0 +1,180 @@
+package net.prank.tools;
+
+import net.prank.core.CardScores;
+import net.prank.core.ScoreCardRegistry;
+import net.prank.core.ScoreSummary;
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class CardTallyTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__standard_aggregators() {
+
+        ScoreSummary summary = summary(4.0, 9.0, Double.NaN);
+
+        assertEquals(2 * 4.0 + 9.0, summary.tallyScore(tally(StandardAggregator.WEIGHTED_SUM)), DELTA);
+        assertEquals(Math.pow(4.0 * 4.0 * 9.0, 1.0 / 3.0),
+                     summary.tallyScore(tally(StandardAggregator.WEIGHTED_GEOMETRIC_MEAN)), DELTA);
+        assertEquals(9.0, summary.tallyScore(tally(StandardAggregator.MAX)), DELTA);
+        assertEquals(4.0, summary.tallyScore(tally(StandardAggregator.MIN)), DELTA);
+        assertEquals(4.0, summary.tallyScore(tally(StandardAggregator.LEXICOGRAPHIC)), DELTA);
+
+        assertTrue(Double.isNaN(summary(Double.NaN, Double.NaN, Double.NaN)
+                                        .tallyScore(tally(StandardAggregator.WEIGHTED_SUM))));
+        assertEquals(0.0, summary(0.0, 9.0, 1.0).tallyScore(tally(StandardAggregator.WEIGHTED_GEOMETRIC_MEAN)),
+                     DELTA);
+    }
+
+    @Test
+    public void test__unregistered_cards_found_by_name() {
+
+        int registered = ScoreCardRegistry.size();
+        CardTally tally = new CardTally.Builder(StandardAggregator.WEIGHTED_SUM)
+                              .addCard("TallyUnregistered", 2.0)
+                              .build();
+
+        ScoreSummary summary = new ScoreSummary("summary");
+        CardScores cardScores = new CardScores("TallyUnregistered", 1);
+        cardScores.setScore(0, 3.0);
+        summary.addResult("TallyUnregistered", cardScores.result(0));
+
+        assertEquals(6.0, summary.tallyScore(tally), DELTA);
+        assertEquals(registered, ScoreCardRegistry.size());
+    }
+
+    @Test
+    public void test__scratch_arrays_per_thread() throws Exception {
+
+        CardTally sum = tally(StandardAggregator.WEIGHTED_SUM);
+        ScoreSummary low = summary(1.0, 1.0, 1.0);
+        ScoreSummary high = summary(4.0, 9.0, 2.0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+        {
+            results.add(executor.submit(() -> {
+
+                for (int j = 0; j < 10000; j++)
+                {
+                    if (sum.compare(high, low) >= 0 || sum.tally(low) != 6.0 || sum.tally(high) != 23.0)
+                    {
+                        return false;
+                    }
+                }
+
+                return true;
+            }));
+        }
+
+        for (Future<Boolean> result : results)
+        {
+            assertTrue(result.get());
+        }
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void test__lexicographic_compare() {
+
+        CardTally lexicographic = tally(StandardAggregator.LEXICOGRAPHIC);
+        ScoreSummary one = summary(4.0, 9.0, 1.0);
+        ScoreSummary two = summary(4.0, 7.0, 1.0);
+        ScoreSummary missing = summary(Double.NaN, 10.0, 1.0);
+
+        assertTrue(lexicographic.compare(one, two) < 0);
+        assertTrue(lexicographic.compare(two, one) > 0);
+        assertTrue(lexicographic.compare(missing, two) > 0);
+        assertEquals(0, lexicographic.compare(one, summary(4.0, 9.0, 1.0)));
+        assertTrue(lexicographic.compare(one, summary(4.0, 9.0, 2.0)) > 0);
+    }
+
+    @Test
+    public void test__matches_big_decimal_tally() {
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(examples);
+        new ShippingCostScoreCard(0, 10, 10).updateObjectsWithScore(examples);
+
+        CardTally sum = new CardTally.Builder(StandardAggregator.WEIGHTED_SUM)
+                            .addCard(PriceScoreCard.NAME)
+                            .addCard(ShippingCostScoreCard.NAME)
+                            .build();
+
+        ScoringTool tool = new ScoringTool();
+        List<ExampleObject> sorted = new ArrayList<>(examples);
+        sorted.sort(sum.comparator());
+
+        for (int i = 0; i < examples.size(); i++)
+        {
+            ScoreSummary summary = examples.get(i).getScoreSummary();
+            assertEquals(summary.tallyScore().doubleValue(), tool.tallyScore(summary, sum), DELTA);
+
+            if (i > 0)
+            {
+                assertTrue(sorted.get(i - 1).getScoreSummary().tallyScore(sum)
+                           >= sorted.get(i).getScoreSummary().tallyScore(sum));
+            }
+        }
+    }
+
+    private CardTally tally(ScoreAggregator aggregator) {
+
+        return new CardTally.Builder(aggregator)
+                   .addCard("A", 2.0)
+                   .addCard("B")
+                   .addCard("C", 3.0)
+                   .build();
+    }
+
+    private ScoreSummary summary(double a, double b, double c) {
+
+        ScoreSummary summary = new ScoreSummary("summary");
+        double[] scores = {a, b, c};
+        String[] names = {"A", "B", "C"};
+
+        for (int i = 0; i < names.length; i++)
+        {
+            if (!Double.isNaN(scores[i]))
+            {
+                CardScores cardScores = new CardScores(names[i], 1);
+                cardScores.setScore(0, scores[i]);
+                summary.addResult(names[i], cardScores.result(0));
+            }
+        }
+
+        return summary;
+    }
+}
@@ -0,0 +1,92 @@
+package net.prank.tools;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class LatencyTrackerTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__buckets() {
+
+        for (long micros : new long[] {0, 1, 7, 8, 15, 16, 100, 1000, 12345, 987654321L})
+        {
+            int bucket = LatencyTracker.bucketFor(micros);
+            long upper = LatencyTracker.upperMicros(bucket);
+
+            assertTrue(upper >= micros);
+            assertTrue(upper <= micros * 1.125 + 1);
+            assertEquals(bucket, LatencyTracker.bucketFor(upper));
+        }
+    }
+
+    @Test
+    public void test__percentiles() {
+
+        LatencyTracker tracker = new LatencyTracker();
+        assertTrue(Double.isNaN(tracker.getPercentileMillis(0.99)));
+
+        for (int i = 0; i < 99; i++)
+        {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(100, tracker.getCount());
+        assertEquals(1.0, tracker.getPercentileMillis(0.5), 0.125);
+        assertEquals(1.0, tracker.getPercentileMillis(0.99), 0.125);
+        assertEquals(40.0, tracker.getPercentileMillis(1.0), 5.0);
+
+        tracker.record(-1);
+        assertEquals(100, tracker.getCount());
+    }
+
+    @Test
+    public void test__regression() throws Exception {
+
+        LatencyTracker tracker = new LatencyTracker(5, 2.0, 10);
+        for (int i = 0; i < 20; i++)
+        {
+            tracker.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        Thread.sleep(10);
+        tracker.record(TimeUnit.MICROSECONDS.toNanos(100));
+        assertEquals(0.1, tracker.getBaselineMillis(), 0.01);
+        assertFalse(tracker.isRegressed());
+
+        for (int i = 0; i < 20; i++)
+        {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        assertTrue(tracker.isRegressed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test__invalid_factor() {
+        new LatencyTracker(1000, 1.0, 10);
+    }
+}
@@ -0,0 +1,133 @@
+package net.prank.tools;
+
+import net.prank.core.CardScores;
+import net.prank.core.Result;
+import net.prank.core.Scorable;
+import net.prank.core.ScoreSummary;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ParallelScoreSorterTest {
+
+    @Test
+    public void test__same_order_as_sequential() {
+
+        List<Scorable> scorables = scorables(20000);
+        ScoreSorter sorter = new ScoreSorter.Builder().byTally(Result.ResultScoreType.ORIGINAL).build();
+
+        List<Scorable> expected = new ArrayList<>(scorables);
+        int[] expectedOrder = sorter.sort(expected);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try
+        {
+            for (int parallelism : new int[]{2, 3, 5})
+            {
+                List<Scorable> sorted = new ArrayList<>(scorables);
+                int[] order = new ParallelScoreSorter(sorter, executor, parallelism, 100).sort(sorted);
+
+                assertArrayEquals(expectedOrder, order);
+                assertEquals(expected, sorted);
+            }
+
+            List<Scorable> linked = new LinkedList<>(scorables);
+            new ParallelScoreSorter(sorter, executor, 4, 100).sort(linked);
+            assertEquals(expected, linked);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test__update_positions() {
+
+        List<Scorable> scorables = scorables(5000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            ScoreSorter sorter = new ScoreSorter.Builder().byTally(Result.ResultScoreType.ORIGINAL).build();
+            new ParallelScoreSorter(sorter, executor, 4, 100).sortAndUpdatePositions(scorables);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < scorables.size(); i++)
+        {
+            Result result = scorables.get(i).getScoreSummary().getResultByScoreCard("ParallelCard");
+            assertEquals(i, result.getPosition().getLastIndex());
+            if (i > 0)
+            {
+                Result previous = scorables.get(i - 1).getScoreSummary().getResultByScoreCard("ParallelCard");
+                assertTrue(previous.getScoreAsDouble(Result.ResultScoreType.ORIGINAL)
+                           >= result.getScoreAsDouble(Result.ResultScoreType.ORIGINAL));
+            }
+        }
+    }
+
+    @Test
+    public void test__small_collections_sort_sequentially() {
+
+        List<Scorable> scorables = scorables(10);
+        Scorable best = scorables.get(0);
+        for (Scorable scorable : scorables)
+        {
+            if (scorable.getScoreSummary().tallyScore().compareTo(best.getScoreSummary().tallyScore()) > 0)
+            {
+                best = scorable;
+            }
+        }
+
+        new ParallelScoreSorter(null).sort(scorables);
+        assertSame(best, scorables.get(0));
+    }
+
+    private List<Scorable> scorables(int size) {
+
+        Random random = new Random(7);
+        CardScores cardScores = new CardScores("ParallelCard", size);
+        List<Scorable> scorables = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++)
+        {
+            // Few distinct values, so stability matters
+            cardScores.setScore(i, random.nextInt(50));
+            final ScoreSummary summary = new ScoreSummary("parallel");
+            summary.addResult("ParallelCard", cardScores.result(i));
+            scorables.add(() -> summary);
+        }
+
+        return scorables;
+    }
+}
@@ -0,0 +1,113 @@
+package net.prank.tools;
+
+import net.prank.core.Result;
+import net.prank.core.ScoreColumnStore;
+import net.prank.core.ScoreSummary;
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoreFileWriterTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__write_read_scorables() throws Exception {
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(examples);
+        new ShippingCostScoreCard(0, 10, 10).updateObjectsWithScore(examples);
+
+        File file = File.createTempFile("prank-scores", ".bin");
+        file.deleteOnExit();
+
+        List<String> cards = Arrays.asList(PriceScoreCard.NAME, ShippingCostScoreCard.NAME);
+        new ScoreFileWriter().write(file.toPath(), "ExampleObject", cards, examples);
+        ScoreColumnStore store = new ScoreFileReader().read(file.toPath());
+
+        assertEquals("ExampleObject", store.getName());
+        assertEquals(cards, store.getCardNames());
+        assertEquals(examples.size(), store.getCapacity());
+
+        for (int row = 0; row < examples.size(); row++)
+        {
+            ScoreSummary original = examples.get(row).getScoreSummary();
+            ScoreSummary read = store.getScoreSummary(row);
+
+            assertEquals(original.tallyScore().doubleValue(), read.tallyScore().doubleValue(), DELTA);
+            Result price = read.getResultByScoreCard(PriceScoreCard.NAME);
+            assertEquals(row, price.getPosition().getOriginalIndex());
+            assertEquals(examples.get(row).getPrice().doubleValue(), (Double) price.getScoredValue(), DELTA);
+        }
+
+        Result result = examples.get(0).getScoreSummary().getResultByScoreCard(PriceScoreCard.NAME);
+        assertNotNull(store.getStatistics(0));
+        assertEquals(result.getStatistics().getAverage().doubleValue(),
+                     store.getStatistics(0).getAverage().doubleValue(), DELTA);
+    }
+
+    @Test
+    public void test__write_read_store() throws Exception {
+
+        ScoreColumnStore store = new ScoreColumnStore("Offline", Arrays.asList("a", "bb", "ccc"), 5);
+        store.setResult(2, 4, 3.5, 1.25, 2.5, 0.125, 4);
+
+        File file = File.createTempFile("prank-store", ".bin");
+        file.deleteOnExit();
+        new ScoreFileWriter().write(file.toPath(), store);
+
+        ScoreColumnStore read = new ScoreFileReader().read(file.toPath());
+        assertEquals(1.25, read.getScore(2, 4), DELTA);
+        assertEquals(2.5, read.getAdjustedScore(2, 4), DELTA);
+        assertEquals(0.125, read.getNormalizedScore(2, 4), DELTA);
+        assertEquals(4, read.getOriginalIndex(2, 4));
+        assertEquals(-1, read.getOriginalIndex(0, 4));
+        assertEquals(null, read.getStatistics(1));
+    }
+
+    @Test
+    public void test__read_invalid() throws Exception {
+
+        File file = File.createTempFile("prank-invalid", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[32]);
+
+        try
+        {
+            new ScoreFileReader().read(file.toPath());
+            fail("Expected IOException");
+        }
+        catch (IOException expected)
+        {
+            // expected
+        }
+    }
+}
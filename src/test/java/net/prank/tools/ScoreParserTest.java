@@ -0,0 +1,157 @@
+package net.prank.tools;
+
+import net.prank.core.Indices;
+import net.prank.core.Result;
+import net.prank.core.ScoreColumnStore;
+import net.prank.core.ScoreData;
+import net.prank.core.ScoreSummary;
+import net.prank.core.Statistics;
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import net.prank.example.ShippingTimeScoreCard;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoreParserTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__parse_individual_dumps() {
+
+        ScoreFormatter formatter = new ScoreFormatter();
+        ScoreParser parser = new ScoreParser();
+
+        Indices indices = new Indices(5);
+        indices.updateWithCurrentIndex(3);
+        assertEquals(indices, parser.parseIndices(formatter.dumpIndices(indices)));
+
+        ScoreData scoreData = new ScoreData(new BigDecimal("20.0000"), null, new BigDecimal("1.5000"), 10,
+                                            new BigDecimal("20.0000"), new BigDecimal("0.0000"));
+        assertEquals(scoreData, parser.parseScoreData(formatter.dumpScoreData(scoreData)));
+
+        Statistics stats = new Statistics(new BigDecimal("1.0000"), new BigDecimal("3.2000"), 4,
+                                          new BigDecimal("1.3600"), new BigDecimal("0.1800"), null, null);
+        assertEquals(stats, parser.parseStatistics(formatter.dumpStatistics(stats)));
+
+        assertNull(parser.parseResult("null"));
+        assertNull(parser.parseScoreData("null"));
+    }
+
+    @Test
+    public void test__parseResult_value_with_commas() {
+
+        ScoreParser parser = new ScoreParser();
+        Result result = parser.parseResult("Card,a,b,c,3:1,2.0000::::10,null");
+
+        assertEquals("Card", result.getScoreCardName());
+        assertEquals("a,b,c", result.getScoredValue());
+        assertEquals(1, result.getPosition().getLastIndex());
+        assertEquals(new BigDecimal("2.0000"), result.getScoreData().getScore());
+        assertNull(result.getStatistics());
+    }
+
+    @Test
+    public void test__round_trip_reader() throws Exception {
+
+        List<ScoreSummary> summaries = scoredSummaries();
+        StringWriter writer = new StringWriter();
+        new ScoreStreamFormatter().write(writer, summaries);
+
+        final List<ScoreSummary> parsed = new ArrayList<>();
+        long count = new ScoreParser().parse(new StringReader(writer.toString()), parsed::add);
+
+        assertEquals(summaries.size(), count);
+        ScoreFormatter formatter = new ScoreFormatter();
+        for (int i = 0; i < summaries.size(); i++)
+        {
+            assertEquals(formatter.dumpScoreSummary(summaries.get(i)), formatter.dumpScoreSummary(parsed.get(i)));
+        }
+    }
+
+    @Test
+    public void test__round_trip_mapped_file_into_columns() throws Exception {
+
+        List<ScoreSummary> summaries = scoredSummaries();
+        File file = File.createTempFile("prank-dump", ".txt");
+        file.deleteOnExit();
+
+        try (FileWriter writer = new FileWriter(file))
+        {
+            new ScoreStreamFormatter().write(writer, summaries);
+        }
+
+        List<String> cards = Arrays.asList(PriceScoreCard.NAME, ShippingTimeScoreCard.NAME);
+        ScoreColumnStore store = new ScoreColumnStore("ExampleObject", cards, summaries.size());
+        int rows = new ScoreParser().parseInto(file.toPath(), store);
+
+        assertEquals(summaries.size(), rows);
+        for (int row = 0; row < rows; row++)
+        {
+            Result price = summaries.get(row).getResultByScoreCard(PriceScoreCard.NAME);
+            assertEquals(price.getScoreData().getScore().doubleValue(), store.getScore(0, row), DELTA);
+            assertEquals(((Number) price.getScoredValue()).doubleValue(), store.getValue(0, row), DELTA);
+            assertEquals(row, store.getOriginalIndex(0, row));
+        }
+
+        final List<ScoreSummary> parsed = new ArrayList<>();
+        assertEquals(summaries.size(), new ScoreParser().parse(file.toPath(), parsed::add));
+        assertEquals(0, summaries.get(2).tallyScore().compareTo(parsed.get(2).tallyScore()));
+    }
+
+    @Test
+    public void test__parseDouble() {
+
+        assertEquals(13.44, ScoreParser.parseDouble("13.44".toCharArray(), 0, 5), 0.0);
+        assertEquals(-0.0001, ScoreParser.parseDouble("-0.0001".toCharArray(), 0, 7), 0.0);
+        assertEquals(1.0E10, ScoreParser.parseDouble("1.0E10".toCharArray(), 0, 6), 0.0);
+        char[] digits = "0.1234567890123456789".toCharArray();
+        assertEquals(0.1234567890123456789, ScoreParser.parseDouble(digits, 0, digits.length), 0.0);
+        assertEquals(Double.NaN, ScoreParser.parseDouble("abc".toCharArray(), 0, 3), 0.0);
+    }
+
+    private List<ScoreSummary> scoredSummaries() {
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(examples);
+        new ShippingCostScoreCard(0, 10, 10).updateObjectsWithScore(examples);
+        new ShippingTimeScoreCard(0, 5, 5).updateObjectsWithScore(examples);
+
+        List<ScoreSummary> summaries = new ArrayList<>();
+        for (ExampleObject example : examples)
+        {
+            summaries.add(example.getScoreSummary());
+        }
+
+        return summaries;
+    }
+}
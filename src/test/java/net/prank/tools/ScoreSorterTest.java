@@ -0,0 +1,140 @@
+package net.prank.tools;
+
+import net.prank.core.CardScores;
+import net.prank.core.Result;
+import net.prank.core.Scorable;
+import net.prank.core.ScoreSummary;
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import net.prank.example.PriceScoreCard;
+import net.prank.example.ShippingCostScoreCard;
+import net.prank.example.ShippingTimeScoreCard;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoreSorterTest {
+
+    @Test
+    public void test__index_sort_is_stable() {
+
+        Random random = new Random(42);
+        int[] keys = new int[1000];
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[i] = random.nextInt(20);
+        }
+
+        int[] indices = IndexSort.identity(keys.length);
+        IndexSort.sort(indices, (one, two) -> Integer.compare(keys[one], keys[two]));
+
+        for (int i = 1; i < indices.length; i++)
+        {
+            int previous = indices[i - 1];
+            int current = indices[i];
+            assertTrue(keys[previous] < keys[current] || (keys[previous] == keys[current] && previous < current));
+        }
+    }
+
+    @Test
+    public void test__multiple_keys_with_index_tie_break() {
+
+        List<Scorable> scorables = new ArrayList<>();
+        scorables.add(scorable(3, 5.0, 1.0));
+        scorables.add(scorable(0, 5.0, 2.0));
+        scorables.add(scorable(1, 6.0, 0.0));
+        scorables.add(scorable(2, 5.0, 1.0));
+        scorables.add(scorable(4, Double.NaN, 9.0));
+
+        ScoreSorter sorter = new ScoreSorter.Builder()
+                                 .byCardScore("SortA", Result.ResultScoreType.ORIGINAL)
+                                 .byCardScore("SortB", Result.ResultScoreType.ORIGINAL)
+                                 .byOriginalIndex()
+                                 .build();
+
+        List<Scorable> copy = new ArrayList<>(scorables);
+        int[] order = sorter.sort(scorables);
+
+        assertArrayEquals(new int[]{2, 1, 3, 0, 4}, order);
+        for (int i = 0; i < order.length; i++)
+        {
+            assertSame(copy.get(order[i]), scorables.get(i));
+        }
+
+        Collections.sort(copy, sorter.comparator());
+        assertEquals(scorables, copy);
+    }
+
+    @Test
+    public void test__tally_matches_score_comparator() {
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        new PriceScoreCard(0, 20, 10).updateObjectsWithScore(examples);
+        new ShippingCostScoreCard(0, 10, 10).updateObjectsWithScore(examples);
+        new ShippingTimeScoreCard(0, 5, 5).updateObjectsWithScore(examples);
+
+        List<ExampleObject> expected = new ArrayList<>(examples);
+        Collections.sort(expected, new ScoreComparator());
+
+        List<ExampleObject> sorted = new ArrayList<>(examples);
+        new ScoreSorter.Builder().byTally(Result.ResultScoreType.ORIGINAL).build().sort(sorted);
+
+        for (int i = 0; i < sorted.size(); i++)
+        {
+            assertEquals(expected.get(i).getScoreSummary().tallyScore(),
+                         sorted.get(i).getScoreSummary().tallyScore());
+        }
+
+        List<String> cards = Arrays.asList(PriceScoreCard.NAME, ShippingTimeScoreCard.NAME);
+        double[][] keys = new ScoreSorter.Builder().byTally(cards, Result.ResultScoreType.ORIGINAL).build()
+                                                   .extractKeys(examples);
+
+        assertEquals(1, keys.length);
+        assertEquals(-examples.get(0).getScoreSummary().tallyScoreFor(PriceScoreCard.NAME,
+                                                                       ShippingTimeScoreCard.NAME).doubleValue(),
+                     keys[0][0], 1e-10);
+    }
+
+    private Scorable scorable(final int originalIndex, double a, double b) {
+
+        final ScoreSummary summary = new ScoreSummary("sort");
+        addScore(summary, "SortA", originalIndex, a);
+        addScore(summary, "SortB", originalIndex, b);
+        return () -> summary;
+    }
+
+    private void addScore(ScoreSummary summary, String card, int originalIndex, double score) {
+
+        if (!Double.isNaN(score))
+        {
+            CardScores cardScores = new CardScores(card, originalIndex + 1);
+            cardScores.setScore(originalIndex, score);
+            summary.addResult(card, cardScores.result(originalIndex));
+        }
+    }
+}
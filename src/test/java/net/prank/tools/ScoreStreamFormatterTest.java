@@ -0,0 +1,160 @@
+package net.prank.tools;
+
+import net.prank.core.Indices;
+import net.prank.core.Result;
+import net.prank.core.ScoreData;
+import net.prank.core.ScoreSummary;
+import net.prank.core.Statistics;
+import net.prank.example.ExampleObject;
+import net.prank.example.PranksterExample;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoreStreamFormatterTest {
+
+    private static final long[] POWERS = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+                                          100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L,
+                                          10000000000000L, 100000000000000L, 1000000000000000L,
+                                          10000000000000000L, 100000000000000000L, 1000000000000000000L};
+
+    @Test
+    public void test__format_matches_dumpScoreSummary() {
+
+        List<ExampleObject> examples = new PranksterExample().getExamples();
+        new PranksterExample().updateObjectsWithScores(examples);
+
+        ScoreFormatter formatter = new ScoreFormatter();
+        ScoreStreamFormatter streamFormatter = new ScoreStreamFormatter();
+
+        for (ExampleObject example : examples)
+        {
+            String expected = formatter.dumpScoreSummary(example.getScoreSummary());
+            assertEquals(expected, streamFormatter.format(example.getScoreSummary()).toString());
+        }
+    }
+
+    @Test
+    public void test__format_nulls() {
+
+        ScoreSummary summary = new ScoreSummary("FOO");
+        Statistics stats = new Statistics(new BigDecimal("3.45"), null, 5, new BigDecimal("-0.00005"), null, null,
+                                          new BigDecimal("1234567.123456789"));
+        ScoreData scoreData = new ScoreData(new BigDecimal("20.00015"), null, new BigDecimal("-2.5"), 3, null, null);
+        Indices indices = new Indices(2);
+        indices.updateWithCurrentIndex(0);
+
+        summary.addResult("A", new Result<>("A", null, indices, scoreData, stats));
+        summary.addResult("B", new Result<>("B", 5, null, null, null));
+
+        String expected = new ScoreFormatter().dumpScoreSummary(summary);
+        assertEquals(expected, new ScoreStreamFormatter().format(summary).toString());
+    }
+
+    @Test
+    public void test__appendDecimal_matches_bigDecimal() {
+
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 20000; i++)
+        {
+            int scale = random.nextInt(7);
+            int digits = 1 + random.nextInt(9);
+            BigDecimal value = BigDecimal.valueOf(random.nextLong() % 1000000000L, digits);
+
+            sb.setLength(0);
+            ScoreStreamFormatter.appendDecimal(sb, value.doubleValue(), scale);
+            assertEquals(value.toString(), value.setScale(scale, RoundingMode.HALF_EVEN).toString(), sb.toString());
+        }
+    }
+
+    @Test
+    public void test__appendDecimal_bigDecimal_rounds_exactly() {
+
+        String[] known = {"743580113.926593", "-9652834.65825001", "-742324897512445", "0.5", "-2.5", "1E+3",
+                          "-0.00005", "123456789012345678", "0.000000000000000000001"};
+        for (String text : known)
+        {
+            for (int scale = 0; scale < 7; scale++)
+            {
+                assertAppendDecimal(new BigDecimal(text), scale);
+            }
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < 50000; i++)
+        {
+            int scale = random.nextInt(7);
+            int digits = 1 + random.nextInt(18);
+            long unscaled = random.nextLong() % POWERS[digits];
+            int valueScale = random.nextInt(16) - 2;
+
+            assertAppendDecimal(BigDecimal.valueOf(unscaled, valueScale), scale);
+
+            // Exact ties and their neighbours, one digit beyond 'scale'
+            long tie = (unscaled % POWERS[Math.min(digits, 14)]) * 10 + (unscaled < 0 ? -5 : 5);
+            assertAppendDecimal(BigDecimal.valueOf(tie, scale + 1), scale);
+            assertAppendDecimal(BigDecimal.valueOf(tie + 1, scale + 1), scale);
+            assertAppendDecimal(BigDecimal.valueOf(tie - 1, scale + 1), scale);
+            assertAppendDecimal(BigDecimal.valueOf(tie * 1000 + 1, scale + 4), scale);
+        }
+    }
+
+    private void assertAppendDecimal(BigDecimal value, int scale) {
+
+        StringBuilder sb = new StringBuilder();
+        ScoreStreamFormatter.appendDecimal(sb, value, scale);
+        assertEquals(value + " at " + scale, value.setScale(scale, RoundingMode.HALF_EVEN).toString(), sb.toString());
+    }
+
+    @Test
+    public void test__write_writer_and_bytebuffer() throws Exception {
+
+        List<ScoreSummary> summaries = new ArrayList<>();
+        for (ExampleObject example : new PranksterExample().getExamples())
+        {
+            summaries.add(example.getScoreSummary());
+        }
+
+        ScoreStreamFormatter streamFormatter = new ScoreStreamFormatter();
+        StringWriter writer = new StringWriter();
+        streamFormatter.write(writer, summaries);
+        assertEquals(summaries.size(), writer.toString().split("\n").length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        assertTrue(streamFormatter.write(buffer, summaries.get(0)));
+        assertEquals("ExampleObject:\n", new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+
+        ByteBuffer small = ByteBuffer.allocate(4);
+        assertFalse(streamFormatter.write(small, summaries.get(0)));
+        assertEquals(0, small.position());
+    }
+}
@@ -0,0 +1,103 @@
+package net.prank.tools;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class ScoringCurveTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__linear() {
+
+        ScoringCurve curve = ScoringCurve.linear(10.0, 20.0, 0.0, 10.0);
+        assertEquals(0.0, curve.score(5.0), DELTA);
+        assertEquals(5.0, curve.score(15.0), DELTA);
+        assertEquals(10.0, curve.score(25.0), DELTA);
+        assertTrue(Double.isNaN(curve.score(Double.NaN)));
+
+        // Low value as high score
+        ScoringCurve lowIsBetter = ScoringCurve.linear(10.0, 20.0, 10.0, 0.0);
+        assertEquals(10.0, lowIsBetter.score(10.0), DELTA);
+        assertEquals(2.5, lowIsBetter.score(17.5), DELTA);
+
+        double[] scores = new double[4];
+        curve.score(new double[] {5.0, 12.0, Double.NaN, 30.0}, scores);
+        assertEquals(0.0, scores[0], DELTA);
+        assertEquals(2.0, scores[1], DELTA);
+        assertTrue(Double.isNaN(scores[2]));
+        assertEquals(10.0, scores[3], DELTA);
+    }
+
+    @Test
+    public void test__logistic() {
+
+        ScoringCurve curve = ScoringCurve.logistic(50.0, 0.5, 0.0, 10.0);
+        assertEquals(5.0, curve.score(50.0), DELTA);
+        assertTrue(curve.score(60.0) > 9.9);
+        assertTrue(curve.score(40.0) < 0.1);
+
+        ScoringCurve lowIsBetter = ScoringCurve.logistic(50.0, -0.5, 0.0, 10.0);
+        assertTrue(lowIsBetter.score(40.0) > 9.9);
+        assertTrue(Double.isNaN(lowIsBetter.score(Double.NaN)));
+    }
+
+    @Test
+    public void test__z_score() {
+
+        RunningStatistics stats = new RunningStatistics();
+        for (double value : new double[] {2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0})
+        {
+            stats.add(value);
+        }
+
+        ScoringCurve curve = ScoringCurve.zScore(5.0, 2.0, 2.0, 0.0, 10.0);
+        assertEquals(0.0, curve.score(0.0), DELTA);
+        assertEquals(5.0, curve.score(5.0), DELTA);
+        assertEquals(7.5, curve.score(7.0), DELTA);
+        assertEquals(10.0, curve.score(100.0), DELTA);
+
+        ScoringCurve fromStats = ScoringCurve.zScore(stats, 2.0, 0.0, 10.0);
+        assertEquals(5.0, fromStats.score(stats.getAverage()), DELTA);
+        assertEquals(10.0, fromStats.score(stats.getMax() + 3 * stats.getStandardDeviation()), DELTA);
+
+        ScoringCurve flat = ScoringCurve.zScore(5.0, 0.0, 2.0, 0.0, 10.0);
+        assertEquals(5.0, flat.score(5.0), DELTA);
+    }
+
+    @Test
+    public void test__piecewise_linear() {
+
+        ScoringCurve curve = ScoringCurve.piecewiseLinear(new double[] {0.0, 10.0, 100.0},
+                                                          new double[] {10.0, 8.0, 0.0});
+        assertEquals(10.0, curve.score(-5.0), DELTA);
+        assertEquals(9.0, curve.score(5.0), DELTA);
+        assertEquals(8.0, curve.score(10.0), DELTA);
+        assertEquals(4.0, curve.score(55.0), DELTA);
+        assertEquals(0.0, curve.score(500.0), DELTA);
+        assertTrue(Double.isNaN(curve.score(Double.NaN)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test__piecewise_requires_increasing_values() {
+        ScoringCurve.piecewiseLinear(new double[] {0.0, 0.0}, new double[] {1.0, 2.0});
+    }
+}
@@ -3,11 +3,13 @@ package net.prank.tools;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  *
@@ -181,4 +183,114 @@ public class ScoringToolTest {
         BigDecimal normalized = tool.normalize(value, max, normalizeTarget);
         assertEquals(new BigDecimal("96.8"), normalized);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test__scoreFromRanges_matches_getScoreFromRange() {
+
+        ScoringTool tool = new ScoringTool();
+        Set<ScoringRange> ranges = tool.scoreBucketsEvenlyLowValueAsHighScore(0, 10, 5, 100.0, 575.0);
+        BucketPlan plan = BucketPlan.compile(ranges);
+
+        double[] values = {100.0, 150.0, 300.0, 574.9, 50.0, 1000.0, Double.NaN};
+        double[] scores = new double[values.length];
+        tool.scoreFromRanges(values, plan, scores, -1.0);
+
+        for (int i = 0; i < values.length - 1; i++)
+        {
+            assertEquals(tool.getScoreFromRange(values[i], ranges), scores[i], DELTA);
+            assertEquals(plan.score(values[i]), scores[i], DELTA);
+        }
+
+        assertEquals(10.0, scores[0], DELTA);
+        assertEquals(0.0, scores[4], DELTA);
+        assertEquals(-1.0, scores[6], DELTA);
+    }
+
+    @Test
+    public void test__scoreFromRanges_boundary_and_mask() {
+
+        Set<ScoringRange> ranges = new HashSet<>();
+        ranges.add(new ScoringRange(10.0, 20.0, 2.0));
+        ranges.add(new ScoringRange(0.0, 10.0, 1.0));
+        BucketPlan plan = BucketPlan.compile(ranges);
+
+        double[] values = {10.0, 20.0, 5.0, 15.0};
+        boolean[] present = {true, true, false, true};
+        double[] scores = new double[values.length];
+        new ScoringTool().scoreFromRanges(values, present, 4, plan, scores, Double.NaN);
+
+        // Lower bucket wins a shared boundary
+        assertEquals(1.0, scores[0], DELTA);
+        assertEquals(2.0, scores[1], DELTA);
+        assertTrue(Double.isNaN(scores[2]));
+        assertEquals(2.0, scores[3], DELTA);
+    }
+
+    @Test
+    public void test__quantile_buckets_with_outlier() {
+
+        double[] values = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 1000.0, Double.NaN};
+        ScoringTool tool = new ScoringTool();
+        BucketPlan plan = tool.scoreQuantileBucketsLowValueAsHighScore(0, 10, 5, values, 1.0, 1000.0);
+
+        assertEquals(5, plan.getBucketCount());
+        assertEquals(10.0, plan.score(1.0), DELTA);
+        assertEquals(10.0, plan.score(2.0), DELTA);
+        assertEquals(8.0, plan.score(3.0), DELTA);
+        assertEquals(4.0, plan.score(8.0), DELTA);
+        assertEquals(2.0, plan.score(1000.0), DELTA);
+
+        BucketPlan highPlan = tool.scoreQuantileBucketsHighValueAsHighScore(0, 10, 5, values, 1.0, 1000.0);
+        assertEquals(2.0, highPlan.score(1.0), DELTA);
+        assertEquals(10.0, highPlan.score(1000.0), DELTA);
+
+        // Repeated quantiles collapse into fewer buckets
+        BucketPlan ties = tool.scoreQuantileBucketsLowValueAsHighScore(0, 10, 4, new double[] {5, 5, 5, 5, 5, 9},
+                                                                       5.0, 9.0);
+        assertEquals(2, ties.getBucketCount());
+        assertEquals(10.0, ties.score(5.0), DELTA);
+        assertEquals(7.5, ties.score(9.0), DELTA);
+    }
+
+    @Test
+    public void test__quantile_buckets_sampled() {
+
+        int size = ScoringTool.QUANTILE_SAMPLE_SIZE * 25;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++)
+        {
+            values[i] = (i * 7919L) % size;
+        }
+
+        BucketPlan plan = new ScoringTool().scoreQuantileBucketsHighValueAsHighScore(0, 4, 4, values, 0, size - 1);
+        assertEquals(4, plan.getBucketCount());
+
+        for (int b = 1; b < plan.getBucketCount(); b++)
+        {
+            double expected = (double) b * size / 4;
+            assertEquals(expected, plan.getMin(b), size * 0.01);
+        }
+    }
+
+    @Test
+    public void test__standard_deviation_buckets() {
+
+        ScoringTool tool = new ScoringTool();
+        BucketPlan plan = tool.scoreStandardDeviationBucketsLowValueAsHighScore(0, 10, 4, 50.0, 10.0, 0.0, 200.0);
+
+        assertEquals(4, plan.getBucketCount());
+        assertEquals(10.0, plan.score(0.0), DELTA);
+        assertEquals(10.0, plan.score(30.0), DELTA);
+        assertEquals(7.5, plan.score(45.0), DELTA);
+        assertEquals(5.0, plan.score(60.0), DELTA);
+        assertEquals(2.5, plan.score(200.0), DELTA);
+
+        RunningStatistics stats = new RunningStatistics();
+        stats.add(40.0);
+        stats.add(60.0);
+        BucketPlan fromStats = tool.scoreStandardDeviationBucketsHighValueAsHighScore(0, 10, 4, stats);
+        assertEquals(10.0, fromStats.score(60.0), DELTA);
+        assertTrue(fromStats.score(40.0) < fromStats.score(45.0));
+        assertTrue(fromStats.score(45.0) < fromStats.score(55.0));
+    }
+}
@@ -0,0 +1,89 @@
+package net.prank.tools;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author dmillett
+ *
+ * Copyright 2012 David Millett
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+public class SegmentedLruCacheTest {
+
+    private static final double DELTA = 1e-10;
+
+    @Test
+    public void test__get_put_metrics() {
+
+        SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>(10);
+        assertNull(cache.get("a"));
+        assertTrue(cache.put("a", 1));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+
+        assertTrue(cache.put("a", 2));
+        assertEquals(Integer.valueOf(2), cache.get("a"));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2.0 / 3.0, cache.getHitRate(), DELTA);
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test__frequent_keys_survive_scan() {
+
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(10);
+        for (int i = 0; i < 10; i++)
+        {
+            cache.put(i, i);
+            cache.get(i);
+            cache.get(i);
+        }
+
+        // One-off keys are not admitted over frequently used ones
+        for (int i = 100; i < 1000; i++)
+        {
+            assertEquals(Integer.valueOf(i % 10), cache.get(i % 10));
+            assertNull(cache.get(i));
+            cache.put(i, i);
+        }
+
+        assertEquals(10, cache.size());
+        assertTrue(cache.getRejectionCount() > 800);
+    }
+
+    @Test
+    public void test__bounded_size() {
+
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(256);
+        for (int round = 0; round < 3; round++)
+        {
+            for (int i = 0; i < 2000; i++)
+            {
+                if (cache.get(i) == null)
+                {
+                    cache.put(i, i);
+                }
+            }
+        }
+
+        assertTrue(cache.size() <= 256);
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+}